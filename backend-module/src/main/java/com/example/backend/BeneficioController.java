@@ -1,11 +1,40 @@
 package com.example.backend;
 
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.cache.SegundoNivelCacheEstatisticas;
+import com.example.backend.config.CamposResposta;
+import com.example.backend.config.EtagRepresentacao;
+import com.example.backend.dto.AlteracaoBeneficioDTO;
 import com.example.backend.dto.BeneficioCreateDTO;
+import com.example.backend.dto.BeneficioCreateLoteDTO;
 import com.example.backend.dto.BeneficioResponseDTO;
 import com.example.backend.dto.BeneficioUpdateDTO;
+import com.example.backend.dto.BeneficioUpdateLoteDTO;
+import com.example.backend.dto.EstatisticasBeneficiosDTO;
+import com.example.backend.dto.EstatisticasCacheDTO;
+import com.example.backend.dto.EstatisticasRegiaoHibernateDTO;
+import com.example.backend.dto.ImportacaoDTO;
+import com.example.backend.dto.LancamentoDTO;
+import com.example.backend.dto.PaginaCursorDTO;
+import com.example.backend.dto.PaginaDTO;
+import com.example.backend.dto.SugestaoNomeDTO;
+import com.example.backend.dto.TicketTransferenciaDTO;
 import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaLoteDTO;
+import com.example.backend.dto.TransferenciaLoteResultadoDTO;
+import com.example.backend.dto.VersaoColecaoDTO;
 import com.example.backend.exception.ErrorResponse;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.service.BeneficioExportService;
+import com.example.backend.service.BeneficioImportService;
+import com.example.backend.service.BeneficioEventosService;
 import com.example.backend.service.BeneficioService;
+import com.example.backend.service.BeneficioSlotService;
+import com.example.backend.service.EstatisticasService;
+import com.example.backend.service.LancamentoService;
+import com.example.backend.service.TransferenciaFilaService;
+import com.example.backend.service.TransferenciaLoteService;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,10 +45,19 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -33,18 +71,84 @@ import java.util.List;
 @CrossOrigin(origins = "*") // Para desenvolvimento - em produção, configurar CORS adequadamente
 public class BeneficioController {
 
+    /**
+     * Respostas com ETag podem ser armazenadas pelo cliente, mas devem ser revalidadas (If-None-Match) a cada uso
+     */
+    private static final CacheControl REVALIDAR = CacheControl.noCache();
+
     private final BeneficioService service;
+    private final TransferenciaLoteService loteService;
+    private final TransferenciaFilaService filaService;
+    private final LancamentoService lancamentoService;
+    private final BeneficioSlotService slotService;
+    private final BeneficioExportService exportService;
+    private final BeneficioImportService importService;
+    private final EstatisticasService estatisticasService;
+    private final BeneficioEventosService eventosService;
+    private final BeneficioCache cache;
+    private final SegundoNivelCacheEstatisticas segundoNivelCache;
+    private final BeneficioMetricas metricas;
 
-    @Operation(summary = "Listar todos os benefícios", description = "Retorna lista completa de benefícios")
+    @Operation(summary = "Listar benefícios", description = "Retorna benefícios paginados por cursor, em ordem de ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso",
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = BeneficioResponseDTO.class)))
+                            schema = @Schema(implementation = PaginaCursorDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Benefícios não modificados (If-None-Match)"),
+            @ApiResponse(responseCode = "400", description = "Limite inválido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping
-    public ResponseEntity<List<BeneficioResponseDTO>> findAll() {
-        log.info("GET /api/v1/beneficios - Listando todos os benefícios");
-        return ResponseEntity.ok(service.findAll());
+    public ResponseEntity<PaginaCursorDTO<BeneficioResponseDTO>> findAll(
+            @Parameter(description = "Cursor retornado pela página anterior (proximoCursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Quantidade máxima de itens (1 a 1000)")
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        log.debug("GET /api/v1/beneficios?after={}&limit={} - Listando benefícios", after, limit);
+        String etag = etagColecao(service.findVersaoColecao(), request);
+        if (request.checkNotModified(etag)) {
+            return naoModificado();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR).body(service.findAll(after, limit));
+    }
+
+    @Operation(summary = "Listar benefícios por página",
+            description = "Retorna uma página de benefícios filtrada por nome e situação, na ordenação solicitada, "
+                    + "com o total de itens do filtro (rolagem virtual). Paginação por OFFSET: para percorrer "
+                    + "toda a coleção, prefira a listagem por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Benefícios não modificados (If-None-Match)"),
+            @ApiResponse(responseCode = "400", description = "Página, tamanho, ordenação ou direção inválidos",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaDTO<BeneficioResponseDTO>> findPagina(
+            @Parameter(description = "Número da página, a partir de zero")
+            @RequestParam(defaultValue = "0") int pagina,
+            @Parameter(description = "Quantidade máxima de itens (1 a 1000)")
+            @RequestParam(defaultValue = "50") int tamanho,
+            @Parameter(description = "Campo de ordenação: id, nome ou valor")
+            @RequestParam(defaultValue = "id") String ordenacao,
+            @Parameter(description = "Direção da ordenação: asc ou desc")
+            @RequestParam(defaultValue = "asc") String direcao,
+            @Parameter(description = "Trecho do nome (sem diferenciar maiúsculas)")
+            @RequestParam(required = false) String nome,
+            @Parameter(description = "Situação do benefício")
+            @RequestParam(required = false) Boolean ativo,
+            WebRequest request) {
+        log.debug("GET /api/v1/beneficios/pagina?pagina={}&tamanho={} - Listando benefícios por página", pagina, tamanho);
+        String etag = etagColecao(service.findVersaoColecao(), request);
+        if (request.checkNotModified(etag)) {
+            return naoModificado();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR)
+                .body(service.findPagina(pagina, tamanho, ordenacao, direcao, nome, ativo));
     }
 
     @Operation(summary = "Buscar benefício por ID", description = "Retorna um benefício específico pelo ID")
@@ -52,6 +156,7 @@ public class BeneficioController {
             @ApiResponse(responseCode = "200", description = "Benefício encontrado",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = BeneficioResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Benefício não modificado (If-None-Match)"),
             @ApiResponse(responseCode = "404", description = "Benefício não encontrado",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
@@ -59,21 +164,98 @@ public class BeneficioController {
     @GetMapping("/{id}")
     public ResponseEntity<BeneficioResponseDTO> findById(
             @Parameter(description = "ID do benefício", required = true)
-            @PathVariable Long id) {
-        log.info("GET /api/v1/beneficios/{} - Buscando benefício", id);
-        return ResponseEntity.ok(service.findById(id));
+            @PathVariable Long id,
+            WebRequest request) {
+        log.debug("GET /api/v1/beneficios/{} - Buscando benefício", id);
+        // Com If-None-Match, compara apenas a versão efetiva antes de carregar o benefício
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String etag = etagVersao(service.findVersion(id), request);
+            if (request.checkNotModified(etag)) {
+                return naoModificado();
+            }
+        }
+        BeneficioResponseDTO beneficio = service.findById(id);
+        return ResponseEntity.ok().eTag(etagVersao(beneficio.getVersion(), request)).cacheControl(REVALIDAR).body(beneficio);
     }
 
-    @Operation(summary = "Listar benefícios ativos", description = "Retorna apenas benefícios ativos")
+    @Operation(summary = "Histórico de lançamentos", description = "Retorna o diário de lançamentos do benefício " +
+            "(criação, ajustes, débitos e créditos), paginado por cursor em ordem de lançamento. " +
+            "O diário só é gravado no modo de transferência LEDGER")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso",
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = BeneficioResponseDTO.class)))
+                            schema = @Schema(implementation = PaginaCursorDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Limite inválido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Benefício não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{id}/lancamentos")
+    public ResponseEntity<PaginaCursorDTO<LancamentoDTO>> findLancamentos(
+            @Parameter(description = "ID do benefício", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Cursor retornado pela página anterior (proximoCursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Quantidade máxima de itens (1 a 1000)")
+            @RequestParam(defaultValue = "50") int limit) {
+        log.debug("GET /api/v1/beneficios/{}/lancamentos?after={}&limit={} - Listando lançamentos", id, after, limit);
+        return ResponseEntity.ok(lancamentoService.findHistorico(id, after, limit));
+    }
+
+    @Operation(summary = "Estatísticas dos benefícios",
+            description = "Contagens de ativos e inativos, total, mínimo, máximo, média e histograma dos saldos dos ativos, "
+                    + "mantidos em memória e conferidos periodicamente com o banco")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EstatisticasBeneficiosDTO.class)))
+    })
+    @GetMapping("/estatisticas")
+    public ResponseEntity<EstatisticasBeneficiosDTO> estatisticas() {
+        log.debug("GET /api/v1/beneficios/estatisticas - Consultando estatísticas dos benefícios");
+        return ResponseEntity.ok(estatisticasService.consultar());
+    }
+
+    @Operation(summary = "Fluxo de alterações",
+            description = "Server-Sent Events: após cada commit, evento \"alteracoes\" com a lista (id, valor, ativo, "
+                    + "version) dos benefícios alterados, agrupada por intervalo. Não há reenvio: ao reconectar, "
+                    + "o cliente deve recarregar os dados")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fluxo aberto",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = AlteracaoBeneficioDTO.class)))
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        log.debug("GET /api/v1/beneficios/stream - Assinando fluxo de alterações");
+        return eventosService.assinar();
+    }
+
+    @Operation(summary = "Listar benefícios ativos", description = "Retorna apenas benefícios ativos, paginados por cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaCursorDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Benefícios não modificados (If-None-Match)"),
+            @ApiResponse(responseCode = "400", description = "Limite inválido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/ativos")
-    public ResponseEntity<List<BeneficioResponseDTO>> findAtivos() {
-        log.info("GET /api/v1/beneficios/ativos - Listando benefícios ativos");
-        return ResponseEntity.ok(service.findAtivos());
+    public ResponseEntity<PaginaCursorDTO<BeneficioResponseDTO>> findAtivos(
+            @Parameter(description = "Cursor retornado pela página anterior (proximoCursor)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Quantidade máxima de itens (1 a 1000)")
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        log.debug("GET /api/v1/beneficios/ativos?after={}&limit={} - Listando benefícios ativos", after, limit);
+        String etag = etagColecao(service.findVersaoColecao(), request);
+        if (request.checkNotModified(etag)) {
+            return naoModificado();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR).body(service.findAtivos(after, limit));
     }
 
     @Operation(summary = "Buscar benefícios por nome", description = "Busca benefícios que contenham o nome especificado")
@@ -86,10 +268,91 @@ public class BeneficioController {
     public ResponseEntity<List<BeneficioResponseDTO>> findByNome(
             @Parameter(description = "Nome ou parte do nome para buscar", required = true)
             @RequestParam String nome) {
-        log.info("GET /api/v1/beneficios/buscar?nome={}", nome);
+        log.debug("GET /api/v1/beneficios/buscar?nome={}", nome);
         return ResponseEntity.ok(service.findByNome(nome));
     }
 
+    @Operation(summary = "Autocompletar nomes", description = "Retorna os benefícios cujo nome começa com o prefixo, " +
+            "em ordem alfabética")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugestões retornadas com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = SugestaoNomeDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Prefixo vazio ou limite inválido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/autocompletar")
+    public ResponseEntity<List<SugestaoNomeDTO>> autocompletar(
+            @Parameter(description = "Início do nome", required = true)
+            @RequestParam String prefixo,
+            @Parameter(description = "Quantidade máxima de sugestões (1 a 100)")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("GET /api/v1/beneficios/autocompletar?prefixo={}&limit={}", prefixo, limit);
+        return ResponseEntity.ok(service.autocompletar(prefixo, limit));
+    }
+
+    @Operation(summary = "Exportar benefícios", description = "Exporta todos os benefícios em NDJSON " +
+            "(um objeto JSON por linha), em streaming e com memória constante no servidor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportação iniciada",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = BeneficioResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Campos inválidos",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Campos exportados, separados por vírgula (padrão: todos)", example = "id,nome,valor")
+            @RequestParam(name = CamposResposta.PARAMETRO, required = false) String fields) {
+        log.debug("GET /api/v1/beneficios/exportar?fields={} - Exportando benefícios", fields);
+        // Validado antes do streaming: um campo inválido ainda pode virar 400
+        FilterProvider campos = CamposResposta.filtro(fields);
+        StreamingResponseBody body = out -> exportService.exportarNdjson(out, campos);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"beneficios.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Importar benefícios de CSV",
+            description = "Recebe um arquivo CSV (cabeçalho nome,descricao,valor,ativo) no corpo da requisição e o " +
+                    "importa em segundo plano, em transações por lote e com memória constante no servidor. " +
+                    "Responde 202 com a importação para acompanhamento")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Arquivo CSV", required = true,
+            content = @Content(mediaType = "text/csv"))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Arquivo recebido e importação agendada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ImportacaoDTO.class)))
+    })
+    @PostMapping(value = "/importar", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImportacaoDTO> importar(InputStream csv) throws IOException {
+        log.debug("POST /api/v1/beneficios/importar - Recebendo arquivo CSV");
+        ImportacaoDTO importacao = importService.importar(csv);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/beneficios/importacoes/" + importacao.getId()))
+                .body(importacao);
+    }
+
+    @Operation(summary = "Consultar importação",
+            description = "Retorna o progresso, a vazão e as primeiras linhas rejeitadas de uma importação de CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ImportacaoDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Importação inexistente ou expirada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/importacoes/{id}")
+    public ResponseEntity<ImportacaoDTO> consultarImportacao(
+            @Parameter(description = "ID da importação", required = true)
+            @PathVariable String id) {
+        log.debug("GET /api/v1/beneficios/importacoes/{} - Consultando importação", id);
+        return ResponseEntity.ok(importService.consultar(id));
+    }
+
     @Operation(summary = "Criar novo benefício", description = "Cria um novo benefício no sistema")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Benefício criado com sucesso",
@@ -103,11 +366,53 @@ public class BeneficioController {
     public ResponseEntity<BeneficioResponseDTO> create(
             @Parameter(description = "Dados do benefício a ser criado", required = true)
             @Valid @RequestBody BeneficioCreateDTO dto) {
-        log.info("POST /api/v1/beneficios - Criando benefício: {}", dto.getNome());
+        log.debug("POST /api/v1/beneficios - Criando benefício: {}", dto.getNome());
         BeneficioResponseDTO created = service.create(dto);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @Operation(summary = "Criar benefícios em lote",
+            description = "Cria os benefícios em uma única transação, com INSERTs em batch JDBC. " +
+                    "Retorna os benefícios criados na ordem do lote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Benefícios criados com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BeneficioResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, acima do tamanho máximo ou com dados inválidos",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/lote")
+    public ResponseEntity<List<BeneficioResponseDTO>> createLote(
+            @Parameter(description = "Lote de benefícios a serem criados", required = true)
+            @Valid @RequestBody BeneficioCreateLoteDTO dto) {
+        log.debug("POST /api/v1/beneficios/lote - {} benefícios", dto.getBeneficios().size());
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.createLote(dto.getBeneficios()));
+    }
+
+    @Operation(summary = "Atualizar benefícios em lote",
+            description = "Atualiza os benefícios em uma única transação, com UPDATEs em batch JDBC. " +
+                    "Retorna os benefícios atualizados na ordem do lote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Benefícios atualizados com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BeneficioResponseDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Algum benefício do lote não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, acima do tamanho máximo, com ID repetido " +
+                    "ou com dados inválidos",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping("/lote")
+    public ResponseEntity<List<BeneficioResponseDTO>> updateLote(
+            @Parameter(description = "Lote de benefícios a serem atualizados", required = true)
+            @Valid @RequestBody BeneficioUpdateLoteDTO dto) {
+        log.debug("PUT /api/v1/beneficios/lote - {} benefícios", dto.getBeneficios().size());
+        return ResponseEntity.ok(service.updateLote(dto.getBeneficios()));
+    }
+
     @Operation(summary = "Atualizar benefício", description = "Atualiza um benefício existente")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Benefício atualizado com sucesso",
@@ -126,10 +431,34 @@ public class BeneficioController {
             @PathVariable Long id,
             @Parameter(description = "Novos dados do benefício", required = true)
             @Valid @RequestBody BeneficioUpdateDTO dto) {
-        log.info("PUT /api/v1/beneficios/{} - Atualizando benefício", id);
+        log.debug("PUT /api/v1/beneficios/{} - Atualizando benefício", id);
         return ResponseEntity.ok(service.update(id, dto));
     }
 
+    @Operation(summary = "Particionar saldo em slots",
+            description = "Divide o saldo de um benefício muito disputado em N slots: débitos e créditos passam " +
+                    "a atualizar um slot aleatório, e um débito sem saldo no slot consolida os slots. " +
+                    "As leituras continuam retornando o saldo agregado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Benefício particionado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Quantidade inválida ou benefício já particionado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Benefício não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping("/{id}/slots")
+    public ResponseEntity<Void> particionar(
+            @Parameter(description = "ID do benefício", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Quantidade de slots")
+            @RequestParam(defaultValue = "8") int quantidade) {
+        log.debug("PUT /api/v1/beneficios/{}/slots - Particionando saldo em {} slots", id, quantidade);
+        slotService.particionar(id, quantidade);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Remover benefício", description = "Remove um benefício (soft delete)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Benefício removido com sucesso"),
@@ -141,30 +470,135 @@ public class BeneficioController {
     public ResponseEntity<Void> delete(
             @Parameter(description = "ID do benefício", required = true)
             @PathVariable Long id) {
-        log.info("DELETE /api/v1/beneficios/{} - Removendo benefício", id);
+        log.debug("DELETE /api/v1/beneficios/{} - Removendo benefício", id);
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
 
     @Operation(summary = "Transferir valor entre benefícios",
-            description = "Realiza transferência de valor de um benefício para outro com validações")
+            description = "Realiza transferência de valor de um benefício para outro com validações. " +
+                    "Com a fila habilitada (beneficio.transferencia.fila.habilitada), apenas enfileira " +
+                    "e responde 202 com o ticket para consulta")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transferência realizada com sucesso"),
+            @ApiResponse(responseCode = "202", description = "Transferência enfileirada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TicketTransferenciaDTO.class))),
             @ApiResponse(responseCode = "400", description = "Dados inválidos ou saldo insuficiente",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Benefício não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Conflito de concorrência, a transferência pode ser repetida",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Fila de transferências cheia, a transferência pode ser repetida",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping("/transferir")
-    public ResponseEntity<Void> transfer(
+    public ResponseEntity<TicketTransferenciaDTO> transfer(
             @Parameter(description = "Dados da transferência", required = true)
             @Valid @RequestBody TransferenciaDTO dto) {
-        log.info("POST /api/v1/beneficios/transferir - Transferindo {} de {} para {}",
+        log.debug("POST /api/v1/beneficios/transferir - Transferindo {} de {} para {}",
                 dto.getAmount(), dto.getFromId(), dto.getToId());
-        service.transfer(dto);
+        if (filaService.isHabilitada()) {
+            TicketTransferenciaDTO ticket = filaService.enfileirar(dto);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/beneficios/transferir/" + ticket.getTicket()))
+                    .body(ticket);
+        }
+        // Medida fora da transação: falhas no commit (ex.: conflito de versão) também são contadas
+        metricas.medirTransferencia(() -> service.transfer(dto));
         return ResponseEntity.ok().build();
     }
-}
 
+    @Operation(summary = "Consultar transferência enfileirada",
+            description = "Retorna a situação (PENDENTE, CONCLUIDA ou REJEITADA) de uma transferência assíncrona")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Situação retornada com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TicketTransferenciaDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Ticket inexistente ou expirado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/transferir/{ticket}")
+    public ResponseEntity<TicketTransferenciaDTO> consultarTransferencia(
+            @Parameter(description = "Ticket retornado por POST /transferir", required = true)
+            @PathVariable String ticket) {
+        log.debug("GET /api/v1/beneficios/transferir/{} - Consultando transferência", ticket);
+        return ResponseEntity.ok(filaService.consultar(ticket));
+    }
+
+    @Operation(summary = "Transferir valores em lote",
+            description = "Aplica um lote de transferências em transações por chunk, " +
+                    "retornando o resultado individual de cada transferência")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote processado (verificar o resultado de cada transferência)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TransferenciaLoteResultadoDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do tamanho máximo",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/transferir/lote")
+    public ResponseEntity<TransferenciaLoteResultadoDTO> transferLote(
+            @Parameter(description = "Lote de transferências", required = true)
+            @Valid @RequestBody TransferenciaLoteDTO dto) {
+        log.debug("POST /api/v1/beneficios/transferir/lote - {} transferências", dto.getTransferencias().size());
+        return ResponseEntity.ok(loteService.transferLote(dto.getTransferencias()));
+    }
+
+    @Operation(summary = "Estatísticas do cache", description = "Retorna acertos, falhas e evicções das regiões de cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EstatisticasCacheDTO.class)))
+    })
+    @GetMapping("/cache/estatisticas")
+    public ResponseEntity<List<EstatisticasCacheDTO>> estatisticasCache() {
+        log.debug("GET /api/v1/beneficios/cache/estatisticas - Consultando estatísticas do cache");
+        return ResponseEntity.ok(cache.estatisticas());
+    }
+
+    @Operation(summary = "Estatísticas do cache de segundo nível",
+            description = "Retorna acertos, falhas e inserções das regiões de cache do Hibernate")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = EstatisticasRegiaoHibernateDTO.class)))
+    })
+    @GetMapping("/cache/segundo-nivel/estatisticas")
+    public ResponseEntity<List<EstatisticasRegiaoHibernateDTO>> estatisticasCacheSegundoNivel() {
+        log.debug("GET /api/v1/beneficios/cache/segundo-nivel/estatisticas - Consultando estatísticas do cache de segundo nível");
+        return ResponseEntity.ok(segundoNivelCache.estatisticas());
+    }
+
+    /**
+     * ETag forte de um benefício: a versão efetiva (VERSION mais lançamentos pendentes) muda a cada alteração.
+     * Inclui o formato negociado ({@link EtagRepresentacao}); por ser forte, a resposta não é comprimida
+     */
+    private static String etagVersao(Long version, WebRequest request) {
+        return EtagRepresentacao.etag(String.valueOf(version), request);
+    }
+
+    /**
+     * ETag fraco das listagens: muda a cada inclusão (quantidade) ou alteração (soma das versões efetivas).
+     * Fraco para que as listagens completas continuem comprimidas acima do tamanho mínimo
+     * (o GET compara ETags de forma fraca no If-None-Match)
+     */
+    private static String etagColecao(VersaoColecaoDTO versao, WebRequest request) {
+        return EtagRepresentacao.etagFraco(versao.getQuantidade() + "-" + versao.getVersaoMaxima() + "-"
+                + versao.getSomaVersoes(), request);
+    }
+
+    /**
+     * Resposta 304 sem corpo; o ETag já foi definido por {@link WebRequest#checkNotModified(String)}
+     */
+    private static <T> ResponseEntity<T> naoModificado() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDAR).varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+}
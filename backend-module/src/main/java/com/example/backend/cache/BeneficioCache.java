@@ -0,0 +1,149 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.example.backend.dto.EstatisticasCacheDTO;
+import com.example.backend.dto.PaginaCursorDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache read-through para consultas de benefícios
+ * Regiões limitadas por tamanho (admissão/evicção W-TinyLFU do Caffeine) e com expiração por TTL.
+ *
+ * Garantias de consistência:
+ * - leituras dentro de transações de escrita não populam o cache (nenhum saldo não commitado é armazenado)
+ * - escritas invalidam as entradas afetadas imediatamente e novamente ao fim da transação
+ */
+@Component
+@Slf4j
+public class BeneficioCache {
+
+    static final String REGIAO_POR_ID = "beneficio-por-id";
+    static final String REGIAO_ATIVOS = "beneficio-ativos";
+
+    private final Cache<Long, BeneficioResponseDTO> porId;
+    private final Cache<ChavePagina, PaginaCursorDTO<BeneficioResponseDTO>> paginasAtivos;
+
+    /**
+     * Incrementada a cada invalidação; páginas carregadas durante uma invalidação não são armazenadas
+     */
+    private final AtomicLong geracaoPaginas = new AtomicLong();
+
+    public BeneficioCache(@Value("${beneficio.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                          @Value("${beneficio.cache.paginas-maximo:1000}") long paginasMaximo,
+                          @Value("${beneficio.cache.ttl:PT5M}") Duration ttl) {
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.paginasAtivos = Caffeine.newBuilder()
+                .maximumSize(paginasMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Busca por ID no cache, carregando via {@code loader} em caso de falha
+     * Exceções do loader (ex.: não encontrado) são propagadas e nada é armazenado
+     */
+    public BeneficioResponseDTO getById(Long id, Function<Long, BeneficioResponseDTO> loader) {
+        if (!podeArmazenar()) {
+            return loader.apply(id);
+        }
+        return porId.get(id, loader);
+    }
+
+    /**
+     * Busca uma página de benefícios ativos no cache, carregando via {@code loader} em caso de falha
+     */
+    public PaginaCursorDTO<BeneficioResponseDTO> getAtivos(Long after, int limit,
+                                                          Supplier<PaginaCursorDTO<BeneficioResponseDTO>> loader) {
+        if (!podeArmazenar()) {
+            return loader.get();
+        }
+        ChavePagina chave = new ChavePagina(after, limit);
+        PaginaCursorDTO<BeneficioResponseDTO> pagina = paginasAtivos.getIfPresent(chave);
+        if (pagina != null) {
+            return pagina;
+        }
+        long geracao = geracaoPaginas.get();
+        pagina = loader.get();
+        if (geracao == geracaoPaginas.get()) {
+            paginasAtivos.put(chave, pagina);
+        }
+        return pagina;
+    }
+
+    /**
+     * Invalida as entradas dos benefícios informados agora e após o término da transação corrente
+     * (commit ou rollback), para que nenhuma leitura concorrente mantenha o valor anterior em cache
+     */
+    public void invalidarAposTransacao(Long... ids) {
+        List<Long> afetados = List.of(ids);
+        invalidar(afetados);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidar(afetados);
+                }
+            });
+        }
+    }
+
+    /**
+     * Estatísticas de acerto, falha e evicção de cada região
+     */
+    public List<EstatisticasCacheDTO> estatisticas() {
+        return List.of(
+                estatisticas(REGIAO_POR_ID, porId.stats(), porId.estimatedSize()),
+                estatisticas(REGIAO_ATIVOS, paginasAtivos.stats(), paginasAtivos.estimatedSize()));
+    }
+
+    private void invalidar(List<Long> ids) {
+        geracaoPaginas.incrementAndGet();
+        porId.invalidateAll(ids);
+        // Remove apenas as páginas cujo intervalo de IDs contém algum benefício alterado
+        paginasAtivos.asMap().entrySet().removeIf(entrada ->
+                ids.stream().anyMatch(id -> entrada.getKey().contem(id, entrada.getValue())));
+        log.debug("Cache invalidado para benefícios {}", ids);
+    }
+
+    /**
+     * Só armazena fora de transação ou em transações somente leitura
+     */
+    private boolean podeArmazenar() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static EstatisticasCacheDTO estatisticas(String nome, CacheStats stats, long tamanho) {
+        return new EstatisticasCacheDTO(nome, stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount(), tamanho);
+    }
+
+    private record ChavePagina(Long after, int limit) {
+
+        /**
+         * A página cobre os IDs no intervalo (after, proximoCursor]; a última página é aberta à direita
+         */
+        boolean contem(Long id, PaginaCursorDTO<BeneficioResponseDTO> pagina) {
+            long inicio = after != null ? after : 0L;
+            return id > inicio && (pagina.getProximoCursor() == null || id <= pagina.getProximoCursor());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.EstatisticasRegiaoHibernateDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Estatísticas das regiões do cache de segundo nível do Hibernate (entidade, consultas e timestamps)
+ * Requer {@code hibernate.generate_statistics=true}; usadas para dimensionar as regiões em ehcache.xml
+ */
+@Component
+@RequiredArgsConstructor
+public class SegundoNivelCacheEstatisticas {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<EstatisticasRegiaoHibernateDTO> estatisticas() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(regiao -> estatisticas(regiao, statistics.getCacheRegionStatistics(regiao)))
+                .toList();
+    }
+
+    private static EstatisticasRegiaoHibernateDTO estatisticas(String regiao, CacheRegionStatistics stats) {
+        long consultas = stats.getHitCount() + stats.getMissCount();
+        double hitRate = consultas == 0 ? 0.0 : (double) stats.getHitCount() / consultas;
+        long elementos = Math.max(stats.getElementCountInMemory(), -1L);
+        return new EstatisticasRegiaoHibernateDTO(regiao, stats.getHitCount(), stats.getMissCount(),
+                stats.getPutCount(), hitRate, elementos);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.backend.config;
+
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Seleção de campos das respostas (?fields=id,nome,valor)
+ * Os DTOs anotados com @JsonFilter(FILTRO) são serializados apenas com os campos pedidos: o serializador
+ * nem lê os demais. Sem o parâmetro, todos os campos são serializados.
+ */
+public final class CamposResposta {
+
+    public static final String FILTRO = "campos";
+    public static final String PARAMETRO = "fields";
+
+    /**
+     * Filtro padrão: todos os campos
+     */
+    public static final FilterProvider TODOS = new SimpleFilterProvider()
+            .addFilter(FILTRO, SimpleBeanPropertyFilter.serializeAll());
+
+    private static final Set<String> CAMPOS_BENEFICIO = Arrays.stream(BeneficioResponseDTO.class.getDeclaredFields())
+            .filter(campo -> !Modifier.isStatic(campo.getModifiers()))
+            .map(Field::getName)
+            .collect(Collectors.toCollection(TreeSet::new));
+
+    private CamposResposta() {
+    }
+
+    /**
+     * Filtro com os campos informados (separados por vírgula), ou todos quando vazio
+     *
+     * @throws IllegalArgumentException se algum campo não existe no benefício
+     */
+    public static FilterProvider filtro(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return TODOS;
+        }
+        Set<String> campos = new LinkedHashSet<>();
+        for (String campo : fields.split(",")) {
+            if (!campo.isBlank()) {
+                campos.add(campo.trim());
+            }
+        }
+        Set<String> invalidos = new TreeSet<>(campos);
+        invalidos.removeAll(CAMPOS_BENEFICIO);
+        if (!invalidos.isEmpty()) {
+            throw new IllegalArgumentException("Campos inválidos: " + invalidos + ". Valores aceitos: " + CAMPOS_BENEFICIO);
+        }
+        return new SimpleFilterProvider().addFilter(FILTRO, SimpleBeanPropertyFilter.filterOutAllExcept(campos));
+    }
+}
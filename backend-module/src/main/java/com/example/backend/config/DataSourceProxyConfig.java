@@ -0,0 +1,80 @@
+package com.example.backend.config;
+
+import com.example.backend.metrics.EstatisticasSqlRequisicao;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Envolve o DataSource em um proxy JDBC que alimenta {@link EstatisticasSqlRequisicao}
+ * (statements, linhas lidas e tempo de banco da requisição corrente)
+ * Desligável com beneficio.sql.monitoramento.habilitado=false
+ */
+@Configuration
+@ConditionalOnProperty(name = "beneficio.sql.monitoramento.habilitado", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    private static final String INICIO = "inicioNanos";
+
+    @Bean
+    static BeanPostProcessor dataSourceProxyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new ContabilizacaoStatements())
+                            .proxyResultSet()
+                            .methodListener(new ContabilizacaoLinhas())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static class ContabilizacaoStatements implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            execInfo.addCustomValue(INICIO, System.nanoTime());
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            Long inicio = execInfo.getCustomValue(INICIO, Long.class);
+            long nanos = inicio != null ? System.nanoTime() - inicio : 0L;
+            String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+            EstatisticasSqlRequisicao.atual().ifPresent(e -> e.registrarExecucao(sql, nanos));
+        }
+    }
+
+    private static class ContabilizacaoLinhas implements MethodExecutionListener {
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+        }
+
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            if (executionContext.getTarget() instanceof ResultSet
+                    && "next".equals(executionContext.getMethod().getName())
+                    && Boolean.TRUE.equals(executionContext.getResult())) {
+                EstatisticasSqlRequisicao.atual().ifPresent(EstatisticasSqlRequisicao::registrarLinha);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.backend.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * ETags por representação
+ * A mesma URL tem um corpo diferente por formato (JSON, CBOR, Smile, negociado pelo Accept), então o ETag
+ * leva o formato como sufixo quando não é JSON ("12", "12-cbor", "12-smile"). A seleção de campos (?fields=)
+ * já muda a URL e não precisa entrar no ETag.
+ * Respostas com ETag forte não são comprimidas pelo Tomcat (server.compression): o corpo enviado é sempre
+ * exatamente a representação identificada pelo ETag. Com ETag fraco a resposta é comprimida normalmente.
+ */
+public final class EtagRepresentacao {
+
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final List<MediaType> FORMATOS = List.of(MediaType.APPLICATION_JSON, CBOR, SMILE);
+
+    private EtagRepresentacao() {
+    }
+
+    /**
+     * ETag forte da versão informada na representação pedida pelo Accept da requisição
+     */
+    public static String etag(String versao, WebRequest request) {
+        return "\"" + versao + sufixo(formato(request.getHeader(HttpHeaders.ACCEPT))) + "\"";
+    }
+
+    /**
+     * ETag fraco (W/) da versão informada na representação pedida pelo Accept da requisição
+     */
+    public static String etagFraco(String versao, WebRequest request) {
+        return "W/" + etag(versao, request);
+    }
+
+    /**
+     * Formato que será negociado para o Accept informado: o primeiro aceito entre JSON, CBOR e Smile
+     * (na ordem de especificidade e qualidade do Accept); JSON quando ausente, inválido ou genérico
+     */
+    static MediaType formato(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> aceitos;
+        try {
+            aceitos = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(aceitos);
+        for (MediaType aceito : aceitos) {
+            if (aceito.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType formato : FORMATOS) {
+                if (aceito.isCompatibleWith(formato)) {
+                    return formato;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private static String sufixo(MediaType formato) {
+        if (formato == CBOR) {
+            return "-cbor";
+        }
+        if (formato == SMILE) {
+            return "-smile";
+        }
+        return "";
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.backend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Formatos de resposta da API
+ * - JSON (padrão), CBOR (application/cbor) e Smile (application/x-jackson-smile), negociados pelo Accept;
+ *   os conversores binários usam a mesma configuração do ObjectMapper do Spring Boot
+ * - filtro de campos padrão ({@link CamposResposta#TODOS}) para os DTOs com @JsonFilter
+ * A compressão gzip é feita pelo servidor (server.compression.*)
+ */
+@Configuration
+public class FormatosRespostaConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer filtroCamposPadrao() {
+        return builder -> builder.filters(CamposResposta.TODOS);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ignora o flush explícito das respostas síncronas da API (os conversores do Spring fazem flush após
+ * escrever o corpo). Assim uma resposta que cabe no buffer do Tomcat só é enviada ao fim da requisição,
+ * com Content-Length, e server.compression.min-response-size vale para ela; com o flush ela seguia em
+ * chunks de tamanho desconhecido e era sempre comprimida.
+ * Respostas maiores que o buffer continuam sendo enviadas à medida que ele enche; respostas assíncronas
+ * (exportação, fluxo SSE) mantêm o flush.
+ */
+@Component
+public class TamanhoRespostaFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, new FlushAdiadoResponse(request, response));
+    }
+
+    private static class FlushAdiadoResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private ServletOutputStream saida;
+
+        FlushAdiadoResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (saida == null) {
+                saida = new FlushAdiadoOutputStream(super.getOutputStream(), request);
+            }
+            return saida;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (request.isAsyncStarted()) {
+                super.flushBuffer();
+            }
+        }
+    }
+
+    private static class FlushAdiadoOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream destino;
+        private final HttpServletRequest request;
+
+        FlushAdiadoOutputStream(ServletOutputStream destino, HttpServletRequest request) {
+            this.destino = destino;
+            this.request = request;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            destino.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            destino.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (request.isAsyncStarted()) {
+                destino.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            destino.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return destino.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            destino.setWriteListener(writeListener);
+        }
+    }
+}
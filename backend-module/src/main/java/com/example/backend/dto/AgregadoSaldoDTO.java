@@ -0,0 +1,26 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Agregados SQL dos saldos dos benefícios ativos ou inativos (conferência das estatísticas em memória)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgregadoSaldoDTO {
+
+    private Boolean ativo;
+
+    private Long quantidade;
+
+    private BigDecimal soma;
+
+    private BigDecimal minimo;
+
+    private BigDecimal maximo;
+}
@@ -0,0 +1,31 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Alteração de um benefício enviada no fluxo de eventos (GET /api/v1/beneficios/stream)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estado de um benefício após uma alteração confirmada")
+public class AlteracaoBeneficioDTO {
+
+    @Schema(description = "ID do benefício", example = "1")
+    private Long id;
+
+    @Schema(description = "Saldo do benefício", example = "1000.00")
+    private BigDecimal valor;
+
+    @Schema(description = "Indica se o benefício está ativo", example = "true")
+    private Boolean ativo;
+
+    @Schema(description = "Versão efetiva; alterações com versão menor que a conhecida devem ser ignoradas",
+            example = "3")
+    private Long version;
+}
@@ -0,0 +1,28 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para criação de benefícios em lote
+ * Todos os itens são validados na requisição: o lote é aplicado por inteiro ou rejeitado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lote de benefícios a serem criados")
+public class BeneficioCreateLoteDTO {
+
+    @NotEmpty(message = "Lote de benefícios não pode ser vazio")
+    @Size(max = 10000, message = "Lote deve ter no máximo 10000 benefícios")
+    @Schema(description = "Benefícios a serem criados, na ordem informada", required = true)
+    private List<@NotNull(message = "Benefício não pode ser nulo") @Valid BeneficioCreateDTO> beneficios;
+}
@@ -1,5 +1,7 @@
 package com.example.backend.dto;
 
+import com.example.backend.config.CamposResposta;
+import com.fasterxml.jackson.annotation.JsonFilter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,11 +11,13 @@ import java.math.BigDecimal;
 
 /**
  * DTO de resposta para Benefício
+ * Aceita seleção de campos (?fields=), ver {@link CamposResposta}
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Dados de um benefício")
+@JsonFilter(CamposResposta.FILTRO)
 public class BeneficioResponseDTO {
 
     @Schema(description = "ID do benefício", example = "1")
@@ -0,0 +1,49 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO para atualização de benefícios em lote
+ * Todos os itens são validados na requisição: o lote é aplicado por inteiro ou rejeitado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lote de benefícios a serem atualizados")
+public class BeneficioUpdateLoteDTO {
+
+    @NotEmpty(message = "Lote de benefícios não pode ser vazio")
+    @Size(max = 10000, message = "Lote deve ter no máximo 10000 benefícios")
+    @Schema(description = "Benefícios a serem atualizados (cada ID no máximo uma vez)", required = true)
+    private List<@NotNull(message = "Benefício não pode ser nulo") @Valid Item> beneficios;
+
+    /**
+     * Dados de atualização de um benefício do lote, identificado pelo ID
+     */
+    @Data
+    @NoArgsConstructor
+    @EqualsAndHashCode(callSuper = true)
+    @Schema(description = "Dados para atualização de um benefício do lote")
+    public static class Item extends BeneficioUpdateDTO {
+
+        @NotNull(message = "ID é obrigatório")
+        @Schema(description = "ID do benefício", example = "1", required = true)
+        private Long id;
+
+        public Item(Long id, String nome, String descricao, BigDecimal valor, Boolean ativo) {
+            super(nome, descricao, valor, ativo);
+            this.id = id;
+        }
+    }
+}
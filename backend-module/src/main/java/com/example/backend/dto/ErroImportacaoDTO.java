@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com uma linha rejeitada na importação de benefícios
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Linha rejeitada na importação")
+public class ErroImportacaoDTO {
+
+    @Schema(description = "Número da linha no arquivo (o cabeçalho é a linha 1)", example = "42")
+    private long linha;
+
+    @Schema(description = "Motivo da rejeição", example = "Valor deve ser positivo")
+    private String mensagem;
+}
@@ -0,0 +1,45 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO com as estatísticas agregadas dos benefícios
+ * Valores (total, mínimo, máximo, média e histograma) consideram apenas os benefícios ativos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estatísticas agregadas dos benefícios; valores consideram apenas os ativos")
+public class EstatisticasBeneficiosDTO {
+
+    @Schema(description = "Quantidade de benefícios ativos", example = "120")
+    private long ativos;
+
+    @Schema(description = "Quantidade de benefícios inativos", example = "8")
+    private long inativos;
+
+    @Schema(description = "Soma dos saldos dos benefícios ativos", example = "154300.00")
+    private BigDecimal total;
+
+    @Schema(description = "Menor saldo entre os ativos (nulo sem ativos)", example = "10.00")
+    private BigDecimal minimo;
+
+    @Schema(description = "Maior saldo entre os ativos (nulo sem ativos)", example = "9800.00")
+    private BigDecimal maximo;
+
+    @Schema(description = "Saldo médio dos ativos (nulo sem ativos)", example = "1285.83")
+    private BigDecimal media;
+
+    @Schema(description = "Histograma dos saldos dos ativos")
+    private List<FaixaValorDTO> histograma;
+
+    @Schema(description = "Última conferência com os agregados do banco (nulo antes da primeira)")
+    private LocalDateTime conferidoEm;
+}
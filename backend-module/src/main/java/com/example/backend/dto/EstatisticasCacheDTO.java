@@ -0,0 +1,34 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com estatísticas de uma região de cache
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estatísticas de uma região de cache")
+public class EstatisticasCacheDTO {
+
+    @Schema(description = "Nome da região", example = "beneficio-por-id")
+    private String nome;
+
+    @Schema(description = "Quantidade de acertos", example = "9000")
+    private long hits;
+
+    @Schema(description = "Quantidade de falhas", example = "1000")
+    private long misses;
+
+    @Schema(description = "Taxa de acerto (0 a 1)", example = "0.9")
+    private double hitRate;
+
+    @Schema(description = "Quantidade de entradas removidas por tamanho ou expiração", example = "120")
+    private long evictions;
+
+    @Schema(description = "Quantidade aproximada de entradas", example = "2500")
+    private long tamanho;
+}
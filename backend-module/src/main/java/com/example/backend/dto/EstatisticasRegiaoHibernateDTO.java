@@ -0,0 +1,34 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com estatísticas de uma região do cache de segundo nível do Hibernate
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estatísticas de uma região do cache de segundo nível")
+public class EstatisticasRegiaoHibernateDTO {
+
+    @Schema(description = "Nome da região", example = "beneficio")
+    private String regiao;
+
+    @Schema(description = "Quantidade de acertos", example = "9000")
+    private long hits;
+
+    @Schema(description = "Quantidade de falhas", example = "1000")
+    private long misses;
+
+    @Schema(description = "Quantidade de inserções no cache", example = "1000")
+    private long puts;
+
+    @Schema(description = "Taxa de acerto (0 a 1)", example = "0.9")
+    private double hitRate;
+
+    @Schema(description = "Quantidade de entradas em memória (-1 quando o provedor não informa)", example = "2500")
+    private long elementosEmMemoria;
+}
@@ -0,0 +1,27 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Faixa do histograma de valores dos benefícios ativos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Faixa do histograma de valores: [de, ate)")
+public class FaixaValorDTO {
+
+    @Schema(description = "Limite inferior, inclusivo (nulo na primeira faixa)", example = "1000")
+    private BigDecimal de;
+
+    @Schema(description = "Limite superior, exclusivo (nulo na última faixa)", example = "5000")
+    private BigDecimal ate;
+
+    @Schema(description = "Quantidade de benefícios ativos na faixa", example = "42")
+    private long quantidade;
+}
@@ -0,0 +1,65 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO com a situação de uma importação de benefícios em CSV
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Situação de uma importação de benefícios")
+public class ImportacaoDTO {
+
+    @Schema(description = "Identificador da importação", example = "3f2b8c1e-5d7a-4e1b-9c3d-2a6f0e8b7c41")
+    private String id;
+
+    @Schema(description = "Situação da importação", example = "PROCESSANDO")
+    private Status status;
+
+    @Schema(description = "Motivo da falha da importação, quando houver", example = "Coluna obrigatória ausente: valor")
+    private String mensagem;
+
+    @Schema(description = "Tamanho do arquivo em bytes", example = "104857600")
+    private long bytesTotal;
+
+    @Schema(description = "Bytes do arquivo já lidos", example = "52428800")
+    private long bytesLidos;
+
+    @Schema(description = "Linhas de dados lidas (sem o cabeçalho)", example = "1000000")
+    private long linhasLidas;
+
+    @Schema(description = "Benefícios gravados", example = "999998")
+    private long importadas;
+
+    @Schema(description = "Linhas rejeitadas", example = "2")
+    private long rejeitadas;
+
+    @Schema(description = "Vazão da leitura, em linhas por segundo", example = "25000.0")
+    private double linhasPorSegundo;
+
+    @Schema(description = "Primeiras linhas rejeitadas (até beneficio.importacao.maximo-erros)")
+    private List<ErroImportacaoDTO> erros;
+
+    @Schema(description = "Momento em que o arquivo foi recebido")
+    private LocalDateTime recebidaEm;
+
+    @Schema(description = "Momento em que o processamento começou")
+    private LocalDateTime iniciadaEm;
+
+    @Schema(description = "Momento em que o processamento terminou")
+    private LocalDateTime concluidaEm;
+
+    public enum Status {
+        PENDENTE,
+        PROCESSANDO,
+        CONCLUIDA,
+        FALHA
+    }
+}
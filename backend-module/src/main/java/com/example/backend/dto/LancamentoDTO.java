@@ -0,0 +1,39 @@
+package com.example.backend.dto;
+
+import com.example.backend.entity.Lancamento;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO de um lançamento do histórico de um benefício
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lançamento do histórico de um benefício")
+public class LancamentoDTO {
+
+    @Schema(description = "ID do lançamento (cursor do histórico)", example = "101")
+    private Long id;
+
+    @Schema(description = "Tipo do lançamento", example = "DEBITO")
+    private Lancamento.Tipo tipo;
+
+    @Schema(description = "Valor com sinal (negativo em débitos)", example = "-300.00")
+    private BigDecimal valor;
+
+    @Schema(description = "Identificador da transferência, comum ao débito e ao crédito",
+            example = "3f2b8c1e-5d7a-4e1b-9c3d-2a6f0e8b7c41")
+    private String referencia;
+
+    @Schema(description = "Momento do lançamento")
+    private LocalDateTime criadoEm;
+
+    @Schema(description = "Indica se o valor já foi somado ao saldo consolidado do benefício", example = "true")
+    private Boolean compactado;
+}
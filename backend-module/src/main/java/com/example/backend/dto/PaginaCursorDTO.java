@@ -0,0 +1,28 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de resposta para paginação por cursor (keyset)
+ * O cursor é o ID do último item da página; a próxima página é buscada com after=proximoCursor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de resultados paginada por cursor")
+public class PaginaCursorDTO<T> {
+
+    @Schema(description = "Itens da página, em ordem crescente de ID")
+    private List<T> itens;
+
+    @Schema(description = "Cursor para a próxima página (nulo quando não há mais itens)", example = "150")
+    private Long proximoCursor;
+
+    @Schema(description = "Quantidade máxima de itens solicitada", example = "50")
+    private int limite;
+}
@@ -0,0 +1,32 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de resposta para paginação por número de página, com o total de itens do filtro
+ * Permite acesso direto a qualquer página (rolagem virtual); para percorrer toda a coleção,
+ * preferir a paginação por cursor ({@link PaginaCursorDTO})
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de resultados paginada por número de página")
+public class PaginaDTO<T> {
+
+    @Schema(description = "Itens da página, na ordenação solicitada")
+    private List<T> itens;
+
+    @Schema(description = "Número da página, a partir de zero", example = "0")
+    private int pagina;
+
+    @Schema(description = "Quantidade máxima de itens por página", example = "50")
+    private int tamanho;
+
+    @Schema(description = "Total de itens que atendem ao filtro", example = "50000")
+    private long total;
+}
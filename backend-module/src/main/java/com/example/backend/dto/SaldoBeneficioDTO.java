@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo (VALOR mais lançamentos pendentes e slots) e situação de um benefício
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoBeneficioDTO {
+
+    private Long id;
+
+    private BigDecimal valor;
+
+    private Boolean ativo;
+}
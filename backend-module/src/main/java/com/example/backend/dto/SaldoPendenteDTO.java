@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Soma dos lançamentos ainda não compactados de um benefício
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoPendenteDTO {
+
+    private Long beneficioId;
+
+    private BigDecimal valor;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo de um slot de benefício particionado
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoSlotDTO {
+
+    private Long beneficioId;
+
+    private Integer slot;
+
+    private BigDecimal valor;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de sugestão de autocompletar por nome
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Sugestão de benefício para autocompletar")
+public class SugestaoNomeDTO {
+
+    @Schema(description = "ID do benefício", example = "1")
+    private Long id;
+
+    @Schema(description = "Nome do benefício", example = "Vale Alimentação")
+    private String nome;
+}
@@ -0,0 +1,49 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO com a situação de uma transferência assíncrona (fila de transferências)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Situação de uma transferência enfileirada")
+public class TicketTransferenciaDTO {
+
+    @Schema(description = "Identificador da transferência", example = "3f2b8c1e-5d7a-4e1b-9c3d-2a6f0e8b7c41")
+    private String ticket;
+
+    @Schema(description = "Situação da transferência", example = "PENDENTE")
+    private Status status;
+
+    @Schema(description = "ID do benefício de origem", example = "1")
+    private Long fromId;
+
+    @Schema(description = "ID do benefício de destino", example = "2")
+    private Long toId;
+
+    @Schema(description = "Valor a transferir", example = "300.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Motivo da rejeição, quando houver", example = "Saldo insuficiente")
+    private String mensagem;
+
+    @Schema(description = "Momento em que a transferência foi enfileirada")
+    private LocalDateTime recebidaEm;
+
+    @Schema(description = "Momento em que a transferência foi processada")
+    private LocalDateTime processadaEm;
+
+    public enum Status {
+        PENDENTE,
+        CONCLUIDA,
+        REJEITADA
+    }
+}
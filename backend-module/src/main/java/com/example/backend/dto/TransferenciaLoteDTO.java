@@ -0,0 +1,28 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para requisição de transferências em lote
+ * As pernas são validadas individualmente no processamento,
+ * para que uma perna inválida não rejeite o lote inteiro
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lote de transferências entre benefícios")
+public class TransferenciaLoteDTO {
+
+    @NotEmpty(message = "Lote de transferências não pode ser vazio")
+    @Size(max = 10000, message = "Lote deve ter no máximo 10000 transferências")
+    @Schema(description = "Transferências a serem aplicadas, na ordem informada", required = true)
+    private List<@NotNull(message = "Transferência não pode ser nula") TransferenciaDTO> transferencias;
+}
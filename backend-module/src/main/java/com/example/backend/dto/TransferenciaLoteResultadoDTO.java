@@ -0,0 +1,30 @@
+package com.example.backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de resposta para transferências em lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado do processamento de um lote de transferências")
+public class TransferenciaLoteResultadoDTO {
+
+    @Schema(description = "Quantidade de transferências recebidas", example = "1000")
+    private int total;
+
+    @Schema(description = "Quantidade de transferências aplicadas", example = "998")
+    private int sucessos;
+
+    @Schema(description = "Quantidade de transferências rejeitadas", example = "2")
+    private int falhas;
+
+    @Schema(description = "Resultado individual de cada transferência, na ordem do lote")
+    private List<TransferenciaResultadoDTO> resultados;
+}
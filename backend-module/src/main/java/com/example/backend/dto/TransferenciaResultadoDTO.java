@@ -0,0 +1,45 @@
+package com.example.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO de resultado de uma transferência individual dentro de um lote
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de uma transferência do lote")
+public class TransferenciaResultadoDTO {
+
+    @Schema(description = "Posição da transferência no lote (base 0)", example = "0")
+    private int indice;
+
+    @Schema(description = "ID do benefício de origem", example = "1")
+    private Long fromId;
+
+    @Schema(description = "ID do benefício de destino", example = "2")
+    private Long toId;
+
+    @Schema(description = "Valor transferido", example = "300.00")
+    private BigDecimal amount;
+
+    @Schema(description = "Indica se a transferência foi aplicada", example = "true")
+    private boolean sucesso;
+
+    @Schema(description = "Motivo da falha, quando houver", example = "Saldo insuficiente")
+    private String mensagem;
+
+    /**
+     * Motivo da falha classificado para as métricas ({@link com.example.backend.metrics.BeneficioMetricas#motivo}),
+     * nulo no sucesso; não faz parte da resposta
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private String motivo;
+}
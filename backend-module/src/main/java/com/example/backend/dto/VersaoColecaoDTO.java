@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agregados de VERSION da tabela de benefícios, usados para o ETag das listagens
+ * Como toda alteração incrementa a versão efetiva (VERSION mais lançamentos pendentes) e não há exclusão física,
+ * a soma das versões cresce a cada escrita e a quantidade cresce a cada inclusão
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoColecaoDTO {
+
+    private Long quantidade;
+
+    private Long versaoMaxima;
+
+    private Long somaVersoes;
+}
@@ -3,26 +3,35 @@ package com.example.backend.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 /**
  * Entidade JPA Beneficio para o Backend Spring Boot
  * Espelha a entidade do módulo EJB
+ * Cache de segundo nível READ_WRITE: com o campo VERSION, o Hibernate compara versões
+ * ao atualizar o cache e nunca sobrescreve uma entrada mais nova com uma mais antiga
+ * Os UPDATEs JPQL em massa do BeneficioRepository (modos ATOMICO e LEDGER, compactação e slots)
+ * removem a região inteira: o cache só é efetivo no modo ENTIDADE
+ * IDs de sequência com alocação em blocos (otimizador pooled-lo): os INSERTs saem em batch JDBC no flush
  */
 @Entity
 @Table(name = "BENEFICIO")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beneficio")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Beneficio {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficio_seq")
+    @SequenceGenerator(name = "beneficio_seq", sequenceName = "BENEFICIO_SEQ", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -32,8 +41,11 @@ public class Beneficio {
     @Column(name = "DESCRICAO", length = 255)
     private String descricao;
 
+    /**
+     * Snapshot do saldo: o saldo do benefício soma a ele os slots e, no modo LEDGER, os lançamentos pendentes,
+     * por isso o VALOR isolado pode ficar zerado ou negativo (a validação de entrada fica nos DTOs)
+     */
     @NotNull(message = "Valor é obrigatório")
-    @Positive(message = "Valor deve ser positivo")
     @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
     private BigDecimal valor;
 
@@ -43,4 +55,12 @@ public class Beneficio {
     @Version
     @Column(name = "VERSION")
     private Long version;
+
+    /**
+     * Quantidade de slots de saldo (BENEFICIO_SLOT); zero enquanto o benefício não é particionado
+     * Definida com a linha bloqueada ao particionar e nunca volta a zero, de modo que um valor maior que zero
+     * vale mesmo lido sem bloqueio; zero só é confiável lido com a linha bloqueada (ou no WHERE de um UPDATE)
+     */
+    @Column(name = "SLOTS", nullable = false)
+    private Integer slots = 0;
 }
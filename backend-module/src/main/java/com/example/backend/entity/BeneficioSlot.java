@@ -0,0 +1,48 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Fração (slot) do saldo de um benefício particionado
+ * Débitos e créditos escolhem um slot aleatório, de modo que transferências concorrentes
+ * no mesmo benefício disputam linhas diferentes em vez da linha de BENEFICIO
+ * VERSAO avança a cada alteração do slot e compõe a versão efetiva (ETag) do benefício
+ */
+@Entity
+@Table(name = "BENEFICIO_SLOT")
+@IdClass(BeneficioSlot.Chave.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeneficioSlot {
+
+    @Id
+    @Column(name = "BENEFICIO_ID")
+    private Long beneficioId;
+
+    @Id
+    @Column(name = "SLOT")
+    private Integer slot;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "VERSAO", nullable = false)
+    private Long versao = 0L;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+
+        private Long beneficioId;
+
+        private Integer slot;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lançamento do diário append-only de um benefício (valor com sinal)
+ * O saldo do benefício é o VALOR da tabela BENEFICIO (snapshot) mais os lançamentos ainda não compactados;
+ * lançamentos compactados já estão somados ao snapshot e permanecem apenas como histórico
+ * IDs de sequência com alocação em blocos: os INSERTs do diário saem em batch JDBC no flush
+ */
+@Entity
+@Table(name = "LANCAMENTO", indexes = {
+        @Index(name = "IDX_LANCAMENTO_PENDENTE", columnList = "COMPACTADO, BENEFICIO_ID"),
+        @Index(name = "IDX_LANCAMENTO_HISTORICO", columnList = "BENEFICIO_ID, ID")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Lancamento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+    @SequenceGenerator(name = "lancamento_seq", sequenceName = "LANCAMENTO_SEQ", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "BENEFICIO_ID", nullable = false)
+    private Long beneficioId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TIPO", nullable = false, length = 20)
+    private Tipo tipo;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    /**
+     * Identificador da transferência, comum às pernas de débito e crédito
+     */
+    @Column(name = "REFERENCIA", length = 36)
+    private String referencia;
+
+    @Column(name = "CRIADO_EM", nullable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "COMPACTADO", nullable = false)
+    private Boolean compactado = false;
+
+    public enum Tipo {
+        CRIACAO,
+        AJUSTE,
+        DEBITO,
+        CREDITO
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.backend.estatisticas;
+
+import com.example.backend.dto.AgregadoSaldoDTO;
+import com.example.backend.dto.EstatisticasBeneficiosDTO;
+import com.example.backend.dto.FaixaValorDTO;
+import com.example.backend.dto.SaldoBeneficioDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Estatísticas dos benefícios mantidas em memória (contagens, total, mínimo, máximo, média e histograma)
+ * Carregadas uma vez do banco e ajustadas após o commit de cada cadastro, atualização, remoção e
+ * transferência, de modo que a consulta não depende do tamanho da tabela: O(log n) por alteração
+ * (conjunto ordenado de saldos para mínimo e máximo) e O(faixas) por consulta.
+ *
+ * Uma recarga ou conferência só é aceita quando nenhuma alteração estava em andamento nem foi aplicada
+ * durante a consulta ao banco; caso contrário a leitura poderia contar uma transferência duas vezes
+ * (no banco e no ajuste pós-commit) ou nenhuma.
+ */
+@Component
+@Slf4j
+public class EstatisticasBeneficios {
+
+    /**
+     * Resultado da conferência com os agregados do banco
+     */
+    public enum Conferencia {
+        CONSISTENTE,
+        DIVERGENTE,
+        /**
+         * Houve alterações durante a consulta ao banco; os números não são comparáveis
+         */
+        ALTERADA
+    }
+
+    private final BigDecimal[] limites;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Transações com alterações registradas e ainda não concluídas
+     */
+    private final AtomicInteger pendentes = new AtomicInteger();
+
+    private Agregado atual;
+    /**
+     * Quantidade de alterações aplicadas (protegida pelo lock)
+     */
+    private long versao;
+
+    private volatile boolean carregado;
+    private volatile LocalDateTime conferidoEm;
+
+    public EstatisticasBeneficios(
+            @Value("${beneficio.estatisticas.histograma.limites:100,500,1000,5000,10000}") BigDecimal[] limites) {
+        if (limites.length == 0) {
+            throw new IllegalArgumentException("Histograma deve ter ao menos um limite");
+        }
+        for (int i = 1; i < limites.length; i++) {
+            if (limites[i].compareTo(limites[i - 1]) <= 0) {
+                throw new IllegalArgumentException("Limites do histograma devem ser crescentes: " + Arrays.toString(limites));
+            }
+        }
+        this.limites = limites.clone();
+        this.atual = new Agregado(this.limites);
+    }
+
+    /**
+     * Indica se as estatísticas já foram carregadas; antes disso a consulta deve ir ao banco
+     */
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    /**
+     * Indica se não há alterações registradas aguardando o fim da transação
+     */
+    public boolean isEmRepouso() {
+        return pendentes.get() == 0;
+    }
+
+    /**
+     * Quantidade de alterações aplicadas até agora, a informar em carregar e conferir
+     */
+    public long getVersao() {
+        lock.lock();
+        try {
+            return versao;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Substitui as estatísticas pelos saldos lidos do banco
+     *
+     * @param versaoLida versão obtida antes da consulta
+     * @return false (nada alterado) se houve alterações desde a versão lida ou há alterações em andamento
+     */
+    public boolean carregar(Collection<SaldoBeneficioDTO> saldos, long versaoLida) {
+        Agregado novo = new Agregado(limites);
+        saldos.forEach(saldo -> novo.definir(saldo.getId(), saldo.getValor(), saldo.getAtivo()));
+        lock.lock();
+        try {
+            if (versao != versaoLida || !isEmRepouso()) {
+                return false;
+            }
+            atual = novo;
+            carregado = true;
+            conferidoEm = LocalDateTime.now();
+        } finally {
+            lock.unlock();
+        }
+        log.info("Estatísticas carregadas com {} benefícios", saldos.size());
+        return true;
+    }
+
+    /**
+     * Compara as estatísticas em memória com os agregados lidos do banco
+     *
+     * @param versaoLida versão obtida antes da consulta
+     */
+    public Conferencia conferir(List<AgregadoSaldoDTO> agregados, long versaoLida) {
+        lock.lock();
+        try {
+            if (versao != versaoLida || !isEmRepouso()) {
+                return Conferencia.ALTERADA;
+            }
+            if (!atual.confere(agregados)) {
+                return Conferencia.DIVERGENTE;
+            }
+            conferidoEm = LocalDateTime.now();
+            return Conferencia.CONSISTENTE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estatísticas atuais
+     */
+    public EstatisticasBeneficiosDTO resumo() {
+        lock.lock();
+        try {
+            return atual.resumo(conferidoEm);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estatísticas dos saldos informados, sem alterar as mantidas em memória
+     */
+    public EstatisticasBeneficiosDTO calcular(Collection<SaldoBeneficioDTO> saldos) {
+        Agregado agregado = new Agregado(limites);
+        saldos.forEach(saldo -> agregado.definir(saldo.getId(), saldo.getValor(), saldo.getAtivo()));
+        return agregado.resumo(null);
+    }
+
+    /**
+     * Define saldo e situação do benefício após o commit (cadastro e atualização)
+     */
+    public void definirAposTransacao(Long id, BigDecimal valor, Boolean ativo) {
+        aposTransacao(agregado -> agregado.definir(id, valor, ativo));
+    }
+
+    /**
+     * Define saldo e situação de vários benefícios após o commit, com uma única sincronização (lotes)
+     */
+    public void definirAposTransacao(Collection<SaldoBeneficioDTO> saldos) {
+        aposTransacao(agregado -> saldos.forEach(saldo ->
+                agregado.definir(saldo.getId(), saldo.getValor(), saldo.getAtivo())));
+    }
+
+    /**
+     * Marca o benefício como inativo após o commit, mantendo o saldo
+     */
+    public void desativarAposTransacao(Long id) {
+        aposTransacao(agregado -> agregado.desativar(id));
+    }
+
+    /**
+     * Soma as variações de saldo por benefício após o commit (transferências)
+     */
+    public void ajustarAposTransacao(Map<Long, BigDecimal> variacoes) {
+        aposTransacao(agregado -> variacoes.forEach(agregado::ajustar));
+    }
+
+    /**
+     * Aplica a alteração se a transação corrente for confirmada, ou imediatamente quando não há transação
+     * Enquanto a transação não termina, a alteração conta como pendente e impede recargas e conferências
+     */
+    private void aposTransacao(Consumer<Agregado> alteracao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicar(alteracao);
+            return;
+        }
+        pendentes.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        aplicar(alteracao);
+                    }
+                } finally {
+                    // Depois de aplicar: quem vê zero pendentes também vê a versão incrementada
+                    pendentes.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private void aplicar(Consumer<Agregado> alteracao) {
+        lock.lock();
+        try {
+            alteracao.accept(atual);
+            versao++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estado das estatísticas (não thread-safe; acesso protegido pelo lock)
+     */
+    private static final class Agregado {
+
+        private final BigDecimal[] limites;
+        private final Map<Long, Saldo> porId = new HashMap<>();
+        /**
+         * Saldos dos ativos com a quantidade de benefícios de cada um, para mínimo e máximo
+         */
+        private final TreeMap<BigDecimal, Integer> valoresAtivos = new TreeMap<>();
+        private final long[] faixas;
+        private BigDecimal soma = BigDecimal.ZERO;
+        private long ativos;
+        private long inativos;
+
+        Agregado(BigDecimal[] limites) {
+            this.limites = limites;
+            this.faixas = new long[limites.length + 1];
+        }
+
+        void definir(Long id, BigDecimal valor, Boolean ativo) {
+            Saldo novo = new Saldo(valor, !Boolean.FALSE.equals(ativo));
+            remover(porId.put(id, novo));
+            adicionar(novo);
+        }
+
+        /**
+         * Benefícios ainda não conhecidos são ignorados; a conferência periódica corrige a diferença
+         */
+        void ajustar(Long id, BigDecimal variacao) {
+            Saldo saldo = porId.get(id);
+            if (saldo != null) {
+                definir(id, saldo.valor().add(variacao), saldo.ativo());
+            }
+        }
+
+        void desativar(Long id) {
+            Saldo saldo = porId.get(id);
+            if (saldo != null) {
+                definir(id, saldo.valor(), false);
+            }
+        }
+
+        private void adicionar(Saldo saldo) {
+            if (!saldo.ativo()) {
+                inativos++;
+                return;
+            }
+            ativos++;
+            soma = soma.add(saldo.valor());
+            valoresAtivos.merge(saldo.valor(), 1, Integer::sum);
+            faixas[faixa(saldo.valor())]++;
+        }
+
+        private void remover(Saldo saldo) {
+            if (saldo == null) {
+                return;
+            }
+            if (!saldo.ativo()) {
+                inativos--;
+                return;
+            }
+            ativos--;
+            soma = soma.subtract(saldo.valor());
+            valoresAtivos.computeIfPresent(saldo.valor(), (valor, quantidade) -> quantidade > 1 ? quantidade - 1 : null);
+            faixas[faixa(saldo.valor())]--;
+        }
+
+        /**
+         * Índice da faixa do valor: quantidade de limites menores ou iguais a ele
+         */
+        private int faixa(BigDecimal valor) {
+            int posicao = Arrays.binarySearch(limites, valor);
+            return posicao >= 0 ? posicao + 1 : -(posicao + 1);
+        }
+
+        boolean confere(List<AgregadoSaldoDTO> agregados) {
+            long ativosBanco = 0;
+            long inativosBanco = 0;
+            AgregadoSaldoDTO agregadoAtivos = null;
+            for (AgregadoSaldoDTO agregado : agregados) {
+                if (Boolean.FALSE.equals(agregado.getAtivo())) {
+                    inativosBanco += agregado.getQuantidade();
+                } else {
+                    ativosBanco += agregado.getQuantidade();
+                    agregadoAtivos = agregado;
+                }
+            }
+            if (ativosBanco != ativos || inativosBanco != inativos) {
+                return false;
+            }
+            return agregadoAtivos == null
+                    || (iguais(agregadoAtivos.getSoma(), soma)
+                    && iguais(agregadoAtivos.getMinimo(), valoresAtivos.isEmpty() ? null : valoresAtivos.firstKey())
+                    && iguais(agregadoAtivos.getMaximo(), valoresAtivos.isEmpty() ? null : valoresAtivos.lastKey()));
+        }
+
+        EstatisticasBeneficiosDTO resumo(LocalDateTime conferidoEm) {
+            List<FaixaValorDTO> histograma = new ArrayList<>(faixas.length);
+            for (int i = 0; i < faixas.length; i++) {
+                histograma.add(new FaixaValorDTO(i == 0 ? null : limites[i - 1],
+                        i < limites.length ? limites[i] : null, faixas[i]));
+            }
+            boolean vazio = valoresAtivos.isEmpty();
+            return new EstatisticasBeneficiosDTO(ativos, inativos, soma,
+                    vazio ? null : valoresAtivos.firstKey(),
+                    vazio ? null : valoresAtivos.lastKey(),
+                    vazio ? null : soma.divide(BigDecimal.valueOf(ativos), 2, RoundingMode.HALF_EVEN),
+                    histograma, conferidoEm);
+        }
+
+        private static boolean iguais(BigDecimal a, BigDecimal b) {
+            return a == null || b == null ? Objects.equals(a, b) : a.compareTo(b) == 0;
+        }
+    }
+
+    private record Saldo(BigDecimal valor, boolean ativo) {
+    }
+}
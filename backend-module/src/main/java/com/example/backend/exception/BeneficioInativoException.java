@@ -0,0 +1,12 @@
+package com.example.backend.exception;
+
+/**
+ * Exceção lançada quando uma transferência envolve um benefício inativo
+ * Estende IllegalArgumentException: continua sendo respondida com 400
+ */
+public class BeneficioInativoException extends IllegalArgumentException {
+
+    public BeneficioInativoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.backend.exception;
+
+/**
+ * Exceção lançada quando a fila de transferências está cheia ou parada
+ * Respondida com 503: o cliente pode repetir a requisição
+ */
+public class FilaTransferenciaIndisponivelException extends RuntimeException {
+
+    public FilaTransferenciaIndisponivelException(String message) {
+        super(message);
+    }
+}
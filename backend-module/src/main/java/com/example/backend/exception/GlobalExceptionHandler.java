@@ -2,6 +2,8 @@ package com.example.backend.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -20,6 +22,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    public static final String MENSAGEM_CONFLITO_LOCK = "Conflito de lock (deadlock ou timeout), tente novamente";
+    public static final String MENSAGEM_CONFLITO_VERSAO = "Benefício alterado por outra operação, tente novamente";
+
     @ExceptionHandler(BeneficioNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleBeneficioNotFound(
             BeneficioNotFoundException ex, HttpServletRequest request) {
@@ -37,6 +42,40 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(ImportacaoNaoEncontradaException.class)
+    public ResponseEntity<ErrorResponse> handleImportacaoNaoEncontrada(
+            ImportacaoNaoEncontradaException ex, HttpServletRequest request) {
+
+        log.warn("Importação não encontrada: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND.value(),
+                "Not Found",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
+    @ExceptionHandler(TransferenciaNaoEncontradaException.class)
+    public ResponseEntity<ErrorResponse> handleTransferenciaNaoEncontrada(
+            TransferenciaNaoEncontradaException ex, HttpServletRequest request) {
+
+        log.warn("Transferência não encontrada: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.NOT_FOUND.value(),
+                "Not Found",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgument(
             IllegalArgumentException ex, HttpServletRequest request) {
@@ -78,6 +117,46 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    /**
+     * Conflitos de concorrência (lock pessimista, deadlock ou versão) são transitórios: 409 para o cliente repetir
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailure(
+            ConcurrencyFailureException ex, HttpServletRequest request) {
+        
+        log.warn("Conflito de concorrência: {}", ex.getMessage());
+        
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                ex instanceof PessimisticLockingFailureException ? MENSAGEM_CONFLITO_LOCK : MENSAGEM_CONFLITO_VERSAO,
+                request.getRequestURI()
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    /**
+     * Fila de transferências cheia ou parada: 503 para o cliente repetir mais tarde
+     */
+    @ExceptionHandler(FilaTransferenciaIndisponivelException.class)
+    public ResponseEntity<ErrorResponse> handleFilaIndisponivel(
+            FilaTransferenciaIndisponivelException ex, HttpServletRequest request) {
+
+        log.warn("Fila de transferências indisponível: {}", ex.getMessage());
+
+        ErrorResponse error = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(
             Exception ex, HttpServletRequest request) {
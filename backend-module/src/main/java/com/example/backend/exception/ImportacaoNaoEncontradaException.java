@@ -0,0 +1,11 @@
+package com.example.backend.exception;
+
+/**
+ * Exceção lançada quando a importação de benefícios não existe ou já expirou
+ */
+public class ImportacaoNaoEncontradaException extends RuntimeException {
+
+    public ImportacaoNaoEncontradaException(String message) {
+        super(message);
+    }
+}
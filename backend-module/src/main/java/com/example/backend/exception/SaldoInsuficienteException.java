@@ -0,0 +1,12 @@
+package com.example.backend.exception;
+
+/**
+ * Exceção lançada quando o benefício de origem não tem saldo para a transferência
+ * Estende IllegalArgumentException: continua sendo respondida com 400
+ */
+public class SaldoInsuficienteException extends IllegalArgumentException {
+
+    public SaldoInsuficienteException(String message) {
+        super(message);
+    }
+}
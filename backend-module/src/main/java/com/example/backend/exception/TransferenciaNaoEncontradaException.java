@@ -0,0 +1,11 @@
+package com.example.backend.exception;
+
+/**
+ * Exceção lançada quando o ticket de uma transferência assíncrona não existe ou já expirou
+ */
+public class TransferenciaNaoEncontradaException extends RuntimeException {
+
+    public TransferenciaNaoEncontradaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.backend.metrics;
+
+import com.example.backend.exception.BeneficioInativoException;
+import com.example.backend.exception.BeneficioNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de negócio dos benefícios (Micrometer)
+ * - beneficio.transferencias: duração e resultado das transferências, por motivo de falha
+ *   (na fila assíncrona, a duração vai do recebimento à conclusão de cada transferência)
+ * - beneficio.lock.espera: tempo de espera por locks PESSIMISTIC_WRITE, por operação
+ *
+ * Latência por endpoint (http.server.requests) e saturação do pool Hikari (hikaricp.connections.*)
+ * são publicadas automaticamente pelo Actuator.
+ */
+@Component
+@RequiredArgsConstructor
+public class BeneficioMetricas {
+
+    public static final String TRANSFERENCIAS = "beneficio.transferencias";
+    public static final String ESPERA_LOCK = "beneficio.lock.espera";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Executa e mede uma transferência, incluindo o commit quando chamada fora da transação
+     * Exceções são classificadas por motivo e propagadas
+     */
+    public void medirTransferencia(Runnable transferencia) {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            transferencia.run();
+            sample.stop(timerTransferencia("sucesso", "nenhum"));
+        } catch (RuntimeException ex) {
+            sample.stop(timerTransferencia("falha", motivo(ex)));
+            throw ex;
+        }
+    }
+
+    /**
+     * Registra uma transferência processada fora da requisição (fila assíncrona)
+     *
+     * @param duracao tempo entre o recebimento e a conclusão
+     * @param motivo  motivo da falha ({@link #motivo(RuntimeException)}), ou nulo no sucesso
+     */
+    public void registrarTransferencia(Duration duracao, String motivo) {
+        timerTransferencia(motivo == null ? "sucesso" : "falha", motivo == null ? "nenhum" : motivo).record(duracao);
+    }
+
+    /**
+     * Executa e mede a aquisição de locks PESSIMISTIC_WRITE
+     */
+    public <T> T medirEsperaLock(String operacao, Supplier<T> aquisicao) {
+        return Timer.builder(ESPERA_LOCK)
+                .description("Tempo de espera por locks PESSIMISTIC_WRITE")
+                .tag("operacao", operacao)
+                .register(registry)
+                .record(aquisicao);
+    }
+
+    /**
+     * Executa e mede a aquisição de locks PESSIMISTIC_WRITE sem resultado (ex.: refresh com lock)
+     */
+    public void medirEsperaLock(String operacao, Runnable aquisicao) {
+        medirEsperaLock(operacao, () -> {
+            aquisicao.run();
+            return null;
+        });
+    }
+
+    /**
+     * Motivo de falha de uma transferência, usado como tag das métricas
+     */
+    public static String motivo(RuntimeException ex) {
+        if (ex instanceof SaldoInsuficienteException) {
+            return "saldo_insuficiente";
+        }
+        if (ex instanceof BeneficioInativoException) {
+            return "inativo";
+        }
+        if (ex instanceof BeneficioNotFoundException) {
+            return "nao_encontrado";
+        }
+        if (ex instanceof ConcurrencyFailureException) {
+            return "conflito";
+        }
+        if (ex instanceof IllegalArgumentException) {
+            return "invalida";
+        }
+        return "erro";
+    }
+
+    private Timer timerTransferencia(String resultado, String motivo) {
+        return Timer.builder(TRANSFERENCIAS)
+                .description("Transferências entre benefícios")
+                .tag("resultado", resultado)
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+}
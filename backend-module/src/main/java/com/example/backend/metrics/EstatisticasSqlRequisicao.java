@@ -0,0 +1,78 @@
+package com.example.backend.metrics;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Contabilização dos statements JDBC executados durante uma requisição
+ * Vinculada à thread da requisição entre {@link #iniciar()} e {@link #encerrar()};
+ * fora desse intervalo (jobs, inicialização) as execuções não são contabilizadas.
+ */
+public final class EstatisticasSqlRequisicao {
+
+    private static final ThreadLocal<EstatisticasSqlRequisicao> ATUAL = new ThreadLocal<>();
+
+    private int statements;
+    private long linhas;
+    private long tempoNanos;
+    private final Map<String, Integer> execucoesPorSql = new HashMap<>();
+
+    public static EstatisticasSqlRequisicao iniciar() {
+        EstatisticasSqlRequisicao estatisticas = new EstatisticasSqlRequisicao();
+        ATUAL.set(estatisticas);
+        return estatisticas;
+    }
+
+    /**
+     * Estatísticas da requisição corrente, se houver
+     */
+    public static Optional<EstatisticasSqlRequisicao> atual() {
+        return Optional.ofNullable(ATUAL.get());
+    }
+
+    public static void encerrar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Registra uma execução (um batch conta como uma ida ao banco)
+     */
+    public void registrarExecucao(String sql, long nanos) {
+        statements++;
+        tempoNanos += nanos;
+        execucoesPorSql.merge(sql, 1, Integer::sum);
+    }
+
+    public void registrarLinha() {
+        linhas++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public long getTempoNanos() {
+        return tempoNanos;
+    }
+
+    /**
+     * O SQL mais repetido na requisição; muitas repetições do mesmo SQL indicam N+1
+     */
+    public Optional<Map.Entry<String, Integer>> sqlMaisRepetido() {
+        return execucoesPorSql.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+
+    /**
+     * Valor do cabeçalho Server-Timing (tempo de banco em ms, statements e linhas)
+     */
+    public String serverTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.3f, sql;desc=\"statements=%d linhas=%d\"",
+                tempoNanos / 1_000_000.0, statements, linhas);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.backend.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log de acesso estruturado e amostrado das requisições da API (logger "acesso", pares chave=valor)
+ * Registra uma fração (amostragem) das requisições, mais todas as respostas 5xx e as que passarem
+ * do limite de tempo; o motivo do registro vai no campo "motivo"
+ */
+@Component
+@ConditionalOnProperty(name = "beneficio.log.acesso.habilitado")
+@Slf4j(topic = "acesso")
+public class LogAcessoFilter extends OncePerRequestFilter {
+
+    private final double amostragem;
+    private final Duration limiteTempo;
+
+    public LogAcessoFilter(@Value("${beneficio.log.acesso.amostragem:0.01}") double amostragem,
+                           @Value("${beneficio.log.acesso.lenta:PT0.5S}") Duration limiteTempo) {
+        if (amostragem < 0 || amostragem > 1) {
+            throw new IllegalArgumentException("Amostragem do log de acesso deve estar entre 0 e 1");
+        }
+        this.amostragem = amostragem;
+        this.limiteTempo = limiteTempo;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            registrar(request, response, System.nanoTime() - inicio);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, long duracaoNanos) {
+        String motivo = motivo(response.getStatus(), duracaoNanos);
+        if (motivo == null || !log.isInfoEnabled()) {
+            return;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        log.atInfo()
+                .addKeyValue("metodo", request.getMethod())
+                .addKeyValue("rota", padrao != null ? padrao : "UNKNOWN")
+                .addKeyValue("uri", request.getRequestURI())
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("duracao_ms", TimeUnit.NANOSECONDS.toMillis(duracaoNanos))
+                .addKeyValue("motivo", motivo)
+                .log();
+    }
+
+    /**
+     * Motivo do registro da requisição, ou nulo se ela não deve ser registrada
+     */
+    String motivo(int status, long duracaoNanos) {
+        if (status >= 500) {
+            return "erro";
+        }
+        if (duracaoNanos > limiteTempo.toNanos()) {
+            return "lenta";
+        }
+        if (amostragem > 0 && ThreadLocalRandom.current().nextDouble() < amostragem) {
+            return "amostra";
+        }
+        return null;
+    }
+}
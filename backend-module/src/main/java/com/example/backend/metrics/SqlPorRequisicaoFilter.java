@@ -0,0 +1,159 @@
+package com.example.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contabiliza os statements JDBC de cada requisição da API
+ * - cabeçalho Server-Timing com tempo de banco, statements e linhas lidas
+ * - métricas beneficio.sql.statements e beneficio.sql.tempo por endpoint
+ * - alerta no log acima dos limites configurados (statements, tempo e repetições do mesmo SQL/N+1)
+ */
+@Component
+@ConditionalOnProperty(name = "beneficio.sql.monitoramento.habilitado", matchIfMissing = true)
+@Slf4j
+public class SqlPorRequisicaoFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final MeterRegistry registry;
+    private final int limiteStatements;
+    private final Duration limiteTempo;
+    private final int limiteRepeticoes;
+
+    public SqlPorRequisicaoFilter(MeterRegistry registry,
+                                  @Value("${beneficio.sql.alerta.statements:10}") int limiteStatements,
+                                  @Value("${beneficio.sql.alerta.tempo:PT0.2S}") Duration limiteTempo,
+                                  @Value("${beneficio.sql.alerta.repeticoes:5}") int limiteRepeticoes) {
+        this.registry = registry;
+        this.limiteStatements = limiteStatements;
+        this.limiteTempo = limiteTempo;
+        this.limiteRepeticoes = limiteRepeticoes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EstatisticasSqlRequisicao estatisticas = EstatisticasSqlRequisicao.iniciar();
+        ServerTimingResponse resposta = new ServerTimingResponse(response, estatisticas);
+        try {
+            filterChain.doFilter(request, resposta);
+        } finally {
+            EstatisticasSqlRequisicao.encerrar();
+            resposta.adicionarServerTiming();
+            registrar(request, estatisticas);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, EstatisticasSqlRequisicao estatisticas) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+        String endpoint = request.getMethod() + " " + uri;
+
+        DistributionSummary.builder("beneficio.sql.statements")
+                .description("Statements JDBC por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(estatisticas.getStatements());
+        Timer.builder("beneficio.sql.tempo")
+                .description("Tempo de banco por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(estatisticas.getTempoNanos(), TimeUnit.NANOSECONDS);
+
+        if (estatisticas.getStatements() > limiteStatements) {
+            log.warn("{} executou {} statements (limite {})", endpoint, estatisticas.getStatements(), limiteStatements);
+        }
+        if (estatisticas.getTempoNanos() > limiteTempo.toNanos()) {
+            log.warn("{} gastou {} ms no banco (limite {} ms)", endpoint,
+                    TimeUnit.NANOSECONDS.toMillis(estatisticas.getTempoNanos()), limiteTempo.toMillis());
+        }
+        estatisticas.sqlMaisRepetido()
+                .filter(sql -> sql.getValue() > limiteRepeticoes)
+                .ifPresent(sql -> log.warn("{} executou o mesmo SQL {} vezes (possível N+1): {}",
+                        endpoint, sql.getValue(), sql.getKey()));
+    }
+
+    /**
+     * Adiciona o Server-Timing antes do commit da resposta (primeira escrita do corpo)
+     * ou ao fim da requisição, para respostas sem corpo
+     */
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final EstatisticasSqlRequisicao estatisticas;
+        private boolean adicionado;
+
+        ServerTimingResponse(HttpServletResponse response, EstatisticasSqlRequisicao estatisticas) {
+            super(response);
+            this.estatisticas = estatisticas;
+        }
+
+        void adicionarServerTiming() {
+            if (!adicionado && !isCommitted()) {
+                adicionado = true;
+                addHeader(SERVER_TIMING, estatisticas.serverTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            adicionarServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            adicionarServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            adicionarServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            adicionarServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            adicionarServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            adicionarServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.AgregadoSaldoDTO;
+import com.example.backend.dto.AlteracaoBeneficioDTO;
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.example.backend.dto.SaldoBeneficioDTO;
+import com.example.backend.dto.VersaoColecaoDTO;
+import jakarta.persistence.QueryHint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Repository de Beneficio do modo LEDGER: saldo e versão efetiva incluem os lançamentos
+ * ainda não compactados do diário
+ * Só é registrado no modo LEDGER, em que substitui o BeneficioRepository (Primary);
+ * nos demais modos as consultas de saldo leem apenas a tabela BENEFICIO (e os slots)
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(name = "beneficio.transferencia.modo", havingValue = "LEDGER")
+public interface BeneficioLedgerRepository extends BeneficioRepository {
+
+    /**
+     * Lançamentos do diário ainda não somados ao VALOR do benefício b
+     */
+    String LANCAMENTOS_PENDENTES = "FROM Lancamento l WHERE l.beneficioId = b.id AND l.compactado = false";
+
+    /**
+     * Soma dos lançamentos pendentes do benefício b
+     */
+    String PENDENTE = "(SELECT COALESCE(SUM(l.valor), 0) " + LANCAMENTOS_PENDENTES + ")";
+
+    /**
+     * Saldo do benefício b: snapshot (VALOR) mais os slots e os lançamentos pendentes
+     */
+    String SALDO_LEDGER = SALDO + " + " + PENDENTE;
+
+    /**
+     * Versão efetiva do benefício b: VERSAO mais a quantidade de lançamentos pendentes
+     * Cresce a cada lançamento e a cada compactação (que soma ao VERSION os lançamentos compactados e mais um)
+     */
+    String VERSAO_LEDGER = VERSAO + " + (SELECT COUNT(l) " + LANCAMENTOS_PENDENTES + ")";
+
+    /**
+     * Projeção em DTO com valor e versão já incluindo os lançamentos pendentes
+     */
+    String PROJECAO_RESPONSE_DTO_LEDGER = "SELECT new com.example.backend.dto.BeneficioResponseDTO(" +
+            "b.id, b.nome, b.descricao, " + SALDO_LEDGER + ", b.ativo, " + VERSAO_LEDGER + ") FROM Beneficio b ";
+
+    @Override
+    @Query(PROJECAO_RESPONSE_DTO_LEDGER + "WHERE b.id = :id")
+    Optional<BeneficioResponseDTO> findResponseById(Long id);
+
+    @Override
+    @Query(PROJECAO_RESPONSE_DTO_LEDGER + "WHERE b.id > :after ORDER BY b.id")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<BeneficioResponseDTO> findResponsePagina(Long after, Limit limit);
+
+    @Override
+    @Query(PROJECAO_RESPONSE_DTO_LEDGER + "WHERE b.ativo = true AND b.id > :after ORDER BY b.id")
+    List<BeneficioResponseDTO> findResponseAtivosPagina(Long after, Limit limit);
+
+    @Override
+    @Query(value = PROJECAO_RESPONSE_DTO_LEDGER + FILTRO_PAGINA,
+            countQuery = "SELECT COUNT(b) FROM Beneficio b " + FILTRO_PAGINA)
+    Page<BeneficioResponseDTO> findResponseFiltrada(String nome, Boolean ativo, Pageable pageable);
+
+    @Override
+    @Query(PROJECAO_RESPONSE_DTO_LEDGER + "WHERE LOWER(b.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
+    List<BeneficioResponseDTO> findResponseByNomeContainingIgnoreCase(String nome);
+
+    @Override
+    @Query("SELECT " + VERSAO_LEDGER + " FROM Beneficio b WHERE b.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Override
+    @Query("SELECT new com.example.backend.dto.VersaoColecaoDTO(COUNT(b), COALESCE(MAX(b.version), 0L), " +
+            "COALESCE(SUM(b.version), 0L) + (SELECT COUNT(l) FROM Lancamento l WHERE l.compactado = false) " +
+            "+ (SELECT COALESCE(SUM(s.versao), 0L) FROM BeneficioSlot s)) FROM Beneficio b")
+    VersaoColecaoDTO findVersaoColecao();
+
+    @Override
+    @Query(PROJECAO_RESPONSE_DTO_LEDGER + "WHERE b.id IN :ids ORDER BY b.id")
+    List<BeneficioResponseDTO> findResponseByIdIn(Collection<Long> ids);
+
+    @Override
+    @Query("SELECT new com.example.backend.dto.AlteracaoBeneficioDTO(b.id, " + SALDO_LEDGER + ", b.ativo, " +
+            VERSAO_LEDGER + ") FROM Beneficio b WHERE b.id IN :ids ORDER BY b.id")
+    List<AlteracaoBeneficioDTO> findAlteracoesByIdIn(Collection<Long> ids);
+
+    @Override
+    @Query("SELECT new com.example.backend.dto.SaldoBeneficioDTO(b.id, " + SALDO_LEDGER + ", b.ativo) " +
+            "FROM Beneficio b")
+    List<SaldoBeneficioDTO> findAllSaldos();
+
+    @Override
+    @Query("SELECT new com.example.backend.dto.AgregadoSaldoDTO(b.ativo, COUNT(b), SUM(" + SALDO_LEDGER + "), " +
+            "MIN(" + SALDO_LEDGER + "), MAX(" + SALDO_LEDGER + ")) FROM Beneficio b GROUP BY b.ativo")
+    List<AgregadoSaldoDTO> findAgregadosSaldo();
+
+    /**
+     * Debita o valor somente se o benefício existir, estiver ativo, não for particionado
+     * e tiver saldo suficiente (snapshot mais lançamentos pendentes)
+     * Retorna a quantidade de linhas afetadas (0 ou 1)
+     */
+    @Override
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor - :amount, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.ativo = true AND b.slots = 0 AND b.valor + " + PENDENTE + " >= :amount")
+    int debitar(Long id, BigDecimal amount);
+
+    @Override
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACAO))
+    @Query(PROJECAO_RESPONSE_DTO_LEDGER + "ORDER BY b.id")
+    Stream<BeneficioResponseDTO> streamResponseAll();
+}
@@ -1,11 +1,32 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.AgregadoSaldoDTO;
+import com.example.backend.dto.AlteracaoBeneficioDTO;
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.example.backend.dto.SaldoBeneficioDTO;
+import com.example.backend.dto.SugestaoNomeDTO;
+import com.example.backend.dto.VersaoColecaoDTO;
 import com.example.backend.entity.Beneficio;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository para operações de banco de dados com Beneficio
@@ -13,6 +34,38 @@ import java.util.List;
 @Repository
 public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
 
+    /**
+     * Quantidade de linhas trazidas do banco a cada ida ao cursor na exportação
+     */
+    int FETCH_SIZE_EXPORTACAO = 500;
+
+    /**
+     * Slots do benefício b (vazio quando o benefício não é particionado)
+     */
+    String SLOTS = "FROM BeneficioSlot s WHERE s.beneficioId = b.id";
+
+    /**
+     * Saldo do benefício b: snapshot (VALOR) mais os slots
+     * A subconsulta dos slots só é avaliada para benefícios particionados (SLOTS maior que zero)
+     * No modo LEDGER o saldo inclui também os lançamentos pendentes (ver BeneficioLedgerRepository)
+     */
+    String SALDO = "b.valor + CASE WHEN b.slots > 0 THEN (SELECT COALESCE(SUM(s.valor), 0) " + SLOTS + ") " +
+            "ELSE 0 END";
+
+    /**
+     * Versão efetiva do benefício b: VERSION mais as versões dos slots
+     * Cresce a cada alteração do benefício e a cada alteração de slot
+     */
+    String VERSAO = "b.version + CASE WHEN b.slots > 0 THEN (SELECT COALESCE(SUM(s.versao), 0) " + SLOTS + ") " +
+            "ELSE 0 END";
+
+    /**
+     * Projeção direta em DTO (constructor expression): não cria entidades gerenciadas,
+     * snapshots de dirty checking nem entradas no contexto de persistência
+     */
+    String PROJECAO_RESPONSE_DTO = "SELECT new com.example.backend.dto.BeneficioResponseDTO(" +
+            "b.id, b.nome, b.descricao, " + SALDO + ", b.ativo, " + VERSAO + ") FROM Beneficio b ";
+
     /**
      * Busca todos os benefícios ativos
      */
@@ -23,4 +76,188 @@ public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
      */
     @Query("SELECT b FROM Beneficio b WHERE LOWER(b.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
     List<Beneficio> findByNomeContainingIgnoreCase(String nome);
+
+    /**
+     * Busca benefício por ID projetado em DTO
+     */
+    @Query(PROJECAO_RESPONSE_DTO + "WHERE b.id = :id")
+    Optional<BeneficioResponseDTO> findResponseById(Long id);
+
+    /**
+     * Página por cursor projetada em DTO: benefícios com ID maior que o cursor, em ordem de ID
+     * Usa o índice da chave primária, com custo independente da posição da página
+     * Resultado servido pelo cache de consultas enquanto a tabela BENEFICIO não for alterada
+     */
+    @Query(PROJECAO_RESPONSE_DTO + "WHERE b.id > :after ORDER BY b.id")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    List<BeneficioResponseDTO> findResponsePagina(Long after, Limit limit);
+
+    /**
+     * Página por cursor de benefícios ativos projetada em DTO
+     */
+    @Query(PROJECAO_RESPONSE_DTO + "WHERE b.ativo = true AND b.id > :after ORDER BY b.id")
+    List<BeneficioResponseDTO> findResponseAtivosPagina(Long after, Limit limit);
+
+    /**
+     * Filtro da listagem paginada por página: nome contido (case insensitive) e situação, ignorados quando nulos
+     */
+    String FILTRO_PAGINA = "WHERE (:nome IS NULL OR LOWER(b.nome) LIKE LOWER(CONCAT('%', :nome, '%'))) " +
+            "AND (:ativo IS NULL OR b.ativo = :ativo)";
+
+    /**
+     * Página de benefícios filtrada, projetada em DTO, na ordenação do Pageable (com desempate pelo ID)
+     * O COUNT do total só é executado quando a página não permite deduzi-lo
+     */
+    @Query(value = PROJECAO_RESPONSE_DTO + FILTRO_PAGINA,
+            countQuery = "SELECT COUNT(b) FROM Beneficio b " + FILTRO_PAGINA)
+    Page<BeneficioResponseDTO> findResponseFiltrada(String nome, Boolean ativo, Pageable pageable);
+
+    /**
+     * Busca benefícios por nome (case insensitive) projetados em DTO
+     */
+    @Query(PROJECAO_RESPONSE_DTO + "WHERE LOWER(b.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
+    List<BeneficioResponseDTO> findResponseByNomeContainingIgnoreCase(String nome);
+
+    /**
+     * Versão efetiva do benefício, sem carregar a linha inteira (validação de ETag)
+     */
+    @Query("SELECT " + VERSAO + " FROM Beneficio b WHERE b.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Quantidade, VERSION máximo e soma das versões efetivas de todos os benefícios (ETag das listagens)
+     */
+    @Query("SELECT new com.example.backend.dto.VersaoColecaoDTO(COUNT(b), COALESCE(MAX(b.version), 0L), " +
+            "COALESCE(SUM(b.version), 0L) + (SELECT COALESCE(SUM(s.versao), 0L) FROM BeneficioSlot s)) FROM Beneficio b")
+    VersaoColecaoDTO findVersaoColecao();
+
+    /**
+     * Busca benefícios pelos IDs informados projetados em DTO, em ordem de ID
+     */
+    @Query(PROJECAO_RESPONSE_DTO + "WHERE b.id IN :ids ORDER BY b.id")
+    List<BeneficioResponseDTO> findResponseByIdIn(Collection<Long> ids);
+
+    /**
+     * Saldo, situação e versão efetiva dos benefícios informados, para o fluxo de alterações
+     */
+    @Query("SELECT new com.example.backend.dto.AlteracaoBeneficioDTO(b.id, " + SALDO + ", b.ativo, " + VERSAO + ") " +
+            "FROM Beneficio b WHERE b.id IN :ids ORDER BY b.id")
+    List<AlteracaoBeneficioDTO> findAlteracoesByIdIn(Collection<Long> ids);
+
+    /**
+     * ID e nome de todos os benefícios, para carga do índice de nomes
+     */
+    @Query("SELECT new com.example.backend.dto.SugestaoNomeDTO(b.id, b.nome) FROM Beneficio b")
+    List<SugestaoNomeDTO> findAllNomes();
+
+    /**
+     * ID e nome dos benefícios cujo nome começa com o prefixo (case insensitive), em ordem alfabética,
+     * para o autocompletar enquanto o índice de nomes não está carregado
+     */
+    @Query("SELECT new com.example.backend.dto.SugestaoNomeDTO(b.id, b.nome) FROM Beneficio b " +
+            "WHERE LOWER(b.nome) LIKE CONCAT(LOWER(:prefixo), '%') ORDER BY LOWER(b.nome), b.id")
+    List<SugestaoNomeDTO> findSugestoesByNomePrefixo(String prefixo, Limit limit);
+
+    /**
+     * Saldo e situação de todos os benefícios, para carga das estatísticas em memória
+     */
+    @Query("SELECT new com.example.backend.dto.SaldoBeneficioDTO(b.id, " + SALDO + ", b.ativo) FROM Beneficio b")
+    List<SaldoBeneficioDTO> findAllSaldos();
+
+    /**
+     * Quantidade, soma, mínimo e máximo dos saldos de ativos e inativos (conferência das estatísticas)
+     */
+    @Query("SELECT new com.example.backend.dto.AgregadoSaldoDTO(b.ativo, COUNT(b), SUM(" + SALDO + "), " +
+            "MIN(" + SALDO + "), MAX(" + SALDO + ")) FROM Beneficio b GROUP BY b.ativo")
+    List<AgregadoSaldoDTO> findAgregadosSaldo();
+
+    /**
+     * Busca e bloqueia (PESSIMISTIC_WRITE) os benefícios informados
+     * Ordenado por ID para que os locks sejam adquiridos sempre em ordem crescente,
+     * evitando deadlock entre lotes concorrentes
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Beneficio b WHERE b.id IN :ids ORDER BY b.id")
+    List<Beneficio> findAllByIdForUpdate(Collection<Long> ids);
+
+    /**
+     * Busca e bloqueia (PESSIMISTIC_WRITE) um benefício
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Beneficio b WHERE b.id = :id")
+    Optional<Beneficio> findByIdForUpdate(Long id);
+
+    /**
+     * Quantidade de slots do benefício lida do banco (não do cache de segundo nível)
+     */
+    @Query("SELECT b.slots FROM Beneficio b WHERE b.id = :id")
+    Optional<Integer> findSlotsById(Long id);
+
+    /**
+     * IDs dos benefícios informados que estão particionados em slots
+     */
+    @Query("SELECT b.id FROM Beneficio b WHERE b.id IN :ids AND b.slots > 0")
+    List<Long> findIdsParticionados(Collection<Long> ids);
+
+    /**
+     * Bloqueia (PESSIMISTIC_WRITE) o benefício e retorna o VALOR lido do banco, sem carregar a entidade
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.valor FROM Beneficio b WHERE b.id = :id")
+    Optional<BigDecimal> findValorByIdForUpdate(Long id);
+
+    /**
+     * Debita o valor somente se o benefício existir, estiver ativo, não for particionado
+     * e tiver saldo suficiente
+     * Retorna a quantidade de linhas afetadas (0 ou 1)
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor - :amount, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.ativo = true AND b.slots = 0 AND b.valor >= :amount")
+    int debitar(Long id, BigDecimal amount);
+
+    /**
+     * Credita o valor somente se o benefício existir, estiver ativo e não for particionado
+     * Retorna a quantidade de linhas afetadas (0 ou 1)
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor + :amount, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.ativo = true AND b.slots = 0")
+    int creditar(Long id, BigDecimal amount);
+
+    /**
+     * Soma ao snapshot os lançamentos compactados: VALOR recebe a soma e VERSION avança
+     * a quantidade de lançamentos mais um, mantendo a versão efetiva sempre crescente
+     * Deve ser chamado com o benefício bloqueado
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor + :valor, b.version = b.version + :lancamentos + 1 " +
+            "WHERE b.id = :id")
+    int compactar(Long id, BigDecimal valor, long lancamentos);
+
+    /**
+     * Marca o benefício como particionado em slots e retira do VALOR o montante movido para eles
+     * Deve ser chamado com o benefício bloqueado
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor - :valor, b.slots = :quantidade, " +
+            "b.version = b.version + 1 WHERE b.id = :id")
+    int particionar(Long id, BigDecimal valor, int quantidade);
+
+    /**
+     * Retira do VALOR o montante movido para os slots do benefício
+     * Deve ser chamado com o benefício bloqueado
+     */
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor - :valor, b.version = b.version + 1 WHERE b.id = :id")
+    int moverParaSlots(Long id, BigDecimal valor);
+
+    /**
+     * Percorre todos os benefícios em ordem de ID via cursor do banco, projetados em DTO
+     * O Stream deve ser consumido e fechado dentro de uma transação;
+     * as linhas chegam em blocos de FETCH_SIZE_EXPORTACAO
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + FETCH_SIZE_EXPORTACAO))
+    @Query(PROJECAO_RESPONSE_DTO + "ORDER BY b.id")
+    Stream<BeneficioResponseDTO> streamResponseAll();
 }
@@ -0,0 +1,62 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.SaldoSlotDTO;
+import com.example.backend.entity.BeneficioSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Repository dos slots de saldo de benefícios particionados
+ */
+@Repository
+public interface BeneficioSlotRepository extends JpaRepository<BeneficioSlot, BeneficioSlot.Chave> {
+
+    /**
+     * Saldos dos slots do benefício, sem bloqueio (leitura consistente do MVCC)
+     */
+    @Query("SELECT new com.example.backend.dto.SaldoSlotDTO(s.beneficioId, s.slot, s.valor) FROM BeneficioSlot s " +
+            "WHERE s.beneficioId = :beneficioId ORDER BY s.slot")
+    List<SaldoSlotDTO> findSaldos(Long beneficioId);
+
+    /**
+     * Busca e bloqueia (PESSIMISTIC_WRITE) os slots do benefício, em ordem de slot
+     * Projetado em DTO: os valores vêm sempre do banco, mesmo após UPDATEs em massa na mesma transação
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.backend.dto.SaldoSlotDTO(s.beneficioId, s.slot, s.valor) FROM BeneficioSlot s " +
+            "WHERE s.beneficioId = :beneficioId ORDER BY s.slot")
+    List<SaldoSlotDTO> findSaldosForUpdate(Long beneficioId);
+
+    /**
+     * Debita o slot somente se ele tiver saldo suficiente
+     * Retorna a quantidade de linhas afetadas (0 ou 1)
+     */
+    @Modifying
+    @Query("UPDATE BeneficioSlot s SET s.valor = s.valor - :amount, s.versao = s.versao + 1 " +
+            "WHERE s.beneficioId = :beneficioId AND s.slot = :slot AND s.valor >= :amount")
+    int debitar(Long beneficioId, int slot, BigDecimal amount);
+
+    /**
+     * Credita o slot
+     * Retorna a quantidade de linhas afetadas (0 ou 1)
+     */
+    @Modifying
+    @Query("UPDATE BeneficioSlot s SET s.valor = s.valor + :amount, s.versao = s.versao + 1 " +
+            "WHERE s.beneficioId = :beneficioId AND s.slot = :slot")
+    int creditar(Long beneficioId, int slot, BigDecimal amount);
+
+    /**
+     * Define o valor do slot (redistribuição na consolidação)
+     */
+    @Modifying
+    @Query("UPDATE BeneficioSlot s SET s.valor = :valor, s.versao = s.versao + 1 " +
+            "WHERE s.beneficioId = :beneficioId AND s.slot = :slot")
+    int definir(Long beneficioId, int slot, BigDecimal valor);
+}
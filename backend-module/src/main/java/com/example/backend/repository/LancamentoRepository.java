@@ -0,0 +1,60 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.LancamentoDTO;
+import com.example.backend.dto.SaldoPendenteDTO;
+import com.example.backend.entity.Lancamento;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository do diário de lançamentos (somente inclusões e marcação de compactação)
+ */
+@Repository
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+
+    /**
+     * Soma dos lançamentos não compactados do benefício (zero se não houver)
+     */
+    @Query("SELECT COALESCE(SUM(l.valor), 0) FROM Lancamento l WHERE l.beneficioId = :beneficioId AND l.compactado = false")
+    BigDecimal somaPendente(Long beneficioId);
+
+    /**
+     * Soma dos lançamentos não compactados por benefício; benefícios sem pendências não aparecem
+     */
+    @Query("SELECT new com.example.backend.dto.SaldoPendenteDTO(l.beneficioId, SUM(l.valor)) FROM Lancamento l " +
+            "WHERE l.beneficioId IN :beneficioIds AND l.compactado = false GROUP BY l.beneficioId")
+    List<SaldoPendenteDTO> somaPendentePorBeneficio(Collection<Long> beneficioIds);
+
+    /**
+     * Lançamentos não compactados do benefício, em ordem de ID
+     */
+    @Query("SELECT l FROM Lancamento l WHERE l.beneficioId = :beneficioId AND l.compactado = false ORDER BY l.id")
+    List<Lancamento> findPendentes(Long beneficioId, Limit limit);
+
+    /**
+     * Benefícios com lançamentos a compactar
+     */
+    @Query("SELECT DISTINCT l.beneficioId FROM Lancamento l WHERE l.compactado = false")
+    List<Long> findBeneficiosComPendencias(Limit limit);
+
+    /**
+     * Marca os lançamentos informados como somados ao snapshot do benefício
+     */
+    @Modifying
+    @Query("UPDATE Lancamento l SET l.compactado = true WHERE l.id IN :ids")
+    int marcarCompactados(Collection<Long> ids);
+
+    /**
+     * Histórico do benefício paginado por cursor, em ordem de ID
+     */
+    @Query("SELECT new com.example.backend.dto.LancamentoDTO(l.id, l.tipo, l.valor, l.referencia, l.criadoEm, " +
+            "l.compactado) FROM Lancamento l WHERE l.beneficioId = :beneficioId AND l.id > :after ORDER BY l.id")
+    List<LancamentoDTO> findHistorico(Long beneficioId, Long after, Limit limit);
+}
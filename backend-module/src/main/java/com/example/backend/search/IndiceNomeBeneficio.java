@@ -0,0 +1,243 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.SugestaoNomeDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice em memória sobre o NOME dos benefícios (case insensitive)
+ * - busca por substring via índice de trigramas: percorre apenas a menor lista de candidatos
+ *   e confirma cada um, sem varrer a tabela
+ * - autocompletar por prefixo via conjunto ordenado por nome: O(log n + k)
+ *
+ * Leituras são concorrentes; escritas são serializadas. O índice pode ficar defasado em relação ao banco
+ * (alterações feitas por outras instâncias, ou aplicadas fora de ordem por transações concorrentes) até a
+ * próxima recarga periódica; quem busca deve conferir o nome das linhas lidas do banco.
+ * Como nas estatísticas, uma recarga só é aceita quando nenhuma alteração estava em andamento nem foi
+ * aplicada durante a consulta ao banco.
+ * As escritas usam ReentrantLock em vez de synchronized para não prender threads virtuais ao carrier.
+ */
+@Component
+@Slf4j
+public class IndiceNomeBeneficio {
+
+    static final int TAMANHO_NGRAMA = 3;
+
+    private static final Comparator<EntradaNome> ORDEM_NOME =
+            Comparator.comparing(EntradaNome::normalizado).thenComparing(EntradaNome::id);
+
+    private final Map<Long, EntradaNome> porId = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> trigramas = new ConcurrentHashMap<>();
+    private final NavigableSet<EntradaNome> ordenado = new ConcurrentSkipListSet<>(ORDEM_NOME);
+
+    private final ReentrantLock escrita = new ReentrantLock();
+
+    /**
+     * Transações com alterações registradas e ainda não concluídas
+     */
+    private final AtomicInteger pendentes = new AtomicInteger();
+
+    /**
+     * Quantidade de alterações aplicadas (protegida pelo lock de escrita)
+     */
+    private long versao;
+
+    private volatile boolean carregado;
+
+    /**
+     * Quantidade de alterações aplicadas até agora, a informar em carregar
+     */
+    public long getVersao() {
+        escrita.lock();
+        try {
+            return versao;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Indica se não há alterações registradas aguardando o fim da transação
+     */
+    public boolean isEmRepouso() {
+        return pendentes.get() == 0;
+    }
+
+    /**
+     * Substitui o conteúdo do índice pelos nomes lidos do banco
+     *
+     * @param versaoLida versão obtida antes da consulta
+     * @return false (nada alterado) se houve alterações desde a versão lida ou há alterações em andamento
+     */
+    public boolean carregar(Collection<SugestaoNomeDTO> nomes, long versaoLida) {
+        escrita.lock();
+        try {
+            if (versao != versaoLida || !isEmRepouso()) {
+                return false;
+            }
+            porId.clear();
+            trigramas.clear();
+            ordenado.clear();
+            nomes.forEach(nome -> indexar(nome.getId(), nome.getNome()));
+            carregado = true;
+        } finally {
+            escrita.unlock();
+        }
+        log.info("Índice de nomes carregado com {} benefícios", porId.size());
+        return true;
+    }
+
+    /**
+     * Indica se o índice já foi carregado; antes disso as buscas devem ir ao banco
+     */
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    /**
+     * Indexa (ou reindexa) o nome do benefício após o commit da transação corrente,
+     * ou imediatamente quando não há transação
+     */
+    public void atualizarAposTransacao(Long id, String nome) {
+        atualizarAposTransacao(Map.of(id, nome));
+    }
+
+    /**
+     * Indexa os nomes de vários benefícios após o commit, com uma única sincronização e uma única
+     * aquisição do lock de escrita (cadastros em lote)
+     */
+    public void atualizarAposTransacao(Map<Long, String> nomes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexar(nomes);
+            return;
+        }
+        // Enquanto a transação não termina, a alteração conta como pendente e impede recargas
+        pendentes.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        indexar(nomes);
+                    }
+                } finally {
+                    // Depois de indexar: quem vê zero pendentes também vê a versão incrementada
+                    pendentes.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * IDs, em ordem crescente, dos benefícios cujo nome contém o termo (case insensitive)
+     * Termos menores que um trigrama não têm lista de candidatos e são conferidos contra todos os nomes em memória
+     */
+    public List<Long> buscar(String termo) {
+        String normalizado = normalizar(termo);
+        Collection<Long> candidatos = normalizado.length() < TAMANHO_NGRAMA
+                ? porId.keySet()
+                : menorListaDeCandidatos(normalizado);
+        List<Long> ids = new ArrayList<>();
+        for (Long id : candidatos) {
+            EntradaNome entrada = porId.get(id);
+            if (entrada != null && entrada.normalizado().contains(normalizado)) {
+                ids.add(id);
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    /**
+     * Até {@code limite} benefícios cujo nome começa com o prefixo (case insensitive), em ordem alfabética
+     */
+    public List<SugestaoNomeDTO> autocompletar(String prefixo, int limite) {
+        String normalizado = normalizar(prefixo);
+        List<SugestaoNomeDTO> sugestoes = new ArrayList<>(limite);
+        for (EntradaNome entrada : ordenado.tailSet(new EntradaNome(Long.MIN_VALUE, null, normalizado))) {
+            if (sugestoes.size() >= limite || !entrada.normalizado().startsWith(normalizado)) {
+                break;
+            }
+            sugestoes.add(new SugestaoNomeDTO(entrada.id(), entrada.nome()));
+        }
+        return sugestoes;
+    }
+
+    private void indexar(Map<Long, String> nomes) {
+        escrita.lock();
+        try {
+            nomes.forEach(this::indexar);
+            versao++;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private void indexar(Long id, String nome) {
+        EntradaNome nova = new EntradaNome(id, nome, normalizar(nome));
+        escrita.lock();
+        try {
+            EntradaNome anterior = porId.put(id, nova);
+            if (anterior != null) {
+                ordenado.remove(anterior);
+                for (String trigrama : trigramas(anterior.normalizado())) {
+                    trigramas.computeIfPresent(trigrama, (chave, ids) -> {
+                        ids.remove(id);
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+            ordenado.add(nova);
+            for (String trigrama : trigramas(nova.normalizado())) {
+                trigramas.computeIfAbsent(trigrama, chave -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    private Collection<Long> menorListaDeCandidatos(String normalizado) {
+        Collection<Long> menor = null;
+        for (String trigrama : trigramas(normalizado)) {
+            Set<Long> ids = trigramas.get(trigrama);
+            if (ids == null) {
+                return Set.of();
+            }
+            if (menor == null || ids.size() < menor.size()) {
+                menor = ids;
+            }
+        }
+        return menor;
+    }
+
+    private static Set<String> trigramas(String normalizado) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + TAMANHO_NGRAMA <= normalizado.length(); i++) {
+            resultado.add(normalizado.substring(i, i + TAMANHO_NGRAMA));
+        }
+        return resultado;
+    }
+
+    private static String normalizar(String texto) {
+        return texto.toLowerCase(Locale.ROOT);
+    }
+
+    private record EntradaNome(Long id, String nome, String normalizado) {
+    }
+}
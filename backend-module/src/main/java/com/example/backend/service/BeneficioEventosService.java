@@ -0,0 +1,328 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AlteracaoBeneficioDTO;
+import com.example.backend.repository.BeneficioRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fluxo de alterações dos benefícios via Server-Sent Events (GET /api/v1/beneficios/stream)
+ * Os serviços informam os benefícios alterados em cada transação; após o commit os IDs entram em um
+ * conjunto de pendentes que, a cada intervalo, é drenado e enviado a todos os assinantes em um único
+ * evento "alteracoes". Uma rajada de alterações no mesmo benefício vira uma só entrada, e o estado
+ * enviado (saldo, situação e versão efetiva) é lido do banco no momento do envio, com uma consulta por
+ * bloco de IDs para todos os assinantes. Sem assinantes nada é registrado nem consultado.
+ *
+ * Cada assinante tem uma fila limitada de eventos, drenada por uma tarefa própria no executor de envio:
+ * um cliente lento ou parado não atrasa os demais nem o envio seguinte. O assinante cuja fila enche é
+ * desconectado (e contado em beneficio.eventos.descartados).
+ *
+ * Não há reenvio de eventos perdidos: um cliente que reconecta deve recarregar os dados.
+ */
+@Service
+@Slf4j
+public class BeneficioEventosService {
+
+    public static final String EVENTO = "alteracoes";
+    public static final String CONEXOES = "beneficio.eventos.conexoes";
+    public static final String ALTERACOES = "beneficio.eventos.alteracoes";
+    public static final String DESCARTADOS = "beneficio.eventos.descartados";
+
+    /**
+     * Máximo de benefícios por consulta ao banco e por evento
+     */
+    static final int TAMANHO_BLOCO = 500;
+
+    private final BeneficioRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Counter alteracoes;
+    private final Counter descartados;
+    private final Duration intervalo;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final int capacidadePorAssinante;
+    private final List<Assinante> assinantes = new CopyOnWriteArrayList<>();
+    private final Set<Long> pendentes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequencia = new AtomicLong();
+    /**
+     * Thread própria para a consulta e a distribuição dos eventos às filas dos assinantes
+     */
+    private final ScheduledExecutorService executor;
+    /**
+     * Escritas nas conexões: no máximo uma tarefa por assinante, de modo que um cliente parado prende
+     * apenas a sua thread
+     */
+    private final ExecutorService envio;
+    private volatile long ultimoEnvio = System.nanoTime();
+
+    public BeneficioEventosService(BeneficioRepository repository,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry registry,
+                                   @Value("${beneficio.eventos.intervalo:PT0.2S}") Duration intervalo,
+                                   @Value("${beneficio.eventos.timeout:PT30M}") Duration timeout,
+                                   @Value("${beneficio.eventos.heartbeat:PT15S}") Duration heartbeat,
+                                   @Value("${beneficio.eventos.fila-por-assinante:32}") int capacidadePorAssinante) {
+        if (intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("Intervalo do fluxo de alterações deve ser positivo");
+        }
+        if (capacidadePorAssinante <= 0) {
+            throw new IllegalArgumentException("Capacidade da fila por assinante deve ser maior que zero");
+        }
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.intervalo = intervalo;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.capacidadePorAssinante = capacidadePorAssinante;
+        this.alteracoes = Counter.builder(ALTERACOES)
+                .description("Alterações de benefícios enviadas no fluxo de eventos")
+                .register(registry);
+        this.descartados = Counter.builder(DESCARTADOS)
+                .description("Assinantes desconectados por não acompanharem o fluxo de alterações")
+                .register(registry);
+        Gauge.builder(CONEXOES, assinantes, Collection::size)
+                .description("Clientes conectados ao fluxo de alterações")
+                .register(registry);
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                tarefa -> new Thread(tarefa, "eventos-beneficio"));
+        AtomicInteger threads = new AtomicInteger();
+        this.envio = Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "eventos-beneficio-envio-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Inicia os envios após a inicialização
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        executor.scheduleWithFixedDelay(this::enviar, intervalo.toMillis(), intervalo.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Encerra as conexões abertas
+     */
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        envio.shutdownNow();
+        assinantes.forEach(assinante -> assinante.emissor().complete());
+        assinantes.clear();
+    }
+
+    /**
+     * Registra um novo assinante do fluxo
+     */
+    public SseEmitter assinar() {
+        return assinar(new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter assinar(SseEmitter emissor) {
+        Assinante assinante = new Assinante(emissor, new ArrayBlockingQueue<>(capacidadePorAssinante),
+                new AtomicBoolean());
+        emissor.onCompletion(() -> assinantes.remove(assinante));
+        emissor.onTimeout(emissor::complete);
+        emissor.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        // Comentário inicial: confirma a conexão ao cliente (e a proxies) antes da primeira alteração
+        entregar(assinante, SseEmitter.event().comment("conectado").build());
+        log.debug("Assinante conectado ao fluxo de alterações ({} no total)", assinantes.size());
+        return emissor;
+    }
+
+    /**
+     * Quantidade de assinantes conectados
+     */
+    public int getAssinantes() {
+        return assinantes.size();
+    }
+
+    /**
+     * Publica os benefícios informados no próximo envio, se a transação corrente for confirmada
+     * (imediatamente quando não há transação). Sem assinantes conectados nada é registrado.
+     */
+    public void publicarAposTransacao(Long... ids) {
+        if (assinantes.isEmpty() || ids.length == 0) {
+            return;
+        }
+        List<Long> alterados = List.of(ids);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendentes.addAll(alterados);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pendentes.addAll(alterados);
+            }
+        });
+    }
+
+    /**
+     * Envia aos assinantes o estado atual dos benefícios pendentes, ou um heartbeat se nada foi
+     * enviado no último intervalo de heartbeat
+     */
+    void enviar() {
+        try {
+            if (pendentes.isEmpty()) {
+                manterConexoes();
+                return;
+            }
+            // Os IDs saem do conjunto antes da consulta: um commit concorrente que volte a incluí-los
+            // gera um novo envio, e o que já foi confirmado aparece nesta leitura
+            List<Long> ids = new ArrayList<>(pendentes);
+            pendentes.removeAll(ids);
+            if (assinantes.isEmpty()) {
+                return;
+            }
+            ids.sort(null);
+            for (int inicio = 0; inicio < ids.size(); inicio += TAMANHO_BLOCO) {
+                List<Long> bloco = ids.subList(inicio, Math.min(inicio + TAMANHO_BLOCO, ids.size()));
+                try {
+                    transmitir(repository.findAlteracoesByIdIn(bloco));
+                } catch (RuntimeException ex) {
+                    log.warn("Falha ao consultar alterações de {} benefícios; nova tentativa no próximo envio: {}",
+                            bloco.size(), ex.getMessage());
+                    pendentes.addAll(ids.subList(inicio, ids.size()));
+                    return;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Falha no envio do fluxo de alterações", ex);
+        }
+    }
+
+    private void transmitir(List<AlteracaoBeneficioDTO> lista) {
+        if (lista.isEmpty()) {
+            return;
+        }
+        String dados;
+        try {
+            dados = objectMapper.writeValueAsString(lista);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao serializar alterações", ex);
+        }
+        // Evento montado uma vez e reaproveitado para todos os assinantes
+        Set<ResponseBodyEmitter.DataWithMediaType> evento = SseEmitter.event()
+                .id(Long.toString(sequencia.incrementAndGet()))
+                .name(EVENTO)
+                .data(dados)
+                .build();
+        assinantes.forEach(assinante -> entregar(assinante, evento));
+        alteracoes.increment(lista.size());
+        ultimoEnvio = System.nanoTime();
+    }
+
+    private void manterConexoes() {
+        if (assinantes.isEmpty() || System.nanoTime() - ultimoEnvio < heartbeat.toNanos()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> comentario = SseEmitter.event().comment("heartbeat").build();
+        assinantes.forEach(assinante -> entregar(assinante, comentario));
+        ultimoEnvio = System.nanoTime();
+    }
+
+    /**
+     * Coloca o evento na fila do assinante e agenda a drenagem, se ainda não agendada
+     * Fila cheia: o cliente não acompanha o fluxo e é desconectado (ao reconectar, recarrega os dados)
+     */
+    private void entregar(Assinante assinante, Set<ResponseBodyEmitter.DataWithMediaType> evento) {
+        if (!assinante.fila().offer(evento)) {
+            if (assinantes.remove(assinante)) {
+                descartados.increment();
+                log.warn("Assinante do fluxo de alterações descartado: {} eventos aguardando envio",
+                        assinante.fila().size());
+                assinante.fila().clear();
+                // Fora desta thread: complete() espera um send bloqueado no mesmo emissor
+                try {
+                    envio.execute(assinante.emissor()::complete);
+                } catch (RejectedExecutionException ex) {
+                    log.debug("Envio encerrado; assinante descartado sem concluir a conexão");
+                }
+            }
+            return;
+        }
+        agendar(assinante);
+    }
+
+    private void agendar(Assinante assinante) {
+        if (assinante.agendado().compareAndSet(false, true)) {
+            try {
+                envio.execute(() -> drenar(assinante));
+            } catch (RejectedExecutionException ex) {
+                assinante.agendado().set(false);
+            }
+        }
+    }
+
+    /**
+     * Envia os eventos da fila do assinante, na ordem; um evento que chegue após a fila esvaziar
+     * (e antes de liberar o agendamento) é enviado por uma nova tarefa
+     */
+    private void drenar(Assinante assinante) {
+        Set<ResponseBodyEmitter.DataWithMediaType> evento;
+        while ((evento = assinante.fila().poll()) != null) {
+            if (!enviar(assinante, evento)) {
+                assinante.fila().clear();
+                return;
+            }
+        }
+        assinante.agendado().set(false);
+        if (!assinante.fila().isEmpty()) {
+            agendar(assinante);
+        }
+    }
+
+    private boolean enviar(Assinante assinante, Set<ResponseBodyEmitter.DataWithMediaType> evento) {
+        try {
+            assinante.emissor().send(evento);
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            // O container conclui a requisição assíncrona da conexão perdida; basta deixar de enviar a ela
+            log.debug("Assinante desconectado do fluxo de alterações: {}", ex.getMessage());
+            assinantes.remove(assinante);
+            return false;
+        }
+    }
+
+    private record Assinante(SseEmitter emissor,
+                             BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> fila,
+                             AtomicBoolean agendado) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.backend.service;
+
+import com.example.backend.config.CamposResposta;
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.example.backend.repository.BeneficioRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service para exportação de benefícios em NDJSON (um objeto JSON por linha)
+ * A tabela é percorrida por cursor já projetada em DTO (sem entidades no contexto de persistência),
+ * mantendo o consumo de memória constante independente do tamanho da tabela
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BeneficioExportService {
+
+    private final BeneficioRepository repository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escreve todos os benefícios no stream de saída, em ordem de ID, com todos os campos
+     * O stream de saída não é fechado
+     *
+     * @return quantidade de benefícios exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportarNdjson(OutputStream out) throws IOException {
+        return exportarNdjson(out, CamposResposta.TODOS);
+    }
+
+    /**
+     * Escreve todos os benefícios no stream de saída, em ordem de ID, apenas com os campos do filtro
+     * O stream de saída não é fechado
+     *
+     * @param campos filtro de campos ({@link CamposResposta#filtro})
+     * @return quantidade de benefícios exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportarNdjson(OutputStream out, FilterProvider campos) throws IOException {
+        log.info("Iniciando exportação NDJSON de benefícios");
+        ObjectWriter writer = objectMapper.writerFor(BeneficioResponseDTO.class)
+                .with(campos)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+
+        long linhas = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<BeneficioResponseDTO> beneficios = repository.streamResponseAll()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<BeneficioResponseDTO> iterator = beneficios.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                if (++linhas % BeneficioRepository.FETCH_SIZE_EXPORTACAO == 0) {
+                    generator.flush();
+                }
+            }
+            if (linhas > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        log.info("Exportação NDJSON concluída: {} benefícios", linhas);
+        return linhas;
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioCreateDTO;
+import com.example.backend.dto.ErroImportacaoDTO;
+import com.example.backend.dto.ImportacaoDTO;
+import com.example.backend.exception.ImportacaoNaoEncontradaException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service de importação de benefícios a partir de arquivos CSV (cabeçalho nome,descricao,valor,ativo)
+ * O corpo da requisição é copiado em streaming para um arquivo temporário e processado em segundo plano:
+ * as linhas são lidas por janelas mapeadas em memória, validadas com as restrições do
+ * {@link BeneficioCreateDTO} e gravadas via {@link BeneficioService#createLote} em uma transação por lote.
+ * O consumo de memória não depende do tamanho do arquivo.
+ *
+ * Linhas inválidas são rejeitadas sem interromper a importação; a situação (progresso, vazão e
+ * primeiras linhas rejeitadas) fica em memória durante a retenção configurada.
+ */
+@Service
+@Slf4j
+public class BeneficioImportService {
+
+    public static final String LINHAS = "beneficio.importacao.linhas";
+
+    private final BeneficioService beneficioService;
+    private final Validator validator;
+    private final Counter importadas;
+    private final Counter rejeitadas;
+    private final int tamanhoLote;
+    private final int maximoErros;
+    private final int tamanhoJanela;
+    private final Path diretorio;
+    private final ExecutorService executor;
+    private final Cache<String, Importacao> importacoes;
+
+    @Autowired
+    public BeneficioImportService(BeneficioService beneficioService,
+                                  Validator validator,
+                                  MeterRegistry registry,
+                                  @Value("${beneficio.importacao.tamanho-lote:1000}") int tamanhoLote,
+                                  @Value("${beneficio.importacao.paralelas:1}") int paralelas,
+                                  @Value("${beneficio.importacao.maximo-erros:100}") int maximoErros,
+                                  @Value("${beneficio.importacao.retencao:PT24H}") Duration retencao,
+                                  @Value("${beneficio.importacao.diretorio:${java.io.tmpdir}}") Path diretorio) {
+        this(beneficioService, validator, registry, tamanhoLote, paralelas, maximoErros, retencao, diretorio,
+                LeitorCsvMapeado.TAMANHO_JANELA_PADRAO);
+    }
+
+    /**
+     * Construtor com o tamanho da janela de leitura configurável (testes com janelas pequenas)
+     */
+    BeneficioImportService(BeneficioService beneficioService, Validator validator, MeterRegistry registry,
+                           int tamanhoLote, int paralelas, int maximoErros, Duration retencao, Path diretorio,
+                           int tamanhoJanela) {
+        if (tamanhoLote <= 0 || paralelas <= 0 || maximoErros < 0) {
+            throw new IllegalArgumentException("Tamanho do lote e importações paralelas devem ser maiores que zero "
+                    + "e o máximo de erros não pode ser negativo");
+        }
+        this.beneficioService = beneficioService;
+        this.validator = validator;
+        this.importadas = Counter.builder(LINHAS)
+                .description("Linhas de arquivos CSV importadas ou rejeitadas")
+                .tag("resultado", "importada")
+                .register(registry);
+        this.rejeitadas = Counter.builder(LINHAS)
+                .description("Linhas de arquivos CSV importadas ou rejeitadas")
+                .tag("resultado", "rejeitada")
+                .register(registry);
+        this.tamanhoLote = tamanhoLote;
+        this.maximoErros = maximoErros;
+        this.tamanhoJanela = tamanhoJanela;
+        this.diretorio = diretorio;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(paralelas,
+                tarefa -> new Thread(tarefa, "importacao-" + threads.incrementAndGet()));
+        this.importacoes = Caffeine.newBuilder()
+                .expireAfterWrite(retencao)
+                .build();
+    }
+
+    /**
+     * Interrompe as importações em andamento (ficam com situação FALHA)
+     */
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Copia o CSV para um arquivo temporário e agenda o processamento
+     *
+     * @return importação PENDENTE para consulta em {@link #consultar(String)}
+     */
+    public ImportacaoDTO importar(InputStream csv) throws IOException {
+        Path arquivo = Files.createTempFile(diretorio, "importacao-", ".csv");
+        try {
+            Files.copy(csv, arquivo, StandardCopyOption.REPLACE_EXISTING);
+            Importacao importacao = new Importacao(UUID.randomUUID().toString(), Files.size(arquivo));
+            importacoes.put(importacao.id, importacao);
+            // Situação lida antes de agendar: o worker pode começar (e mudar o status) antes do retorno
+            ImportacaoDTO pendente = importacao.situacao();
+            executor.execute(() -> processar(importacao, arquivo));
+            log.info("Importação {} recebida: {} bytes", importacao.id, importacao.bytesTotal);
+            return pendente;
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(arquivo);
+            throw ex;
+        }
+    }
+
+    /**
+     * Situação atual de uma importação
+     */
+    public ImportacaoDTO consultar(String id) {
+        Importacao importacao = importacoes.getIfPresent(id);
+        if (importacao == null) {
+            throw new ImportacaoNaoEncontradaException("Importação não encontrada: " + id);
+        }
+        return importacao.situacao();
+    }
+
+    /**
+     * Lê o arquivo linha a linha, acumulando as válidas em lotes de tamanhoLote; o arquivo temporário
+     * é removido antes de a importação ser marcada como concluída
+     */
+    void processar(Importacao importacao, Path arquivo) {
+        importacao.iniciar();
+        ImportacaoDTO.Status status = ImportacaoDTO.Status.CONCLUIDA;
+        String mensagem = null;
+        try (LeitorCsvMapeado leitor = new LeitorCsvMapeado(arquivo, tamanhoJanela)) {
+            Cabecalho cabecalho = cabecalho(leitor.proximaLinha());
+            List<BeneficioCreateDTO> lote = new ArrayList<>(tamanhoLote);
+            long numero = 1;
+            long primeiraDoLote = 0;
+            String linha;
+            while ((linha = leitor.proximaLinha()) != null) {
+                numero++;
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Importação interrompida na linha " + numero);
+                }
+                importacao.bytesLidos.set(leitor.getPosicao());
+                if (linha.isBlank()) {
+                    continue;
+                }
+                importacao.linhasLidas.incrementAndGet();
+                BeneficioCreateDTO dto;
+                try {
+                    dto = converter(cabecalho, linha);
+                } catch (IllegalArgumentException ex) {
+                    rejeitar(importacao, numero, ex.getMessage(), 1);
+                    continue;
+                }
+                if (lote.isEmpty()) {
+                    primeiraDoLote = numero;
+                }
+                lote.add(dto);
+                if (lote.size() == tamanhoLote) {
+                    gravar(importacao, lote, primeiraDoLote, numero);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                gravar(importacao, lote, primeiraDoLote, numero);
+            }
+            log.info("Importação {} concluída: {} importadas, {} rejeitadas", importacao.id,
+                    importacao.importadas.get(), importacao.rejeitadas.get());
+        } catch (IOException | RuntimeException ex) {
+            log.error("Falha na importação {}: {}", importacao.id, ex.getMessage());
+            status = ImportacaoDTO.Status.FALHA;
+            mensagem = ex.getMessage();
+        } finally {
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException ex) {
+                log.warn("Não foi possível remover o arquivo da importação {}: {}", importacao.id, ex.getMessage());
+            }
+            importacao.concluir(status, mensagem);
+            // Publicada novamente para que a retenção conte a partir da conclusão
+            importacoes.put(importacao.id, importacao);
+        }
+    }
+
+    /**
+     * Grava o lote em uma transação; uma falha (ex.: timeout de lock) rejeita apenas as linhas do lote
+     */
+    private void gravar(Importacao importacao, List<BeneficioCreateDTO> lote, long primeira, long ultima) {
+        try {
+            beneficioService.createLote(lote);
+            importacao.importadas.addAndGet(lote.size());
+            importadas.increment(lote.size());
+        } catch (RuntimeException ex) {
+            log.error("Falha ao gravar as linhas {} a {} da importação {}", primeira, ultima, importacao.id, ex);
+            rejeitar(importacao, primeira,
+                    "Falha ao gravar as linhas " + primeira + " a " + ultima + ": " + ex.getMessage(), lote.size());
+        }
+    }
+
+    private void rejeitar(Importacao importacao, long linha, String mensagem, int quantidade) {
+        importacao.rejeitadas.addAndGet(quantidade);
+        rejeitadas.increment(quantidade);
+        if (importacao.erros.size() < maximoErros) {
+            importacao.erros.add(new ErroImportacaoDTO(linha, mensagem));
+        }
+    }
+
+    /**
+     * Posição de cada coluna conhecida; as colunas nome e valor são obrigatórias e as demais são ignoradas
+     */
+    private static Cabecalho cabecalho(String linha) {
+        if (linha == null) {
+            throw new IllegalArgumentException("Arquivo vazio");
+        }
+        Map<String, Integer> colunas = new HashMap<>();
+        List<String> nomes = LeitorCsvMapeado.campos(linha);
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String obrigatoria : List.of("nome", "valor")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente: " + obrigatoria);
+            }
+        }
+        return new Cabecalho(colunas, nomes.size());
+    }
+
+    /**
+     * Converte a linha em DTO e aplica as mesmas validações do cadastro via API
+     */
+    private BeneficioCreateDTO converter(Cabecalho cabecalho, String linha) {
+        List<String> campos = LeitorCsvMapeado.campos(linha);
+        if (campos.size() != cabecalho.quantidade()) {
+            throw new IllegalArgumentException(String.format("Quantidade de colunas inválida: esperado %d, encontrado %d",
+                    cabecalho.quantidade(), campos.size()));
+        }
+        Map<String, Integer> colunas = cabecalho.colunas();
+        BeneficioCreateDTO dto = new BeneficioCreateDTO();
+        dto.setNome(campo(colunas, campos, "nome"));
+        dto.setDescricao(campo(colunas, campos, "descricao"));
+        String valor = campo(colunas, campos, "valor");
+        if (valor != null) {
+            try {
+                dto.setValor(new BigDecimal(valor));
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Valor inválido: " + valor);
+            }
+        }
+        String ativo = campo(colunas, campos, "ativo");
+        if (ativo != null) {
+            if (!ativo.equalsIgnoreCase("true") && !ativo.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("Ativo inválido (esperado true ou false): " + ativo);
+            }
+            dto.setAtivo(Boolean.parseBoolean(ativo));
+        }
+        Set<ConstraintViolation<BeneficioCreateDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            throw new IllegalArgumentException(violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return dto;
+    }
+
+    /**
+     * Valor da coluna sem espaços nas pontas; colunas ausentes do cabeçalho e valores vazios são nulos
+     */
+    private static String campo(Map<String, Integer> colunas, List<String> campos, String coluna) {
+        Integer indice = colunas.get(coluna);
+        if (indice == null) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private record Cabecalho(Map<String, Integer> colunas, int quantidade) {
+    }
+
+    /**
+     * Estado mutável de uma importação: escrito apenas pela thread que a processa
+     */
+    static final class Importacao {
+
+        private final String id;
+        private final long bytesTotal;
+        private final LocalDateTime recebidaEm = LocalDateTime.now();
+        private final AtomicLong bytesLidos = new AtomicLong();
+        private final AtomicLong linhasLidas = new AtomicLong();
+        private final AtomicLong importadas = new AtomicLong();
+        private final AtomicLong rejeitadas = new AtomicLong();
+        private final List<ErroImportacaoDTO> erros = new CopyOnWriteArrayList<>();
+        private volatile ImportacaoDTO.Status status = ImportacaoDTO.Status.PENDENTE;
+        private volatile String mensagem;
+        private volatile LocalDateTime iniciadaEm;
+        private volatile LocalDateTime concluidaEm;
+        private volatile long inicioNanos;
+        private volatile long fimNanos;
+
+        Importacao(String id, long bytesTotal) {
+            this.id = id;
+            this.bytesTotal = bytesTotal;
+        }
+
+        private void iniciar() {
+            this.inicioNanos = System.nanoTime();
+            this.iniciadaEm = LocalDateTime.now();
+            this.status = ImportacaoDTO.Status.PROCESSANDO;
+        }
+
+        private void concluir(ImportacaoDTO.Status status, String mensagem) {
+            this.fimNanos = System.nanoTime();
+            this.mensagem = mensagem;
+            this.concluidaEm = LocalDateTime.now();
+            this.status = status;
+        }
+
+        ImportacaoDTO situacao() {
+            long linhas = linhasLidas.get();
+            double linhasPorSegundo = 0;
+            if (iniciadaEm != null) {
+                long fim = fimNanos != 0 ? fimNanos : System.nanoTime();
+                long decorrido = Math.max(fim - inicioNanos, 1);
+                linhasPorSegundo = linhas * (double) TimeUnit.SECONDS.toNanos(1) / decorrido;
+            }
+            return new ImportacaoDTO(id, status, mensagem, bytesTotal, bytesLidos.get(), linhas, importadas.get(),
+                    rejeitadas.get(), linhasPorSegundo, List.copyOf(erros), recebidaEm, iniciadaEm, concluidaEm);
+        }
+    }
+}
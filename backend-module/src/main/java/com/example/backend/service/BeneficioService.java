@@ -1,20 +1,51 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.BeneficioCache;
 import com.example.backend.dto.BeneficioCreateDTO;
+import com.example.backend.dto.BeneficioUpdateLoteDTO;
 import com.example.backend.dto.BeneficioResponseDTO;
 import com.example.backend.dto.BeneficioUpdateDTO;
+import com.example.backend.dto.PaginaCursorDTO;
+import com.example.backend.dto.PaginaDTO;
+import com.example.backend.dto.SaldoBeneficioDTO;
+import com.example.backend.dto.SugestaoNomeDTO;
 import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.VersaoColecaoDTO;
 import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.Lancamento;
+import com.example.backend.estatisticas.EstatisticasBeneficios;
+import com.example.backend.exception.BeneficioInativoException;
 import com.example.backend.exception.BeneficioNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
 import com.example.backend.mapper.BeneficioMapper;
+import com.example.backend.metrics.BeneficioMetricas;
 import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.search.IndiceNomeBeneficio;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service para operações de negócio com Benefícios
@@ -25,53 +56,183 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BeneficioService {
 
+    /**
+     * Tamanho máximo de página aceito pelas listagens paginadas
+     */
+    public static final int LIMITE_MAXIMO_PAGINA = 1000;
+
+    /**
+     * Quantidade máxima de sugestões do autocompletar
+     */
+    public static final int LIMITE_MAXIMO_SUGESTOES = 100;
+
+    /**
+     * Quantidade de IDs por consulta IN ao hidratar resultados do índice de nomes
+     */
+    private static final int IDS_POR_CONSULTA = 1000;
+
     private final BeneficioRepository repository;
     private final BeneficioMapper mapper;
+    private final BeneficioCache cache;
+    private final IndiceNomeBeneficio indiceNomes;
+    private final EstatisticasBeneficios estatisticas;
+    private final BeneficioEventosService eventos;
+    private final LancamentoService lancamentos;
+    private final BeneficioSlotService slots;
+    private final EntityManager entityManager;
+    private final BeneficioMetricas metricas;
     // Nota: Em produção, injetar o EJB via JNDI lookup ou Spring Integration
     // private final BeneficioEjbService ejbService;
 
+    @Value("${beneficio.transferencia.modo:ENTIDADE}")
+    private ModoTransferencia modoTransferencia = ModoTransferencia.ENTIDADE;
+
+    /**
+     * Benefícios por flush nos cadastros em lote: os INSERTs/UPDATEs de cada chunk saem em batch JDBC
+     * e o contexto de persistência é limpo em seguida, para não crescer com o lote
+     */
+    @Value("${beneficio.cadastro.lote.tamanho-chunk:500}")
+    private int tamanhoChunkCadastro = 500;
+
     /**
-     * Lista todos os benefícios
+     * Lista benefícios paginados por cursor (keyset sobre o ID)
+     *
+     * @param after ID do último item da página anterior (nulo para a primeira página)
+     * @param limit quantidade máxima de itens da página
      */
     @Transactional(readOnly = true)
-    public List<BeneficioResponseDTO> findAll() {
-        log.info("Buscando todos os benefícios");
-        return repository.findAll().stream()
-                .map(mapper::toResponseDTO)
-                .collect(Collectors.toList());
+    public PaginaCursorDTO<BeneficioResponseDTO> findAll(Long after, int limit) {
+        log.debug("Buscando benefícios após o cursor {} (limite {})", after, limit);
+        validarLimite(limit);
+        return paginar(repository.findResponsePagina(cursor(after), Limit.of(limit + 1)), limit);
     }
 
     /**
-     * Busca benefício por ID
+     * Lista benefícios por número de página, com filtro, ordenação e total (rolagem virtual do frontend)
+     * Paginação por OFFSET: o custo cresce com o número da página; para percorrer a coleção, usar {@link #findAll}
+     *
+     * @param pagina     número da página, a partir de zero
+     * @param tamanho    quantidade máxima de itens da página
+     * @param ordenacao  campo de ordenação ({@link OrdenacaoBeneficio})
+     * @param direcao    asc ou desc
+     * @param nome       trecho do nome (opcional)
+     * @param ativo      situação (opcional)
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<BeneficioResponseDTO> findPagina(int pagina, int tamanho, String ordenacao, String direcao,
+                                                      String nome, Boolean ativo) {
+        log.debug("Buscando página {} de benefícios (tamanho {}, ordenação {} {}, nome {}, ativo {})",
+                pagina, tamanho, ordenacao, direcao, nome, ativo);
+        if (pagina < 0) {
+            throw new IllegalArgumentException("Página deve ser maior ou igual a zero");
+        }
+        validarLimite(tamanho);
+        Sort.Direction sentido = Sort.Direction.fromOptionalString(direcao)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Direção inválida: " + direcao + ". Valores aceitos: asc, desc"));
+        Sort sort = OrdenacaoBeneficio.de(ordenacao).sort(sentido,
+                modoTransferencia == ModoTransferencia.LEDGER);
+        String filtroNome = nome == null || nome.isBlank() ? null : nome.trim();
+        Page<BeneficioResponseDTO> resultado =
+                repository.findResponseFiltrada(filtroNome, ativo, PageRequest.of(pagina, tamanho, sort));
+        return new PaginaDTO<>(resultado.getContent(), pagina, tamanho, resultado.getTotalElements());
+    }
+
+    /**
+     * Busca benefício por ID (read-through no cache)
      */
     @Transactional(readOnly = true)
     public BeneficioResponseDTO findById(Long id) {
-        log.info("Buscando benefício com ID: {}", id);
-        Beneficio beneficio = repository.findById(id)
+        log.debug("Buscando benefício com ID: {}", id);
+        return cache.getById(id, chave -> repository.findResponseById(chave)
+                .orElseThrow(() -> new BeneficioNotFoundException("Benefício não encontrado: " + chave)));
+    }
+
+    /**
+     * VERSION atual do benefício, para validação de ETag sem carregar o benefício
+     */
+    @Transactional(readOnly = true)
+    public Long findVersion(Long id) {
+        return repository.findVersionById(id)
                 .orElseThrow(() -> new BeneficioNotFoundException("Benefício não encontrado: " + id));
-        return mapper.toResponseDTO(beneficio);
     }
 
     /**
-     * Busca benefícios ativos
+     * Agregados de VERSION de todos os benefícios, para validação de ETag das listagens
      */
     @Transactional(readOnly = true)
-    public List<BeneficioResponseDTO> findAtivos() {
-        log.info("Buscando benefícios ativos");
-        return repository.findByAtivoTrue().stream()
-                .map(mapper::toResponseDTO)
-                .collect(Collectors.toList());
+    public VersaoColecaoDTO findVersaoColecao() {
+        return repository.findVersaoColecao();
+    }
+
+    /**
+     * Busca benefícios ativos paginados por cursor (read-through no cache)
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<BeneficioResponseDTO> findAtivos(Long after, int limit) {
+        log.debug("Buscando benefícios ativos após o cursor {} (limite {})", after, limit);
+        validarLimite(limit);
+        return cache.getAtivos(after, limit, () ->
+                paginar(repository.findResponseAtivosPagina(cursor(after), Limit.of(limit + 1)), limit));
     }
 
     /**
      * Busca benefícios por nome
+     * Os IDs vêm do índice de nomes em memória e apenas as linhas encontradas são lidas pela chave primária;
+     * linhas cujo nome lido do banco não contém mais o termo (índice defasado) são descartadas.
+     * Enquanto o índice não estiver carregado, a busca é feita no banco
      */
     @Transactional(readOnly = true)
     public List<BeneficioResponseDTO> findByNome(String nome) {
-        log.info("Buscando benefícios com nome contendo: {}", nome);
-        return repository.findByNomeContainingIgnoreCase(nome).stream()
-                .map(mapper::toResponseDTO)
-                .collect(Collectors.toList());
+        log.debug("Buscando benefícios com nome contendo: {}", nome);
+        if (!indiceNomes.isCarregado()) {
+            return repository.findResponseByNomeContainingIgnoreCase(nome);
+        }
+        String termo = nome.toLowerCase(Locale.ROOT);
+        List<Long> ids = indiceNomes.buscar(nome);
+        List<BeneficioResponseDTO> beneficios = new ArrayList<>(ids.size());
+        for (int inicio = 0; inicio < ids.size(); inicio += IDS_POR_CONSULTA) {
+            List<Long> lote = ids.subList(inicio, Math.min(inicio + IDS_POR_CONSULTA, ids.size()));
+            for (BeneficioResponseDTO beneficio : repository.findResponseByIdIn(lote)) {
+                if (beneficio.getNome().toLowerCase(Locale.ROOT).contains(termo)) {
+                    beneficios.add(beneficio);
+                }
+            }
+        }
+        return beneficios;
+    }
+
+    /**
+     * Sugestões de autocompletar: benefícios cujo nome começa com o prefixo, em ordem alfabética
+     * Enquanto o índice de nomes não estiver carregado, as sugestões vêm do banco
+     */
+    public List<SugestaoNomeDTO> autocompletar(String prefixo, int limit) {
+        if (prefixo == null || prefixo.isBlank()) {
+            throw new IllegalArgumentException("Prefixo não pode ser vazio");
+        }
+        if (limit < 1 || limit > LIMITE_MAXIMO_SUGESTOES) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_SUGESTOES);
+        }
+        if (!indiceNomes.isCarregado()) {
+            return repository.findSugestoesByNomePrefixo(prefixo, Limit.of(limit));
+        }
+        return indiceNomes.autocompletar(prefixo, limit);
+    }
+
+    /**
+     * Carrega o índice de nomes após a inicialização (inclusive dos scripts de dados) e o recarrega
+     * periodicamente, corrigindo alterações feitas por outras instâncias ou aplicadas fora de ordem.
+     * Rodadas com alterações em andamento ou durante a consulta ao banco são ignoradas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${beneficio.busca.indice.recarga.intervalo:PT5M}",
+            initialDelayString = "${beneficio.busca.indice.recarga.intervalo:PT5M}")
+    @Transactional(readOnly = true)
+    public void carregarIndiceNomes() {
+        long versao = indiceNomes.getVersao();
+        if (!indiceNomes.isEmRepouso() || !indiceNomes.carregar(repository.findAllNomes(), versao)) {
+            log.debug("Carga do índice de nomes adiada: alterações em andamento");
+        }
     }
 
     /**
@@ -79,26 +240,174 @@ public class BeneficioService {
      */
     @Transactional
     public BeneficioResponseDTO create(BeneficioCreateDTO dto) {
-        log.info("Criando novo benefício: {}", dto.getNome());
+        log.debug("Criando novo benefício: {}", dto.getNome());
         Beneficio beneficio = mapper.toEntity(dto);
         Beneficio saved = repository.save(beneficio);
-        log.info("Benefício criado com ID: {}", saved.getId());
+        lancamentos.registrar(saved.getId(), Lancamento.Tipo.CRIACAO, saved.getValor(), true);
+        cache.invalidarAposTransacao(saved.getId());
+        indiceNomes.atualizarAposTransacao(saved.getId(), saved.getNome());
+        estatisticas.definirAposTransacao(saved.getId(), saved.getValor(), saved.getAtivo());
+        eventos.publicarAposTransacao(saved.getId());
+        log.debug("Benefício criado com ID: {}", saved.getId());
         return mapper.toResponseDTO(saved);
     }
 
+    /**
+     * Cria benefícios em lote, em uma única transação
+     * Os IDs vêm dos blocos da sequência (sem ida ao banco por INSERT); a cada chunk os INSERTs dos
+     * benefícios e dos lançamentos de criação saem em batch JDBC e o contexto de persistência é limpo.
+     * Cache e índice de nomes são atualizados uma única vez, após o commit.
+     */
+    @Transactional
+    public List<BeneficioResponseDTO> createLote(List<BeneficioCreateDTO> dtos) {
+        log.debug("Criando {} benefícios em lote", dtos.size());
+        List<BeneficioResponseDTO> respostas = new ArrayList<>(dtos.size());
+        Map<Long, String> nomes = new HashMap<>();
+        List<SaldoBeneficioDTO> saldos = new ArrayList<>(dtos.size());
+        for (int inicio = 0; inicio < dtos.size(); inicio += tamanhoChunkCadastro) {
+            List<Beneficio> beneficios = new ArrayList<>();
+            for (BeneficioCreateDTO dto : dtos.subList(inicio, Math.min(inicio + tamanhoChunkCadastro, dtos.size()))) {
+                beneficios.add(mapper.toEntity(dto));
+            }
+            List<Beneficio> salvos = repository.saveAll(beneficios);
+            for (Beneficio salvo : salvos) {
+                lancamentos.registrar(salvo.getId(), Lancamento.Tipo.CRIACAO, salvo.getValor(), true);
+                nomes.put(salvo.getId(), salvo.getNome());
+                saldos.add(new SaldoBeneficioDTO(salvo.getId(), salvo.getValor(), salvo.getAtivo()));
+            }
+            entityManager.flush();
+            salvos.forEach(salvo -> respostas.add(mapper.toResponseDTO(salvo)));
+            entityManager.clear();
+        }
+        cache.invalidarAposTransacao(nomes.keySet().toArray(Long[]::new));
+        indiceNomes.atualizarAposTransacao(nomes);
+        estatisticas.definirAposTransacao(saldos);
+        eventos.publicarAposTransacao(nomes.keySet().toArray(Long[]::new));
+        log.debug("{} benefícios criados em lote", respostas.size());
+        return respostas;
+    }
+
     /**
      * Atualiza benefício existente
+     * O novo valor é o saldo desejado: a diferença para o saldo atual vira um lançamento de ajuste.
+     * No modo LEDGER o benefício é bloqueado (como nos débitos) e o ajuste fica pendente;
+     * nos demais modos o ajuste é aplicado direto ao VALOR.
+     * Em benefício particionado o benefício também é bloqueado (antes dos slots, na mesma ordem da consolidação)
+     * e o ajuste é redistribuído entre os slots.
      */
     @Transactional
     public BeneficioResponseDTO update(Long id, BeneficioUpdateDTO dto) {
-        log.info("Atualizando benefício ID: {}", id);
-        Beneficio beneficio = repository.findById(id)
+        log.debug("Atualizando benefício ID: {}", id);
+        boolean bloqueado = modoTransferencia == ModoTransferencia.LEDGER;
+        Beneficio beneficio = (bloqueado
+                ? metricas.medirEsperaLock("atualizacao", () -> repository.findByIdForUpdate(id))
+                : repository.findById(id))
                 .orElseThrow(() -> new BeneficioNotFoundException("Benefício não encontrado: " + id));
-        
-        mapper.updateEntity(beneficio, dto);
+        if (!bloqueado && beneficio.getSlots() > 0) {
+            // Relê com o lock: uma consolidação concorrente pode ter movido o VALOR para os slots desde a leitura
+            metricas.medirEsperaLock("atualizacao",
+                    () -> entityManager.refresh(beneficio, LockModeType.PESSIMISTIC_WRITE));
+        }
+
+        boolean informarSaldo = atualizar(beneficio, dto, lancamentos.saldoPendente(id));
         Beneficio updated = repository.save(beneficio);
-        log.info("Benefício atualizado: {}", id);
-        return mapper.toResponseDTO(updated);
+        cache.invalidarAposTransacao(id);
+        indiceNomes.atualizarAposTransacao(id, updated.getNome());
+        // O valor informado é o novo saldo do benefício, qualquer que seja o modo
+        estatisticas.definirAposTransacao(id, dto.getValor(), updated.getAtivo());
+        eventos.publicarAposTransacao(id);
+        log.debug("Benefício atualizado: {}", id);
+        BeneficioResponseDTO resposta = mapper.toResponseDTO(updated);
+        if (informarSaldo) {
+            resposta.setValor(dto.getValor());
+        }
+        return resposta;
+    }
+
+    /**
+     * Atualiza benefícios em lote, em uma única transação, com as mesmas regras de saldo do update
+     * Os benefícios são bloqueados por chunk em ordem crescente de ID (como nas transferências em lote),
+     * com uma consulta de bloqueio (e, no modo LEDGER, uma de lançamentos pendentes) por chunk;
+     * os UPDATEs saem em batch JDBC.
+     * As respostas seguem a ordem do lote.
+     */
+    @Transactional
+    public List<BeneficioResponseDTO> updateLote(List<BeneficioUpdateLoteDTO.Item> itens) {
+        log.debug("Atualizando {} benefícios em lote", itens.size());
+        Map<Long, Integer> posicoes = new HashMap<>();
+        for (int i = 0; i < itens.size(); i++) {
+            if (posicoes.put(itens.get(i).getId(), i) != null) {
+                throw new IllegalArgumentException("Benefício repetido no lote: " + itens.get(i).getId());
+            }
+        }
+        List<BeneficioUpdateLoteDTO.Item> ordenados = new ArrayList<>(itens);
+        ordenados.sort(Comparator.comparing(BeneficioUpdateLoteDTO.Item::getId));
+
+        BeneficioResponseDTO[] respostas = new BeneficioResponseDTO[itens.size()];
+        Map<Long, String> nomes = new HashMap<>();
+        List<SaldoBeneficioDTO> saldos = new ArrayList<>(itens.size());
+        for (int inicio = 0; inicio < ordenados.size(); inicio += tamanhoChunkCadastro) {
+            List<BeneficioUpdateLoteDTO.Item> chunk =
+                    ordenados.subList(inicio, Math.min(inicio + tamanhoChunkCadastro, ordenados.size()));
+            List<Long> ids = chunk.stream().map(BeneficioUpdateLoteDTO.Item::getId).toList();
+            List<Beneficio> beneficios = metricas.medirEsperaLock("atualizacao_lote",
+                    () -> repository.findAllByIdForUpdate(ids));
+            if (beneficios.size() != ids.size()) {
+                Set<Long> ausentes = new HashSet<>(ids);
+                beneficios.forEach(beneficio -> ausentes.remove(beneficio.getId()));
+                throw new BeneficioNotFoundException("Benefícios não encontrados: " + ausentes);
+            }
+            Map<Long, BigDecimal> pendentes = lancamentos.saldosPendentes(ids);
+            // Itens e benefícios estão ambos em ordem crescente de ID
+            boolean[] informarSaldo = new boolean[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                Beneficio beneficio = beneficios.get(i);
+                informarSaldo[i] = atualizar(beneficio, chunk.get(i),
+                        pendentes.getOrDefault(beneficio.getId(), BigDecimal.ZERO));
+                nomes.put(beneficio.getId(), beneficio.getNome());
+                saldos.add(new SaldoBeneficioDTO(beneficio.getId(), chunk.get(i).getValor(), beneficio.getAtivo()));
+            }
+            entityManager.flush();
+            for (int i = 0; i < chunk.size(); i++) {
+                BeneficioResponseDTO resposta = mapper.toResponseDTO(beneficios.get(i));
+                if (informarSaldo[i]) {
+                    resposta.setValor(chunk.get(i).getValor());
+                }
+                respostas[posicoes.get(chunk.get(i).getId())] = resposta;
+            }
+            entityManager.clear();
+        }
+        cache.invalidarAposTransacao(nomes.keySet().toArray(Long[]::new));
+        indiceNomes.atualizarAposTransacao(nomes);
+        estatisticas.definirAposTransacao(saldos);
+        eventos.publicarAposTransacao(nomes.keySet().toArray(Long[]::new));
+        log.debug("{} benefícios atualizados em lote", itens.size());
+        return Arrays.asList(respostas);
+    }
+
+    /**
+     * Aplica os dados do DTO e o ajuste de saldo ao benefício carregado (bloqueado quando exigido pelo modo)
+     *
+     * @param pendente soma dos lançamentos pendentes do benefício
+     * @return true quando o VALOR do snapshot difere do saldo e a resposta deve informar o saldo
+     */
+    private boolean atualizar(Beneficio beneficio, BeneficioUpdateDTO dto, BigDecimal pendente) {
+        Long id = beneficio.getId();
+        boolean ledger = modoTransferencia == ModoTransferencia.LEDGER;
+        boolean particionado = beneficio.getSlots() > 0;
+        BigDecimal snapshot = beneficio.getValor();
+        BigDecimal ajuste = dto.getValor().subtract(snapshot.add(pendente));
+        mapper.updateEntity(beneficio, dto);
+        if (particionado) {
+            beneficio.setValor(snapshot);
+            ajuste = ajuste.subtract(slots.redefinir(id, ajuste));
+        } else {
+            beneficio.setValor(ledger ? snapshot : snapshot.add(ajuste));
+        }
+        if (ajuste.signum() != 0) {
+            lancamentos.registrar(id, Lancamento.Tipo.AJUSTE, ajuste, !ledger || particionado);
+        }
+        return ledger || particionado || pendente.signum() != 0;
     }
 
     /**
@@ -106,13 +415,16 @@ public class BeneficioService {
      */
     @Transactional
     public void delete(Long id) {
-        log.info("Removendo benefício ID: {}", id);
+        log.debug("Removendo benefício ID: {}", id);
         Beneficio beneficio = repository.findById(id)
                 .orElseThrow(() -> new BeneficioNotFoundException("Benefício não encontrado: " + id));
         
         beneficio.setAtivo(false);
         repository.save(beneficio);
-        log.info("Benefício removido (soft delete): {}", id);
+        cache.invalidarAposTransacao(id);
+        estatisticas.desativarAposTransacao(id);
+        eventos.publicarAposTransacao(id);
+        log.debug("Benefício removido (soft delete): {}", id);
     }
 
     /**
@@ -122,7 +434,7 @@ public class BeneficioService {
      */
     @Transactional
     public void transfer(TransferenciaDTO dto) {
-        log.info("Iniciando transferência: {} -> {}, valor: {}", 
+        log.debug("Iniciando transferência: {} -> {}, valor: {}", 
                 dto.getFromId(), dto.getToId(), dto.getAmount());
 
         // Validações
@@ -130,27 +442,46 @@ public class BeneficioService {
             throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
         }
 
+        cache.invalidarAposTransacao(dto.getFromId(), dto.getToId());
+        // Qualquer falha adiante desfaz a transação, e com ela o ajuste das estatísticas
+        estatisticas.ajustarAposTransacao(Map.of(dto.getFromId(), dto.getAmount().negate(),
+                dto.getToId(), dto.getAmount()));
+        eventos.publicarAposTransacao(dto.getFromId(), dto.getToId());
+        if (modoTransferencia == ModoTransferencia.ATOMICO) {
+            transferAtomico(dto);
+            lancamentos.registrarTransferencia(dto, true);
+            log.debug("Transferência concluída com sucesso");
+            return;
+        }
+        if (modoTransferencia == ModoTransferencia.LEDGER) {
+            transferLedger(dto);
+            log.debug("Transferência concluída com sucesso");
+            return;
+        }
+
         // Buscar benefícios com lock pessimista
         Beneficio from = repository.findById(dto.getFromId())
                 .orElseThrow(() -> new BeneficioNotFoundException("Benefício de origem não encontrado: " + dto.getFromId()));
         
         Beneficio to = repository.findById(dto.getToId())
                 .orElseThrow(() -> new BeneficioNotFoundException("Benefício de destino não encontrado: " + dto.getToId()));
+        if (from.getSlots() > 0 || to.getSlots() > 0) {
+            // Benefício particionado: pernas do modo ATOMICO, a do particionado em um slot
+            transferAtomico(dto);
+            log.debug("Transferência concluída com sucesso");
+            return;
+        }
 
         // Validar se estão ativos
         if (!from.getAtivo()) {
-            throw new IllegalArgumentException("Benefício de origem está inativo");
+            throw new BeneficioInativoException("Benefício de origem está inativo");
         }
         if (!to.getAtivo()) {
-            throw new IllegalArgumentException("Benefício de destino está inativo");
+            throw new BeneficioInativoException("Benefício de destino está inativo");
         }
 
-        // Validar saldo
-        if (from.getValor().compareTo(dto.getAmount()) < 0) {
-            throw new IllegalArgumentException(
-                    String.format("Saldo insuficiente. Disponível: %s, Solicitado: %s",
-                            from.getValor(), dto.getAmount()));
-        }
+        // Validar saldo (snapshot mais lançamentos pendentes)
+        validarSaldo(from.getValor().add(lancamentos.saldoPendente(from.getId())), dto);
 
         // Realizar transferência
         from.setValor(from.getValor().subtract(dto.getAmount()));
@@ -158,7 +489,116 @@ public class BeneficioService {
 
         repository.save(from);
         repository.save(to);
+        lancamentos.registrarTransferencia(dto, true);
+
+        log.debug("Transferência concluída com sucesso");
+    }
+
+    /**
+     * Transferência via diário: bloqueia apenas a origem (serializando os débitos dela e a compactação)
+     * e insere débito e crédito pendentes. O destino não é bloqueado nem alterado, de modo que créditos
+     * concorrentes em um benefício muito disputado viram INSERTs em vez de UPDATEs na mesma linha.
+     */
+    private void transferLedger(TransferenciaDTO dto) {
+        Beneficio from = metricas.medirEsperaLock("transferencia_ledger",
+                        () -> repository.findByIdForUpdate(dto.getFromId()))
+                .orElseThrow(() -> new BeneficioNotFoundException("Benefício de origem não encontrado: " + dto.getFromId()));
+        Beneficio to = repository.findById(dto.getToId())
+                .orElseThrow(() -> new BeneficioNotFoundException("Benefício de destino não encontrado: " + dto.getToId()));
+        if (from.getSlots() > 0 || to.getSlots() > 0) {
+            // Benefício particionado: pernas do modo ATOMICO, a do particionado em um slot
+            transferAtomico(dto);
+            lancamentos.registrarTransferencia(dto, true);
+            return;
+        }
+
+        if (!from.getAtivo()) {
+            throw new BeneficioInativoException("Benefício de origem está inativo");
+        }
+        if (!to.getAtivo()) {
+            throw new BeneficioInativoException("Benefício de destino está inativo");
+        }
+        validarSaldo(from.getValor().add(lancamentos.saldoPendente(from.getId())), dto);
+
+        lancamentos.registrarTransferencia(dto, false);
+    }
+
+    private void validarSaldo(BigDecimal disponivel, TransferenciaDTO dto) {
+        if (disponivel.compareTo(dto.getAmount()) < 0) {
+            throw new SaldoInsuficienteException(
+                    String.format("Saldo insuficiente. Disponível: %s, Solicitado: %s",
+                            disponivel, dto.getAmount()));
+        }
+    }
+
+    /**
+     * Monta a página a partir de uma consulta de limit + 1 linhas:
+     * a linha extra indica que existe próxima página sem um COUNT adicional
+     */
+    private PaginaCursorDTO<BeneficioResponseDTO> paginar(List<BeneficioResponseDTO> beneficios, int limit) {
+        boolean temProxima = beneficios.size() > limit;
+        List<BeneficioResponseDTO> itens = temProxima ? beneficios.subList(0, limit) : beneficios;
+        Long proximoCursor = temProxima ? itens.get(itens.size() - 1).getId() : null;
+        return new PaginaCursorDTO<>(itens, proximoCursor, limit);
+    }
+
+    private Long cursor(Long after) {
+        return after != null ? after : 0L;
+    }
+
+    private void validarLimite(int limit) {
+        if (limit < 1 || limit > LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA);
+        }
+    }
 
-        log.info("Transferência concluída com sucesso");
+    /**
+     * Transferência via UPDATEs condicionais: a validação de existência, atividade e saldo
+     * é feita pelo próprio banco e a contagem de linhas afetadas decide o sucesso.
+     * Os UPDATEs são emitidos em ordem crescente de ID para que transferências opostas
+     * concorrentes não entrem em deadlock; se qualquer um falhar, a exceção desfaz a transação.
+     * Os UPDATEs só valem para benefícios não particionados (SLOTS = 0, verificado na própria linha);
+     * a perna de um benefício particionado atualiza um slot, em qualquer modo.
+     */
+    private void transferAtomico(TransferenciaDTO dto) {
+        if (dto.getFromId() < dto.getToId()) {
+            debitar(dto);
+            creditar(dto);
+        } else {
+            creditar(dto);
+            debitar(dto);
+        }
+    }
+
+    private void debitar(TransferenciaDTO dto) {
+        if (repository.debitar(dto.getFromId(), dto.getAmount()) == 1) {
+            return;
+        }
+        // Benefício particionado ou caminho de falha: leituras adicionais para decidir e informar o motivo
+        Beneficio from = repository.findById(dto.getFromId())
+                .orElseThrow(() -> new BeneficioNotFoundException("Benefício de origem não encontrado: " + dto.getFromId()));
+        if (!from.getAtivo()) {
+            throw new BeneficioInativoException("Benefício de origem está inativo");
+        }
+        if (repository.findSlotsById(dto.getFromId()).orElse(0) > 0) {
+            slots.debitar(dto.getFromId(), dto.getAmount());
+            return;
+        }
+        throw new SaldoInsuficienteException(
+                String.format("Saldo insuficiente. Disponível: %s, Solicitado: %s",
+                        from.getValor().add(lancamentos.saldoPendente(from.getId())), dto.getAmount()));
+    }
+
+    private void creditar(TransferenciaDTO dto) {
+        if (repository.creditar(dto.getToId(), dto.getAmount()) == 1) {
+            return;
+        }
+        Beneficio to = repository.findById(dto.getToId())
+                .orElseThrow(() -> new BeneficioNotFoundException("Benefício de destino não encontrado: " + dto.getToId()));
+        int quantidade = repository.findSlotsById(dto.getToId()).orElse(0);
+        if (!to.getAtivo() || quantidade == 0) {
+            throw new BeneficioInativoException("Benefício de destino está inativo");
+        }
+        slots.creditar(dto.getToId(), quantidade, dto.getAmount());
     }
 }
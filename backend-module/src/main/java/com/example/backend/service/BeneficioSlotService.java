@@ -0,0 +1,217 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.SaldoSlotDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.BeneficioSlot;
+import com.example.backend.exception.BeneficioNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.BeneficioSlotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Service dos benefícios particionados em slots (opt-in por benefício, para contas muito disputadas)
+ * O saldo é dividido em N linhas de BENEFICIO_SLOT: débitos e créditos atualizam um slot aleatório,
+ * sem bloquear a linha de BENEFICIO. Um débito que não encontra slot com saldo suficiente consolida:
+ * bloqueia o benefício e todos os slots, verifica o total e redistribui o restante igualmente.
+ * Se o benefício é particionado vem da coluna BENEFICIO.SLOTS (ver {@link Beneficio#getSlots()}), não de estado
+ * em memória: vale para todas as instâncias da aplicação a partir do commit do particionamento.
+ * Os métodos de débito e crédito participam da transação do chamador.
+ */
+@Service
+@Slf4j
+public class BeneficioSlotService {
+
+    public static final String CONSOLIDACOES = "beneficio.slots.consolidacoes";
+
+    private final BeneficioSlotRepository repository;
+    private final BeneficioRepository beneficioRepository;
+    private final BeneficioCache cache;
+    private final BeneficioMetricas metricas;
+    private final DataSource dataSource;
+    private final Counter consolidacoes;
+    private final int quantidadeMaxima;
+
+    public BeneficioSlotService(BeneficioSlotRepository repository,
+                                BeneficioRepository beneficioRepository,
+                                BeneficioCache cache,
+                                BeneficioMetricas metricas,
+                                DataSource dataSource,
+                                MeterRegistry registry,
+                                @Value("${beneficio.slots.quantidade-maxima:64}") int quantidadeMaxima) {
+        this.repository = repository;
+        this.beneficioRepository = beneficioRepository;
+        this.cache = cache;
+        this.metricas = metricas;
+        this.dataSource = dataSource;
+        this.consolidacoes = Counter.builder(CONSOLIDACOES)
+                .description("Débitos que precisaram consolidar os slots de um benefício particionado")
+                .register(registry);
+        this.quantidadeMaxima = quantidadeMaxima;
+    }
+
+    /**
+     * Particiona o saldo consolidado (VALOR) do benefício em slots de valores iguais
+     * A verificação de particionamento e a marcação (SLOTS) são feitas com a linha do benefício bloqueada
+     */
+    @Transactional
+    public void particionar(Long beneficioId, int quantidade) {
+        if (quantidade < 2 || quantidade > quantidadeMaxima) {
+            throw new IllegalArgumentException("Quantidade de slots deve estar entre 2 e " + quantidadeMaxima);
+        }
+        Beneficio beneficio = metricas.medirEsperaLock("particionamento",
+                        () -> beneficioRepository.findByIdForUpdate(beneficioId))
+                .orElseThrow(() -> new BeneficioNotFoundException("Benefício não encontrado: " + beneficioId));
+        if (beneficio.getSlots() > 0) {
+            throw new IllegalArgumentException("Benefício já particionado: " + beneficioId);
+        }
+        BigDecimal valor = beneficio.getValor();
+        List<BigDecimal> partes = distribuir(valor, quantidade);
+        for (int slot = 0; slot < quantidade; slot++) {
+            repository.save(new BeneficioSlot(beneficioId, slot, partes.get(slot), 0L));
+        }
+        beneficioRepository.particionar(beneficioId, valor, quantidade);
+        cache.invalidarAposTransacao(beneficioId);
+        log.info("Benefício {} particionado em {} slots", beneficioId, quantidade);
+    }
+
+    /**
+     * Credita um slot aleatório do benefício particionado
+     *
+     * @param quantidade quantidade de slots do benefício (BENEFICIO.SLOTS)
+     */
+    public void creditar(Long beneficioId, int quantidade, BigDecimal amount) {
+        if (quantidade <= 0) {
+            throw new IllegalStateException("Benefício não particionado: " + beneficioId);
+        }
+        if (repository.creditar(beneficioId, ThreadLocalRandom.current().nextInt(quantidade), amount) == 0) {
+            throw new OptimisticLockingFailureException("Slots do benefício não encontrados: " + beneficioId);
+        }
+    }
+
+    /**
+     * Debita um slot aleatório entre os que têm saldo suficiente (saldos lidos sem bloqueio);
+     * sem nenhum, ou se o slot escolhido perdeu o saldo para um débito concorrente, consolida os slots
+     */
+    public void debitar(Long beneficioId, BigDecimal amount) {
+        List<SaldoSlotDTO> comSaldo = new ArrayList<>();
+        for (SaldoSlotDTO slot : repository.findSaldos(beneficioId)) {
+            if (slot.getValor().compareTo(amount) >= 0) {
+                comSaldo.add(slot);
+            }
+        }
+        if (comSaldo.isEmpty() || !debitarSlot(beneficioId,
+                comSaldo.get(ThreadLocalRandom.current().nextInt(comSaldo.size())).getSlot(), amount)) {
+            consolidar(beneficioId, amount);
+        }
+    }
+
+    /**
+     * UPDATE condicional do slot dentro de um savepoint
+     * Um UPDATE que esperou o lock do slot e depois não encontrou saldo mantém o lock até o fim da transação;
+     * seguido da consolidação (que bloqueia o benefício e então os slots), levaria a deadlock com outra
+     * consolidação em andamento. Voltar ao savepoint libera o lock antes de consolidar.
+     */
+    private boolean debitarSlot(Long beneficioId, int slot, BigDecimal amount) {
+        // Operações pendentes da sessão vão ao banco antes do savepoint, para não serem desfeitas por ele
+        repository.flush();
+        Connection conexao = DataSourceUtils.getConnection(dataSource);
+        try {
+            Savepoint savepoint = conexao.setSavepoint();
+            if (repository.debitar(beneficioId, slot, amount) == 1) {
+                conexao.releaseSavepoint(savepoint);
+                return true;
+            }
+            conexao.rollback(savepoint);
+            return false;
+        } catch (SQLException ex) {
+            throw new TransactionSystemException("Falha no savepoint do débito do slot", ex);
+        }
+    }
+
+    /**
+     * Redefine a soma dos slots do benefício (ajuste de saldo), redistribuindo-a igualmente
+     *
+     * @return soma anterior dos slots
+     */
+    public BigDecimal redefinir(Long beneficioId, BigDecimal valor) {
+        List<SaldoSlotDTO> slots = metricas.medirEsperaLock("atualizacao",
+                () -> repository.findSaldosForUpdate(beneficioId));
+        BigDecimal anterior = soma(slots);
+        redistribuir(beneficioId, slots, valor);
+        return anterior;
+    }
+
+    /**
+     * Caminho lento do débito: bloqueia o benefício (serializando as consolidações) e todos os slots,
+     * soma a eles o que houver no VALOR e redistribui o total menos o valor debitado
+     */
+    private void consolidar(Long beneficioId, BigDecimal amount) {
+        consolidacoes.increment();
+        BigDecimal principal = metricas.medirEsperaLock("consolidacao",
+                        () -> beneficioRepository.findValorByIdForUpdate(beneficioId))
+                .orElseThrow(() -> new BeneficioNotFoundException("Benefício de origem não encontrado: " + beneficioId));
+        List<SaldoSlotDTO> slots = metricas.medirEsperaLock("consolidacao",
+                () -> repository.findSaldosForUpdate(beneficioId));
+        BigDecimal disponivel = principal.add(soma(slots));
+        if (disponivel.compareTo(amount) < 0) {
+            throw new SaldoInsuficienteException(
+                    String.format("Saldo insuficiente. Disponível: %s, Solicitado: %s", disponivel, amount));
+        }
+        if (principal.signum() != 0) {
+            beneficioRepository.moverParaSlots(beneficioId, principal);
+        }
+        redistribuir(beneficioId, slots, disponivel.subtract(amount));
+    }
+
+    private void redistribuir(Long beneficioId, List<SaldoSlotDTO> slots, BigDecimal total) {
+        if (slots.isEmpty()) {
+            throw new OptimisticLockingFailureException("Slots do benefício não encontrados: " + beneficioId);
+        }
+        List<BigDecimal> partes = distribuir(total, slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            repository.definir(beneficioId, slots.get(i).getSlot(), partes.get(i));
+        }
+    }
+
+    private static BigDecimal soma(List<SaldoSlotDTO> slots) {
+        BigDecimal soma = BigDecimal.ZERO;
+        for (SaldoSlotDTO slot : slots) {
+            soma = soma.add(slot.getValor());
+        }
+        return soma;
+    }
+
+    /**
+     * Divide o total em partes iguais (em centavos); o resto da divisão vai para a primeira parte
+     */
+    static List<BigDecimal> distribuir(BigDecimal total, int partes) {
+        BigDecimal parte = total.divide(BigDecimal.valueOf(partes), 2, RoundingMode.DOWN);
+        List<BigDecimal> valores = new ArrayList<>(partes);
+        valores.add(total.subtract(parte.multiply(BigDecimal.valueOf(partes - 1L))));
+        for (int i = 1; i < partes; i++) {
+            valores.add(parte);
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compactação periódica do diário de lançamentos
+ * Só é registrado no modo LEDGER, o único em que transferências deixam lançamentos pendentes
+ */
+@Component
+@ConditionalOnProperty(name = "beneficio.transferencia.modo", havingValue = "LEDGER")
+@RequiredArgsConstructor
+public class CompactadorLancamentos {
+
+    private final LancamentoService lancamentos;
+
+    @Scheduled(fixedDelayString = "${beneficio.ledger.compactacao.intervalo:PT1S}")
+    public void compactar() {
+        lancamentos.compactarPendentes();
+    }
+}
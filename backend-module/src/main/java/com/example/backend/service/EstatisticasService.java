@@ -0,0 +1,93 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AgregadoSaldoDTO;
+import com.example.backend.dto.EstatisticasBeneficiosDTO;
+import com.example.backend.dto.SaldoBeneficioDTO;
+import com.example.backend.estatisticas.EstatisticasBeneficios;
+import com.example.backend.repository.BeneficioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Service das estatísticas agregadas dos benefícios (dashboard)
+ * A consulta é respondida pelas estatísticas em memória; periodicamente elas são conferidas contra
+ * agregados SQL (COUNT/SUM/MIN/MAX) e recarregadas se divergirem, corrigindo alterações feitas fora
+ * da aplicação. Enquanto não houver carga, a consulta é calculada a partir do banco.
+ */
+@Service
+@Slf4j
+public class EstatisticasService {
+
+    public static final String DIVERGENCIAS = "beneficio.estatisticas.divergencias";
+
+    private final BeneficioRepository repository;
+    private final EstatisticasBeneficios estatisticas;
+    private final Counter divergencias;
+
+    public EstatisticasService(BeneficioRepository repository,
+                               EstatisticasBeneficios estatisticas,
+                               MeterRegistry registry) {
+        this.repository = repository;
+        this.estatisticas = estatisticas;
+        this.divergencias = Counter.builder(DIVERGENCIAS)
+                .description("Conferências em que as estatísticas em memória divergiram do banco")
+                .register(registry);
+    }
+
+    public EstatisticasBeneficiosDTO consultar() {
+        if (estatisticas.isCarregado()) {
+            return estatisticas.resumo();
+        }
+        return estatisticas.calcular(repository.findAllSaldos());
+    }
+
+    /**
+     * Carrega as estatísticas após a inicialização (inclusive dos scripts de dados)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!recarregar()) {
+            log.info("Carga das estatísticas adiada: alterações em andamento");
+        }
+    }
+
+    /**
+     * Confere as estatísticas em memória com os agregados do banco, recarregando-as se divergirem
+     * Rodadas com alterações em andamento ou durante a consulta são ignoradas
+     */
+    @Scheduled(fixedDelayString = "${beneficio.estatisticas.conferencia.intervalo:PT1M}",
+            initialDelayString = "${beneficio.estatisticas.conferencia.intervalo:PT1M}")
+    public void conferir() {
+        if (!estatisticas.isCarregado()) {
+            recarregar();
+            return;
+        }
+        long versao = estatisticas.getVersao();
+        if (!estatisticas.isEmRepouso()) {
+            log.debug("Conferência das estatísticas adiada: alterações em andamento");
+            return;
+        }
+        List<AgregadoSaldoDTO> agregados = repository.findAgregadosSaldo();
+        if (estatisticas.conferir(agregados, versao) == EstatisticasBeneficios.Conferencia.DIVERGENTE) {
+            divergencias.increment();
+            log.warn("Estatísticas em memória divergem do banco ({}); recarregando", agregados);
+            recarregar();
+        }
+    }
+
+    private boolean recarregar() {
+        long versao = estatisticas.getVersao();
+        if (!estatisticas.isEmRepouso()) {
+            return false;
+        }
+        List<SaldoBeneficioDTO> saldos = repository.findAllSaldos();
+        return estatisticas.carregar(saldos, versao);
+    }
+}
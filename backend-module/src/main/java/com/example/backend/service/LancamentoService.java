@@ -0,0 +1,233 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.LancamentoDTO;
+import com.example.backend.dto.PaginaCursorDTO;
+import com.example.backend.dto.SaldoPendenteDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Lancamento;
+import com.example.backend.exception.BeneficioNotFoundException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.LancamentoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service do diário append-only de lançamentos, usado apenas no modo LEDGER
+ * Toda alteração de saldo (criação, ajuste, transferência) gera lançamentos; o saldo de um benefício
+ * é o VALOR da tabela BENEFICIO (snapshot) mais os lançamentos ainda não compactados.
+ * O compactador periódico ({@link CompactadorLancamentos}) soma os pendentes ao snapshot,
+ * uma transação por benefício.
+ * Nos demais modos o saldo é só o VALOR: nada é gravado no diário e as somas de pendentes
+ * retornam zero sem consultar o banco.
+ */
+@Service
+@Slf4j
+public class LancamentoService {
+
+    public static final String COMPACTADOS = "beneficio.lancamentos.compactados";
+
+    private final LancamentoRepository repository;
+    private final BeneficioRepository beneficioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BeneficioCache cache;
+    private final BeneficioMetricas metricas;
+    private final Counter compactados;
+    private final boolean ledger;
+    private final int beneficiosPorExecucao;
+    private final int lancamentosPorBeneficio;
+
+    public LancamentoService(LancamentoRepository repository,
+                             BeneficioRepository beneficioRepository,
+                             TransactionTemplate transactionTemplate,
+                             BeneficioCache cache,
+                             BeneficioMetricas metricas,
+                             MeterRegistry registry,
+                             @Value("${beneficio.ledger.compactacao.beneficios-por-execucao:500}") int beneficiosPorExecucao,
+                             @Value("${beneficio.ledger.compactacao.lancamentos-por-beneficio:1000}") int lancamentosPorBeneficio,
+                             @Value("${beneficio.transferencia.modo:ENTIDADE}") ModoTransferencia modo) {
+        if (beneficiosPorExecucao <= 0 || lancamentosPorBeneficio <= 0) {
+            throw new IllegalArgumentException("Limites da compactação devem ser maiores que zero");
+        }
+        this.repository = repository;
+        this.beneficioRepository = beneficioRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cache = cache;
+        this.metricas = metricas;
+        this.compactados = Counter.builder(COMPACTADOS)
+                .description("Lançamentos somados ao saldo consolidado dos benefícios")
+                .register(registry);
+        this.beneficiosPorExecucao = beneficiosPorExecucao;
+        this.lancamentosPorBeneficio = lancamentosPorBeneficio;
+        this.ledger = modo == ModoTransferencia.LEDGER;
+    }
+
+    /**
+     * Soma dos lançamentos pendentes do benefício (a somar ao VALOR para obter o saldo)
+     */
+    public BigDecimal saldoPendente(Long beneficioId) {
+        if (!ledger) {
+            return BigDecimal.ZERO;
+        }
+        return repository.somaPendente(beneficioId);
+    }
+
+    /**
+     * Soma dos lançamentos pendentes por benefício, em uma única consulta
+     * Benefícios sem pendências não aparecem no mapa
+     */
+    public Map<Long, BigDecimal> saldosPendentes(Collection<Long> beneficioIds) {
+        Map<Long, BigDecimal> saldos = new HashMap<>();
+        if (ledger && !beneficioIds.isEmpty()) {
+            for (SaldoPendenteDTO saldo : repository.somaPendentePorBeneficio(beneficioIds)) {
+                saldos.put(saldo.getBeneficioId(), saldo.getValor());
+            }
+        }
+        return saldos;
+    }
+
+    /**
+     * Registra um lançamento avulso (criação ou ajuste) na transação corrente; ignorado fora do modo LEDGER
+     *
+     * @param compactado true quando o valor já foi aplicado ao VALOR do benefício
+     */
+    public void registrar(Long beneficioId, Lancamento.Tipo tipo, BigDecimal valor, boolean compactado) {
+        if (!ledger) {
+            return;
+        }
+        repository.save(novo(beneficioId, tipo, valor, null, compactado));
+    }
+
+    /**
+     * Registra as pernas de débito e crédito de uma transferência na transação corrente,
+     * ligadas pela mesma referência; ignorado fora do modo LEDGER
+     *
+     * @param compactado true quando os valores já foram aplicados ao VALOR dos benefícios
+     */
+    public void registrarTransferencia(TransferenciaDTO dto, boolean compactado) {
+        if (!ledger) {
+            return;
+        }
+        String referencia = UUID.randomUUID().toString();
+        repository.save(novo(dto.getFromId(), Lancamento.Tipo.DEBITO, dto.getAmount().negate(), referencia, compactado));
+        repository.save(novo(dto.getToId(), Lancamento.Tipo.CREDITO, dto.getAmount(), referencia, compactado));
+    }
+
+    /**
+     * Histórico de lançamentos do benefício paginado por cursor (ID do lançamento)
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<LancamentoDTO> findHistorico(Long beneficioId, Long after, int limit) {
+        if (limit < 1 || limit > BeneficioService.LIMITE_MAXIMO_PAGINA) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + BeneficioService.LIMITE_MAXIMO_PAGINA);
+        }
+        if (!beneficioRepository.existsById(beneficioId)) {
+            throw new BeneficioNotFoundException("Benefício não encontrado: " + beneficioId);
+        }
+        List<LancamentoDTO> lancamentos = repository.findHistorico(beneficioId, after != null ? after : 0L,
+                Limit.of(limit + 1));
+        boolean temProxima = lancamentos.size() > limit;
+        List<LancamentoDTO> itens = temProxima ? lancamentos.subList(0, limit) : lancamentos;
+        Long proximoCursor = temProxima ? itens.get(itens.size() - 1).getId() : null;
+        return new PaginaCursorDTO<>(itens, proximoCursor, limit);
+    }
+
+    /**
+     * Compacta os benefícios com lançamentos pendentes (até beneficios-por-execucao por rodada)
+     * Falhas em um benefício (ex.: timeout de lock) não interrompem os demais; ele volta na próxima rodada
+     *
+     * @return quantidade de lançamentos compactados
+     */
+    public int compactarPendentes() {
+        List<Long> beneficioIds = transactionTemplate.execute(status ->
+                repository.findBeneficiosComPendencias(Limit.of(beneficiosPorExecucao)));
+        int total = 0;
+        for (Long beneficioId : beneficioIds) {
+            try {
+                total += compactar(beneficioId);
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao compactar lançamentos do benefício {}: {}", beneficioId, ex.getMessage());
+            }
+        }
+        if (total > 0) {
+            log.debug("Compactação: {} lançamentos em {} benefícios", total, beneficioIds.size());
+        }
+        return total;
+    }
+
+    /**
+     * Fora do modo LEDGER, compacta na subida os pendentes deixados por uma execução anterior em LEDGER,
+     * já que as consultas de saldo desses modos leem apenas o VALOR
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void compactarRemanescentes() {
+        if (ledger) {
+            return;
+        }
+        int total = 0;
+        int rodada;
+        while ((rodada = compactarPendentes()) > 0) {
+            total += rodada;
+        }
+        if (total > 0) {
+            log.info("{} lançamentos pendentes de execução anterior em modo LEDGER compactados", total);
+        }
+    }
+
+    /**
+     * Soma ao VALOR do benefício os lançamentos pendentes e os marca como compactados, em uma transação
+     * O benefício é bloqueado antes da leitura dos pendentes: débitos concorrentes (que também bloqueiam
+     * a origem) e outra compactação esperam; créditos continuam sendo inseridos sem bloqueio e,
+     * por não estarem na lista lida, ficam para a próxima rodada
+     *
+     * @return quantidade de lançamentos compactados
+     */
+    public int compactar(Long beneficioId) {
+        Integer quantidade = transactionTemplate.execute(status -> {
+            if (metricas.medirEsperaLock("compactacao", () -> beneficioRepository.findByIdForUpdate(beneficioId))
+                    .isEmpty()) {
+                return 0;
+            }
+            List<Lancamento> pendentes = repository.findPendentes(beneficioId, Limit.of(lancamentosPorBeneficio));
+            if (pendentes.isEmpty()) {
+                return 0;
+            }
+            List<Long> ids = new ArrayList<>(pendentes.size());
+            BigDecimal soma = BigDecimal.ZERO;
+            for (Lancamento lancamento : pendentes) {
+                ids.add(lancamento.getId());
+                soma = soma.add(lancamento.getValor());
+            }
+            repository.marcarCompactados(ids);
+            beneficioRepository.compactar(beneficioId, soma, ids.size());
+            cache.invalidarAposTransacao(beneficioId);
+            return ids.size();
+        });
+        int total = quantidade != null ? quantidade : 0;
+        compactados.increment(total);
+        return total;
+    }
+
+    private static Lancamento novo(Long beneficioId, Lancamento.Tipo tipo, BigDecimal valor,
+                                   String referencia, boolean compactado) {
+        return new Lancamento(null, beneficioId, tipo, valor, referencia, LocalDateTime.now(), compactado);
+    }
+}
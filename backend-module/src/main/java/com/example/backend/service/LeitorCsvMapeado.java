@@ -0,0 +1,146 @@
+package com.example.backend.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de linhas de um arquivo CSV via janelas mapeadas em memória (FileChannel.map)
+ * Cada janela cobre até tamanhoJanela bytes do arquivo; uma linha que não termina na janela corrente
+ * faz a próxima janela ser mapeada a partir do início dela. O heap usado é limitado à maior linha,
+ * independente do tamanho do arquivo, e as janelas já percorridas são liberadas pelo GC.
+ * Aceita fim de linha LF ou CRLF e BOM UTF-8; campos entre aspas não podem conter quebras de linha.
+ */
+final class LeitorCsvMapeado implements Closeable {
+
+    static final int TAMANHO_JANELA_PADRAO = 64 * 1024 * 1024;
+
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final FileChannel canal;
+    private final long tamanho;
+    private final int tamanhoJanela;
+
+    private MappedByteBuffer janela;
+    private long inicioJanela;
+    /**
+     * Posição (absoluta) do início da próxima linha
+     */
+    private long posicao;
+    private byte[] bytesLinha = new byte[256];
+
+    LeitorCsvMapeado(Path arquivo, int tamanhoJanela) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        this.tamanho = canal.size();
+        this.tamanhoJanela = tamanhoJanela;
+        mapear(0);
+        if (janela.limit() >= BOM.length
+                && janela.get(0) == BOM[0] && janela.get(1) == BOM[1] && janela.get(2) == BOM[2]) {
+            posicao = BOM.length;
+        }
+    }
+
+    long getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Bytes já consumidos do arquivo
+     */
+    long getPosicao() {
+        return posicao;
+    }
+
+    /**
+     * Próxima linha, sem o fim de linha, ou nulo no fim do arquivo
+     *
+     * @throws IOException se a linha for maior que a janela de leitura
+     */
+    String proximaLinha() throws IOException {
+        if (posicao >= tamanho) {
+            return null;
+        }
+        while (true) {
+            int inicio = (int) (posicao - inicioJanela);
+            int limite = janela.limit();
+            for (int i = inicio; i < limite; i++) {
+                if (janela.get(i) == '\n') {
+                    return extrair(inicio, i, i + 1);
+                }
+            }
+            if (inicioJanela + limite >= tamanho) {
+                // Última linha, sem fim de linha
+                return extrair(inicio, limite, limite);
+            }
+            if (inicio == 0) {
+                throw new IOException("Linha maior que a janela de leitura (" + tamanhoJanela
+                        + " bytes) na posição " + posicao);
+            }
+            mapear(posicao);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Separa os campos de uma linha CSV (vírgula como separador; aspas duplas delimitam campos
+     * e são escapadas duplicando-as)
+     */
+    static List<String> campos(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (aspas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    aspas = false;
+                }
+            } else if (c == '"') {
+                aspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (aspas) {
+            throw new IllegalArgumentException("Aspas não fechadas");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private String extrair(int inicio, int fim, int proximo) {
+        int comprimento = fim - inicio;
+        if (comprimento > 0 && janela.get(fim - 1) == '\r') {
+            comprimento--;
+        }
+        if (bytesLinha.length < comprimento) {
+            bytesLinha = new byte[Math.max(comprimento, bytesLinha.length * 2)];
+        }
+        janela.get(inicio, bytesLinha, 0, comprimento);
+        posicao = inicioJanela + proximo;
+        return new String(bytesLinha, 0, comprimento, StandardCharsets.UTF_8);
+    }
+
+    private void mapear(long inicio) throws IOException {
+        inicioJanela = inicio;
+        janela = canal.map(FileChannel.MapMode.READ_ONLY, inicio, Math.min(tamanhoJanela, tamanho - inicio));
+    }
+}
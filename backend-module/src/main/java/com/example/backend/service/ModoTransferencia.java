@@ -0,0 +1,23 @@
+package com.example.backend.service;
+
+/**
+ * Estratégia usada por {@link BeneficioService#transfer} para aplicar uma transferência
+ */
+public enum ModoTransferencia {
+
+    /**
+     * Carrega as entidades, valida em Java e persiste via merge (dois SELECTs e dois UPDATEs)
+     */
+    ENTIDADE,
+
+    /**
+     * Débito e crédito em UPDATEs condicionais; a contagem de linhas afetadas decide o sucesso
+     */
+    ATOMICO,
+
+    /**
+     * Bloqueia apenas a origem e grava débito e crédito como lançamentos pendentes no diário;
+     * o destino não é bloqueado e o compactador soma os lançamentos ao VALOR depois
+     */
+    LEDGER
+}
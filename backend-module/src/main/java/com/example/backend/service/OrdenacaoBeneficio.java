@@ -0,0 +1,55 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.BeneficioLedgerRepository;
+import com.example.backend.repository.BeneficioRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Campo de ordenação da listagem paginada por página ({@link BeneficioService#findPagina})
+ * O ID é sempre o critério de desempate, para que a ordem seja estável entre as páginas
+ */
+public enum OrdenacaoBeneficio {
+
+    ID,
+
+    NOME,
+
+    /**
+     * Saldo do benefício (VALOR mais slots e, no modo LEDGER, lançamentos pendentes),
+     * o mesmo valor exibido na listagem
+     */
+    VALOR;
+
+    /**
+     * Ordenação na direção informada, com desempate pelo ID
+     *
+     * @param ledger true no modo LEDGER, em que o saldo inclui os lançamentos pendentes
+     */
+    public Sort sort(Sort.Direction direcao, boolean ledger) {
+        Sort desempate = Sort.by(direcao, "id");
+        return switch (this) {
+            case ID -> desempate;
+            case NOME -> Sort.by(direcao, "nome").and(desempate);
+            case VALOR -> JpaSort.unsafe(direcao, "(" + (ledger ? BeneficioLedgerRepository.SALDO_LEDGER
+                    : BeneficioRepository.SALDO) + ")").and(desempate);
+        };
+    }
+
+    /**
+     * Converte o parâmetro da requisição, sem diferenciar maiúsculas
+     *
+     * @throws IllegalArgumentException se o valor não corresponde a nenhuma ordenação
+     */
+    public static OrdenacaoBeneficio de(String valor) {
+        try {
+            return valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Ordenação inválida: " + valor + ". Valores aceitos: "
+                    + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+        }
+    }
+}
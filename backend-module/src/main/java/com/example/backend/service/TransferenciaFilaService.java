@@ -0,0 +1,236 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TicketTransferenciaDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaResultadoDTO;
+import com.example.backend.exception.FilaTransferenciaIndisponivelException;
+import com.example.backend.exception.TransferenciaNaoEncontradaException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fila assíncrona de transferências, particionada pelo benefício de origem
+ * Cada partição tem um único worker, que drena a fila em lotes aplicados pelo
+ * {@link TransferenciaLoteService} (uma transação por lote). Transferências de uma mesma origem
+ * são serializadas em memória, na ordem de chegada, em vez de disputarem locks de linha no banco.
+ * O destino não entra na partição: transferências de origens diferentes para um mesmo destino muito
+ * disputado caem em workers diferentes e ainda disputam o lock dessa linha (sem deadlock, pois o lote
+ * bloqueia em ordem crescente de ID). Para esses destinos, os slots de saldo são a alternativa.
+ *
+ * Os tickets ficam apenas em memória (expiram após a retenção configurada);
+ * transferências ainda na fila são drenadas no desligamento da aplicação.
+ * O resultado de cada transferência é registrado em beneficio.transferencias, como nas síncronas.
+ */
+@Service
+@Slf4j
+public class TransferenciaFilaService {
+
+    private final TransferenciaLoteService loteService;
+    private final BeneficioMetricas metricas;
+    private final boolean habilitada;
+    private final int tamanhoLote;
+    private final List<BlockingQueue<Pedido>> particoes;
+    private final Cache<String, TicketTransferenciaDTO> tickets;
+    private final List<Thread> workers = new ArrayList<>();
+    /**
+     * Enfileiramentos (leitura) e parada (escrita) são exclusivos: depois que {@link #parar()} desliga a
+     * fila nenhum pedido pode entrar, e os workers drenam tudo o que entrou antes
+     */
+    private final ReadWriteLock estado = new ReentrantReadWriteLock();
+
+    private volatile boolean ativa;
+
+    public TransferenciaFilaService(TransferenciaLoteService loteService,
+                                    BeneficioMetricas metricas,
+                                    MeterRegistry registry,
+                                    @Value("${beneficio.transferencia.fila.habilitada:false}") boolean habilitada,
+                                    @Value("${beneficio.transferencia.fila.particoes:4}") int particoes,
+                                    @Value("${beneficio.transferencia.fila.tamanho-lote:100}") int tamanhoLote,
+                                    @Value("${beneficio.transferencia.fila.capacidade:10000}") int capacidade,
+                                    @Value("${beneficio.transferencia.fila.retencao:PT1H}") Duration retencao) {
+        if (particoes <= 0 || tamanhoLote <= 0 || capacidade <= 0) {
+            throw new IllegalArgumentException("Partições, tamanho do lote e capacidade devem ser maiores que zero");
+        }
+        this.loteService = loteService;
+        this.metricas = metricas;
+        this.habilitada = habilitada;
+        this.tamanhoLote = tamanhoLote;
+        this.particoes = new ArrayList<>(particoes);
+        for (int i = 0; i < particoes; i++) {
+            BlockingQueue<Pedido> fila = new ArrayBlockingQueue<>(capacidade);
+            this.particoes.add(fila);
+            Gauge.builder("beneficio.transferencias.fila", fila, Collection::size)
+                    .description("Transferências aguardando na fila da partição")
+                    .tag("particao", String.valueOf(i))
+                    .register(registry);
+        }
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(retencao)
+                .build();
+    }
+
+    /**
+     * Indica se POST /transferir deve enfileirar (202) em vez de aplicar a transferência na requisição
+     */
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Inicia um worker por partição
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (!habilitada || ativa) {
+            return;
+        }
+        ativa = true;
+        for (int i = 0; i < particoes.size(); i++) {
+            BlockingQueue<Pedido> fila = particoes.get(i);
+            Thread worker = new Thread(() -> drenar(fila), "transferencia-particao-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Fila de transferências iniciada com {} partições (lotes de até {})", particoes.size(), tamanhoLote);
+    }
+
+    /**
+     * Para de aceitar transferências e aguarda os workers drenarem o que já foi enfileirado
+     */
+    @PreDestroy
+    public synchronized void parar() throws InterruptedException {
+        estado.writeLock().lock();
+        try {
+            ativa = false;
+        } finally {
+            estado.writeLock().unlock();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        workers.clear();
+    }
+
+    /**
+     * Enfileira a transferência na partição do benefício de origem
+     *
+     * @return ticket PENDENTE para consulta em {@link #consultar(String)}
+     * @throws FilaTransferenciaIndisponivelException se a partição estiver cheia ou a fila parada
+     */
+    public TicketTransferenciaDTO enfileirar(TransferenciaDTO dto) {
+        if (dto.getFromId().equals(dto.getToId())) {
+            throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
+        }
+        estado.readLock().lock();
+        try {
+            if (!ativa) {
+                throw new FilaTransferenciaIndisponivelException("Fila de transferências indisponível");
+            }
+            TicketTransferenciaDTO ticket = new TicketTransferenciaDTO(UUID.randomUUID().toString(),
+                    TicketTransferenciaDTO.Status.PENDENTE, dto.getFromId(), dto.getToId(), dto.getAmount(),
+                    null, LocalDateTime.now(), null);
+            // Registrado antes de enfileirar: o worker nunca atualiza um ticket ainda inexistente
+            tickets.put(ticket.getTicket(), ticket);
+            if (!particao(dto.getFromId()).offer(new Pedido(ticket, dto))) {
+                tickets.invalidate(ticket.getTicket());
+                throw new FilaTransferenciaIndisponivelException("Fila de transferências cheia, tente novamente");
+            }
+            return ticket;
+        } finally {
+            estado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Situação atual de uma transferência enfileirada
+     */
+    public TicketTransferenciaDTO consultar(String ticket) {
+        TicketTransferenciaDTO situacao = tickets.getIfPresent(ticket);
+        if (situacao == null) {
+            throw new TransferenciaNaoEncontradaException("Transferência não encontrada: " + ticket);
+        }
+        return situacao;
+    }
+
+    private BlockingQueue<Pedido> particao(Long fromId) {
+        return particoes.get(Math.floorMod(fromId.hashCode(), particoes.size()));
+    }
+
+    /**
+     * Laço do worker: aguarda a primeira transferência e leva as demais já enfileiradas, até o tamanho do lote
+     */
+    private void drenar(BlockingQueue<Pedido> fila) {
+        List<Pedido> lote = new ArrayList<>(tamanhoLote);
+        while (ativa || !fila.isEmpty()) {
+            try {
+                Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoLote - 1);
+                aplicar(lote);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Falha ao aplicar lote de {} transferências da fila", lote.size(), ex);
+                lote.forEach(pedido -> concluir(pedido, "Falha ao processar transferência: " + ex.getMessage(),
+                        BeneficioMetricas.motivo(ex)));
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void aplicar(List<Pedido> lote) {
+        List<TransferenciaDTO> transferencias = new ArrayList<>(lote.size());
+        lote.forEach(pedido -> transferencias.add(pedido.transferencia()));
+        List<TransferenciaResultadoDTO> resultados = loteService.transferLote(transferencias).getResultados();
+        for (int i = 0; i < lote.size(); i++) {
+            TransferenciaResultadoDTO resultado = resultados.get(i);
+            concluir(lote.get(i), resultado.getMensagem(),
+                    resultado.isSucesso() ? null : Objects.requireNonNullElse(resultado.getMotivo(), "erro"));
+        }
+    }
+
+    /**
+     * Registra o resultado nas métricas e publica um novo ticket (imutável após publicado)
+     *
+     * @param motivo motivo da falha ({@link BeneficioMetricas#motivo(RuntimeException)}), ou nulo no sucesso
+     */
+    private void concluir(Pedido pedido, String mensagem, String motivo) {
+        TicketTransferenciaDTO pendente = pedido.ticket();
+        LocalDateTime processadaEm = LocalDateTime.now();
+        metricas.registrarTransferencia(Duration.between(pendente.getRecebidaEm(), processadaEm), motivo);
+        tickets.put(pendente.getTicket(), new TicketTransferenciaDTO(pendente.getTicket(),
+                motivo == null ? TicketTransferenciaDTO.Status.CONCLUIDA : TicketTransferenciaDTO.Status.REJEITADA,
+                pendente.getFromId(), pendente.getToId(), pendente.getAmount(), mensagem,
+                pendente.getRecebidaEm(), processadaEm));
+    }
+
+    private record Pedido(TicketTransferenciaDTO ticket, TransferenciaDTO transferencia) {
+    }
+}
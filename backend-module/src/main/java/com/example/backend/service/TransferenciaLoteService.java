@@ -0,0 +1,216 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaLoteResultadoDTO;
+import com.example.backend.dto.TransferenciaResultadoDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.estatisticas.EstatisticasBeneficios;
+import com.example.backend.exception.BeneficioInativoException;
+import com.example.backend.exception.BeneficioNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Service para transferências em lote
+ * Divide o lote em chunks, cada um aplicado em uma única transação:
+ * os benefícios envolvidos são bloqueados em ordem crescente de ID,
+ * as pernas são aplicadas em memória e os UPDATEs (e, no modo LEDGER, os lançamentos do diário)
+ * saem em batch JDBC no commit.
+ * Benefícios particionados em slots não são bloqueados: suas pernas atualizam um slot na hora.
+ */
+@Service
+@Slf4j
+public class TransferenciaLoteService {
+
+    private final BeneficioRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final BeneficioCache cache;
+    private final BeneficioMetricas metricas;
+    private final LancamentoService lancamentos;
+    private final BeneficioSlotService slots;
+    private final EstatisticasBeneficios estatisticas;
+    private final BeneficioEventosService eventos;
+    private final int tamanhoChunk;
+
+    public TransferenciaLoteService(BeneficioRepository repository,
+                                    TransactionTemplate transactionTemplate,
+                                    BeneficioCache cache,
+                                    BeneficioMetricas metricas,
+                                    LancamentoService lancamentos,
+                                    BeneficioSlotService slots,
+                                    EstatisticasBeneficios estatisticas,
+                                    BeneficioEventosService eventos,
+                                    @Value("${beneficio.transferencia.lote.tamanho-chunk:500}") int tamanhoChunk) {
+        if (tamanhoChunk <= 0) {
+            throw new IllegalArgumentException("Tamanho do chunk deve ser maior que zero");
+        }
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.cache = cache;
+        this.metricas = metricas;
+        this.lancamentos = lancamentos;
+        this.slots = slots;
+        this.estatisticas = estatisticas;
+        this.eventos = eventos;
+        this.tamanhoChunk = tamanhoChunk;
+    }
+
+    /**
+     * Aplica um lote de transferências
+     * Falhas de uma perna (saldo, inatividade, inexistência) não afetam as demais;
+     * falhas da transação do chunk (ex.: timeout de lock) marcam todas as pernas do chunk
+     */
+    public TransferenciaLoteResultadoDTO transferLote(List<TransferenciaDTO> transferencias) {
+        log.debug("Iniciando lote de {} transferências em chunks de {}", transferencias.size(), tamanhoChunk);
+
+        TransferenciaResultadoDTO[] resultados = new TransferenciaResultadoDTO[transferencias.size()];
+        for (int inicio = 0; inicio < transferencias.size(); inicio += tamanhoChunk) {
+            int fim = Math.min(inicio + tamanhoChunk, transferencias.size());
+            processarChunk(transferencias, inicio, fim, resultados);
+        }
+
+        int sucessos = 0;
+        for (TransferenciaResultadoDTO resultado : resultados) {
+            if (resultado.isSucesso()) {
+                sucessos++;
+            }
+        }
+        log.debug("Lote concluído: {} sucessos, {} falhas", sucessos, resultados.length - sucessos);
+        return new TransferenciaLoteResultadoDTO(resultados.length, sucessos,
+                resultados.length - sucessos, Arrays.asList(resultados));
+    }
+
+    private void processarChunk(List<TransferenciaDTO> transferencias, int inicio, int fim,
+                                TransferenciaResultadoDTO[] resultados) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Beneficio> bloqueados = bloquear(transferencias.subList(inicio, fim));
+                cache.invalidarAposTransacao(bloqueados.keySet().toArray(new Long[0]));
+                Map<Long, BigDecimal> pendentes = lancamentos.saldosPendentes(bloqueados.keySet());
+                Map<Long, BigDecimal> variacoes = new HashMap<>();
+                for (int i = inicio; i < fim; i++) {
+                    TransferenciaDTO dto = transferencias.get(i);
+                    resultados[i] = aplicar(i, dto, bloqueados, pendentes);
+                    if (resultados[i].isSucesso()) {
+                        variacoes.merge(dto.getFromId(), dto.getAmount().negate(), BigDecimal::add);
+                        variacoes.merge(dto.getToId(), dto.getAmount(), BigDecimal::add);
+                    }
+                }
+                estatisticas.ajustarAposTransacao(variacoes);
+                eventos.publicarAposTransacao(variacoes.keySet().toArray(new Long[0]));
+            });
+        } catch (RuntimeException ex) {
+            log.error("Falha na transação do chunk [{}, {}): {}", inicio, fim, ex.getMessage());
+            for (int i = inicio; i < fim; i++) {
+                TransferenciaDTO dto = transferencias.get(i);
+                resultados[i] = new TransferenciaResultadoDTO(i, dto.getFromId(), dto.getToId(),
+                        dto.getAmount(), false, "Falha ao processar lote: " + ex.getMessage(),
+                        BeneficioMetricas.motivo(ex));
+            }
+        }
+    }
+
+    /**
+     * Bloqueia todos os benefícios referenciados pelo chunk em uma única consulta ordenada por ID
+     * Os particionados (SLOTS maior que zero, o que nunca volta a zero) são apenas lidos, sem bloqueio,
+     * para a validação de atividade; um benefício particionado entre as duas consultas chega bloqueado,
+     * com SLOTS lido sob o lock, e também segue para os slots
+     */
+    private Map<Long, Beneficio> bloquear(List<TransferenciaDTO> chunk) {
+        TreeSet<Long> ids = new TreeSet<>();
+        for (TransferenciaDTO dto : chunk) {
+            if (dto.getFromId() != null) {
+                ids.add(dto.getFromId());
+            }
+            if (dto.getToId() != null) {
+                ids.add(dto.getToId());
+            }
+        }
+        List<Long> particionados = ids.isEmpty() ? List.of() : repository.findIdsParticionados(ids);
+        particionados.forEach(ids::remove);
+        Map<Long, Beneficio> bloqueados = new HashMap<>((ids.size() + particionados.size()) * 2);
+        if (!ids.isEmpty()) {
+            for (Beneficio beneficio : metricas.medirEsperaLock("lote", () -> repository.findAllByIdForUpdate(ids))) {
+                bloqueados.put(beneficio.getId(), beneficio);
+            }
+        }
+        if (!particionados.isEmpty()) {
+            for (Beneficio beneficio : repository.findAllById(particionados)) {
+                bloqueados.put(beneficio.getId(), beneficio);
+            }
+        }
+        return bloqueados;
+    }
+
+    private TransferenciaResultadoDTO aplicar(int indice, TransferenciaDTO dto, Map<Long, Beneficio> bloqueados,
+                                              Map<Long, BigDecimal> pendentes) {
+        try {
+            validar(dto);
+            Beneficio from = bloqueados.get(dto.getFromId());
+            Beneficio to = bloqueados.get(dto.getToId());
+            if (from == null) {
+                throw new BeneficioNotFoundException("Benefício de origem não encontrado: " + dto.getFromId());
+            }
+            if (to == null) {
+                throw new BeneficioNotFoundException("Benefício de destino não encontrado: " + dto.getToId());
+            }
+            if (!from.getAtivo()) {
+                throw new BeneficioInativoException("Benefício de origem está inativo");
+            }
+            if (!to.getAtivo()) {
+                throw new BeneficioInativoException("Benefício de destino está inativo");
+            }
+            if (from.getSlots() > 0) {
+                slots.debitar(from.getId(), dto.getAmount());
+            } else {
+                BigDecimal disponivel = from.getValor().add(pendentes.getOrDefault(from.getId(), BigDecimal.ZERO));
+                if (disponivel.compareTo(dto.getAmount()) < 0) {
+                    throw new SaldoInsuficienteException(
+                            String.format("Saldo insuficiente. Disponível: %s, Solicitado: %s",
+                                    disponivel, dto.getAmount()));
+                }
+                // Entidades gerenciadas: o dirty checking gera um único UPDATE por benefício no flush
+                from.setValor(from.getValor().subtract(dto.getAmount()));
+            }
+            if (to.getSlots() > 0) {
+                slots.creditar(to.getId(), to.getSlots(), dto.getAmount());
+            } else {
+                to.setValor(to.getValor().add(dto.getAmount()));
+            }
+            lancamentos.registrarTransferencia(dto, true);
+            return new TransferenciaResultadoDTO(indice, dto.getFromId(), dto.getToId(),
+                    dto.getAmount(), true, null, null);
+        } catch (BeneficioNotFoundException | IllegalArgumentException ex) {
+            return new TransferenciaResultadoDTO(indice, dto.getFromId(), dto.getToId(),
+                    dto.getAmount(), false, ex.getMessage(), BeneficioMetricas.motivo(ex));
+        }
+    }
+
+    private void validar(TransferenciaDTO dto) {
+        if (dto.getFromId() == null) {
+            throw new IllegalArgumentException("ID de origem é obrigatório");
+        }
+        if (dto.getToId() == null) {
+            throw new IllegalArgumentException("ID de destino é obrigatório");
+        }
+        if (dto.getAmount() == null || dto.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Valor deve ser positivo");
+        }
+        if (dto.getFromId().equals(dto.getToId())) {
+            throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
+        }
+    }
+}
@@ -1,3 +1,6 @@
-INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO) VALUES
-('Beneficio A', 'Descrição A', 1000.00, TRUE),
-('Beneficio B', 'Descrição B', 500.00, TRUE);
+INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO) VALUES
+(1, 'Beneficio A', 'Descrição A', 1000.00, TRUE),
+(2, 'Beneficio B', 'Descrição B', 500.00, TRUE);
+
+-- IDs explícitos: o próximo bloco da sequência começa após eles
+ALTER SEQUENCE BENEFICIO_SEQ RESTART WITH 3;
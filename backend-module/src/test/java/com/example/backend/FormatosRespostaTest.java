@@ -0,0 +1,172 @@
+package com.example.backend;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Negociação de formato (JSON, CBOR, Smile) e seleção de campos (?fields=)
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+class FormatosRespostaTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testFindById_JsonPorPadraoComTodosOsCampos() throws Exception {
+        mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.nome").exists())
+                .andExpect(jsonPath("$.descricao").exists())
+                .andExpect(jsonPath("$.version").exists());
+    }
+
+    @Test
+    void testFindById_CborComCamposSelecionados() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/beneficios/1").accept(CBOR)
+                        .param("fields", "id,nome,valor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(CBOR))
+                // ETag forte por formato e cache por formato
+                .andExpect(header().string(HttpHeaders.ETAG, allOf(startsWith("\""), endsWith("-cbor\""))))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        JsonNode beneficio = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(3, beneficio.size(), beneficio.toString());
+        assertEquals(1L, beneficio.get("id").asLong());
+        assertTrue(beneficio.has("nome"));
+        assertTrue(beneficio.has("valor"));
+    }
+
+    @Test
+    void testFindById_EtagFortePorFormato() throws Exception {
+        String json = mockMvc.perform(get("/api/v1/beneficios/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String smile = mockMvc.perform(get("/api/v1/beneficios/1").accept(SMILE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertFalse(json.startsWith("W/"), json);
+        assertFalse(smile.startsWith("W/"), smile);
+        assertNotEquals(json, smile);
+
+        // O ETag de um formato só revalida a representação nesse formato
+        mockMvc.perform(get("/api/v1/beneficios/1").accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/beneficios/1").header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testFindAll_EtagFracoPorFormato() throws Exception {
+        String json = mockMvc.perform(get("/api/v1/beneficios").param("limit", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cbor = mockMvc.perform(get("/api/v1/beneficios").param("limit", "5").accept(CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Fraco para que a listagem seja comprimida; o formato continua no ETag
+        assertTrue(json.startsWith("W/"), json);
+        assertEquals(json.replace("\"", "").concat("-cbor"), cbor.replace("\"", ""));
+        mockMvc.perform(get("/api/v1/beneficios").param("limit", "5").accept(CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testFindAll_SmileMenorQueJson() throws Exception {
+        byte[] json = mockMvc.perform(get("/api/v1/beneficios").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/api/v1/beneficios").param("limit", "10").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Valores decimais lidos como BigDecimal nos dois formatos (Smile os codifica sem perda)
+        assertEquals(new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS).readTree(json),
+                new SmileMapper().readTree(smile));
+        assertTrue(smile.length < json.length, "Smile: " + smile.length + " bytes, JSON: " + json.length);
+    }
+
+    @Test
+    void testFindAll_CamposSelecionadosEmTodosOsItens() throws Exception {
+        mockMvc.perform(get("/api/v1/beneficios").param("limit", "5").param("fields", "id, ativo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].id").exists())
+                .andExpect(jsonPath("$.itens[0].ativo").exists())
+                .andExpect(jsonPath("$.itens[0].nome").doesNotExist())
+                .andExpect(jsonPath("$.itens[0].valor").doesNotExist());
+    }
+
+    @Test
+    void testFindById_CampoInvalido() throws Exception {
+        mockMvc.perform(get("/api/v1/beneficios/1").param("fields", "id,senha"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("senha")));
+    }
+
+    @Test
+    void testErro_NaoFiltrado() throws Exception {
+        mockMvc.perform(get("/api/v1/beneficios/999999").param("fields", "id"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    @Test
+    void testExportar_CamposSelecionados() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/beneficios/exportar").param("fields", "id,nome"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        String primeira = result.getResponse().getContentAsString(StandardCharsets.UTF_8).lines().findFirst()
+                .orElseThrow();
+        JsonNode linha = new ObjectMapper().readTree(primeira);
+        assertEquals(2, linha.size(), primeira);
+        assertTrue(linha.has("nome"));
+    }
+
+    @Test
+    void testExportar_CampoInvalido() throws Exception {
+        mockMvc.perform(get("/api/v1/beneficios/exportar").param("fields", "x"))
+                .andExpect(status().isBadRequest());
+    }
+}
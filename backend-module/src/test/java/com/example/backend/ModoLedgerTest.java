@@ -0,0 +1,67 @@
+package com.example.backend;
+
+import com.example.backend.repository.BeneficioLedgerRepository;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.service.CompactadorLancamentos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Modo LEDGER: consultas de saldo com os lançamentos pendentes e compactador registrado
+ * O compactador roda uma vez na subida e depois só a cada hora, para que os pendentes permaneçam
+ */
+@SpringBootTest(properties = {
+        "beneficio.transferencia.modo=LEDGER",
+        "beneficio.ledger.compactacao.intervalo=PT1H",
+        "spring.datasource.url=jdbc:h2:mem:ledgerdb",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+class ModoLedgerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void testRepositorioECompactadorDoModoLedger() {
+        assertInstanceOf(BeneficioLedgerRepository.class, repository);
+        assertNotNull(context.getBean(CompactadorLancamentos.class));
+    }
+
+    @Test
+    void testTransfer_SaldoIncluiLancamentosPendentes() throws Exception {
+        mockMvc.perform(post("/api/v1/beneficios/transferir")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":1,\"toId\":2,\"amount\":100.00}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/beneficios/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valor").value(600.00));
+        mockMvc.perform(get("/api/v1/beneficios/2/lancamentos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[?(@.tipo == 'CREDITO')]").isNotEmpty());
+        mockMvc.perform(get("/api/v1/beneficios/pagina").param("ordenacao", "valor").param("direcao", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].id").value(1));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.backend;
+
+import com.example.backend.metrics.SqlPorRequisicaoFilter;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Limites de statements JDBC por endpoint, lidos do cabeçalho Server-Timing
+ * Falha quando uma alteração introduz consultas extras (ex.: N+1) em um endpoint
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@AutoConfigureMockMvc
+class SqlPorEndpointTest {
+
+    private static final Pattern STATEMENTS = Pattern.compile("statements=(\\d+) linhas=(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testFindAll_VersaoDaColecaoEPagina() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/beneficios").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Agregado de versões (ETag) + página de limit + 1 linhas
+        assertLimite(result, 2);
+        assertTrue(linhas(result) <= 12, "Linhas lidas: " + linhas(result));
+    }
+
+    @Test
+    void testFindPagina_OrdenadaPorSaldoComTotal() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/beneficios/pagina")
+                        .param("tamanho", "2").param("ordenacao", "valor").param("direcao", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(2))
+                .andExpect(jsonPath("$.total").isNumber())
+                .andReturn();
+
+        // Agregado de versões (ETag) + página ordenada + COUNT do total
+        assertLimite(result, 3);
+        String json = result.getResponse().getContentAsString();
+        BigDecimal primeiro = new BigDecimal(JsonPath.read(json, "$.itens[0].valor").toString());
+        BigDecimal segundo = new BigDecimal(JsonPath.read(json, "$.itens[1].valor").toString());
+        assertTrue(primeiro.compareTo(segundo) >= 0, json);
+    }
+
+    @Test
+    void testEstatisticas_SemStatements() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/beneficios/estatisticas"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Respondida pelas estatísticas em memória, carregadas na inicialização
+        assertLimite(result, 0);
+    }
+
+    @Test
+    void testUpdate_SelectSaldoPendenteEUpdate() throws Exception {
+        MvcResult result = mockMvc.perform(put("/api/v1/beneficios/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Beneficio B\",\"descricao\":\"Descrição B\",\"valor\":500.00,\"ativo\":true}"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // SELECT + UPDATE (fora do modo LEDGER não há lançamentos pendentes a somar)
+        assertLimite(result, 2);
+    }
+
+    @Test
+    void testTransfer_NoMaximoTresStatements() throws Exception {
+        MvcResult result = transferir();
+
+        // Dois SELECTs (origem e destino) + batch dos dois UPDATEs, sem escrita no diário
+        assertLimite(result, 3);
+    }
+
+    @Test
+    void testCreateLote_InsertsEmBatch() throws Exception {
+        StringBuilder beneficios = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            beneficios.append(i > 0 ? "," : "")
+                    .append("{\"nome\":\"Lote ").append(i).append("\",\"valor\":10.00}");
+        }
+        MvcResult result = mockMvc.perform(post("/api/v1/beneficios/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"beneficios\":[" + beneficios + "]}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        // Bloco de IDs da sequência + batch dos INSERTs
+        assertLimite(result, 2);
+    }
+
+    @Test
+    void testForaDaApi_SemServerTiming() throws Exception {
+        MvcResult result = mockMvc.perform(get("/actuator/health")).andReturn();
+
+        assertNull(result.getResponse().getHeader(SqlPorRequisicaoFilter.SERVER_TIMING));
+    }
+
+    private MvcResult transferir() throws Exception {
+        return mockMvc.perform(post("/api/v1/beneficios/transferir")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromId\":1,\"toId\":2,\"amount\":1.00}"))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+
+    private static void assertLimite(MvcResult result, int limite) {
+        int statements = statements(result);
+        assertTrue(statements <= limite,
+                String.format("%d statements executados, limite %d", statements, limite));
+    }
+
+    private static int statements(MvcResult result) {
+        return Integer.parseInt(serverTiming(result).group(1));
+    }
+
+    private static long linhas(MvcResult result) {
+        return Long.parseLong(serverTiming(result).group(2));
+    }
+
+    private static Matcher serverTiming(MvcResult result) {
+        String header = result.getResponse().getHeader(SqlPorRequisicaoFilter.SERVER_TIMING);
+        assertNotNull(header, "Cabeçalho Server-Timing ausente");
+        Matcher matcher = STATEMENTS.matcher(header);
+        assertTrue(matcher.find(), header);
+        return matcher;
+    }
+}
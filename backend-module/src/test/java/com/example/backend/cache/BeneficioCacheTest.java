@@ -0,0 +1,101 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.example.backend.dto.EstatisticasCacheDTO;
+import com.example.backend.dto.PaginaCursorDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficioCacheTest {
+
+    private BeneficioCache cache;
+    private AtomicInteger carregamentos;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BeneficioCache(100, 100, Duration.ofMinutes(5));
+        carregamentos = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testGetById_ReadThrough() {
+        cache.getById(1L, this::carregar);
+        cache.getById(1L, this::carregar);
+
+        assertEquals(1, carregamentos.get());
+        EstatisticasCacheDTO stats = cache.estatisticas().get(0);
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void testGetById_TransacaoDeEscritaNaoArmazena() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        cache.getById(1L, this::carregar);
+        cache.getById(1L, this::carregar);
+
+        assertEquals(2, carregamentos.get());
+        assertEquals(0, cache.estatisticas().get(0).getTamanho());
+    }
+
+    @Test
+    void testInvalidarAposTransacao_InvalidaNovamenteNoFim() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidarAposTransacao(1L);
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // Leitura concorrente repopula o cache antes do commit
+        cache.getById(1L, this::carregar);
+        sincronizacoes.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        cache.getById(1L, this::carregar);
+
+        assertEquals(2, carregamentos.get());
+    }
+
+    @Test
+    void testInvalidar_SomentePaginasQueContemOId() {
+        PaginaCursorDTO<BeneficioResponseDTO> primeira = new PaginaCursorDTO<>(List.of(dto(1L), dto(2L)), 2L, 2);
+        PaginaCursorDTO<BeneficioResponseDTO> ultima = new PaginaCursorDTO<>(List.of(dto(3L)), null, 2);
+        AtomicInteger paginasCarregadas = new AtomicInteger();
+        cache.getAtivos(null, 2, () -> { paginasCarregadas.incrementAndGet(); return primeira; });
+        cache.getAtivos(2L, 2, () -> { paginasCarregadas.incrementAndGet(); return ultima; });
+
+        // Novo benefício (ID 10) só afeta a última página
+        cache.invalidarAposTransacao(10L);
+        cache.getAtivos(null, 2, () -> { paginasCarregadas.incrementAndGet(); return primeira; });
+        cache.getAtivos(2L, 2, () -> { paginasCarregadas.incrementAndGet(); return ultima; });
+
+        assertEquals(3, paginasCarregadas.get());
+    }
+
+    private BeneficioResponseDTO carregar(Long id) {
+        carregamentos.incrementAndGet();
+        return dto(id);
+    }
+
+    private static BeneficioResponseDTO dto(Long id) {
+        return new BeneficioResponseDTO(id, "B" + id, null, BigDecimal.TEN, true, 0L);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.backend.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TamanhoRespostaFilterTest {
+
+    private final TamanhoRespostaFilter filter = new TamanhoRespostaFilter();
+
+    @Test
+    void testDoFilter_RespostaSincronaNaoEnviadaNoFlush() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/beneficios/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(escreverComFlush()));
+
+        assertFalse(response.isCommitted());
+        assertEquals("{\"id\":1}", response.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testDoFilter_RespostaAssincronaMantemFlush() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/beneficios/exportar");
+        request.setAsyncSupported(true);
+        request.startAsync();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(escreverComFlush()));
+
+        assertTrue(response.isCommitted());
+    }
+
+    @Test
+    void testDoFilter_ForaDaApiNaoAlterado() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(escreverComFlush()));
+
+        assertTrue(response.isCommitted());
+    }
+
+    private static HttpServlet escreverComFlush() {
+        return new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+                resp.getOutputStream().flush();
+            }
+        };
+    }
+}
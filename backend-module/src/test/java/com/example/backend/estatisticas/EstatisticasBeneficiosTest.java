@@ -0,0 +1,135 @@
+package com.example.backend.estatisticas;
+
+import com.example.backend.dto.AgregadoSaldoDTO;
+import com.example.backend.dto.EstatisticasBeneficiosDTO;
+import com.example.backend.dto.FaixaValorDTO;
+import com.example.backend.dto.SaldoBeneficioDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstatisticasBeneficiosTest {
+
+    private EstatisticasBeneficios estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = new EstatisticasBeneficios(new BigDecimal[]{new BigDecimal("100"), new BigDecimal("1000")});
+        assertTrue(estatisticas.carregar(List.of(
+                saldo(1L, "50.00", true),
+                saldo(2L, "100.00", true),
+                saldo(3L, "2500.00", true),
+                saldo(4L, "700.00", false)), estatisticas.getVersao()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testResumo_ContagensValoresEHistogramaDosAtivos() {
+        EstatisticasBeneficiosDTO resumo = estatisticas.resumo();
+
+        assertEquals(3, resumo.getAtivos());
+        assertEquals(1, resumo.getInativos());
+        assertEquals(new BigDecimal("2650.00"), resumo.getTotal());
+        assertEquals(new BigDecimal("50.00"), resumo.getMinimo());
+        assertEquals(new BigDecimal("2500.00"), resumo.getMaximo());
+        assertEquals(new BigDecimal("883.33"), resumo.getMedia());
+        assertNotNull(resumo.getConferidoEm());
+        assertEquals(List.of(
+                new FaixaValorDTO(null, new BigDecimal("100"), 1),
+                new FaixaValorDTO(new BigDecimal("100"), new BigDecimal("1000"), 1),
+                new FaixaValorDTO(new BigDecimal("1000"), null, 1)), resumo.getHistograma());
+    }
+
+    @Test
+    void testAjustar_TransferenciaMoveMinimoEMaximo() {
+        estatisticas.ajustarAposTransacao(Map.of(3L, new BigDecimal("-2000.00"), 1L, new BigDecimal("2000.00")));
+
+        EstatisticasBeneficiosDTO resumo = estatisticas.resumo();
+        assertEquals(0, new BigDecimal("2650.00").compareTo(resumo.getTotal()));
+        assertEquals(new BigDecimal("100.00"), resumo.getMinimo());
+        assertEquals(new BigDecimal("2050.00"), resumo.getMaximo());
+        assertEquals(List.of(0L, 2L, 1L), resumo.getHistograma().stream().map(FaixaValorDTO::getQuantidade).toList());
+    }
+
+    @Test
+    void testDefinirEDesativar() {
+        estatisticas.definirAposTransacao(5L, new BigDecimal("10.00"), true);
+        estatisticas.desativarAposTransacao(3L);
+
+        EstatisticasBeneficiosDTO resumo = estatisticas.resumo();
+        assertEquals(3, resumo.getAtivos());
+        assertEquals(2, resumo.getInativos());
+        assertEquals(new BigDecimal("160.00"), resumo.getTotal());
+        assertEquals(new BigDecimal("10.00"), resumo.getMinimo());
+        assertEquals(new BigDecimal("100.00"), resumo.getMaximo());
+    }
+
+    @Test
+    void testAposTransacao_AplicaSomenteNoCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        estatisticas.desativarAposTransacao(1L);
+        estatisticas.desativarAposTransacao(2L);
+        assertFalse(estatisticas.isEmRepouso());
+        assertEquals(3, estatisticas.resumo().getAtivos());
+
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        sincronizacoes.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        sincronizacoes.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(estatisticas.isEmRepouso());
+        assertEquals(2, estatisticas.resumo().getAtivos());
+    }
+
+    @Test
+    void testCarregar_RecusadoComAlteracoesDuranteALeitura() {
+        long versao = estatisticas.getVersao();
+        estatisticas.definirAposTransacao(5L, new BigDecimal("10.00"), true);
+
+        assertFalse(estatisticas.carregar(List.of(), versao));
+        assertEquals(4, estatisticas.resumo().getAtivos());
+
+        TransactionSynchronizationManager.initSynchronization();
+        estatisticas.desativarAposTransacao(5L);
+        assertFalse(estatisticas.carregar(List.of(), estatisticas.getVersao()));
+    }
+
+    @Test
+    void testConferir() {
+        long versao = estatisticas.getVersao();
+        AgregadoSaldoDTO ativos = new AgregadoSaldoDTO(true, 3L, new BigDecimal("2650.0"),
+                new BigDecimal("50"), new BigDecimal("2500"));
+        AgregadoSaldoDTO inativos = new AgregadoSaldoDTO(false, 1L, new BigDecimal("700"),
+                new BigDecimal("700"), new BigDecimal("700"));
+
+        assertEquals(EstatisticasBeneficios.Conferencia.CONSISTENTE, estatisticas.conferir(List.of(ativos, inativos), versao));
+        ativos.setSoma(new BigDecimal("2651.00"));
+        assertEquals(EstatisticasBeneficios.Conferencia.DIVERGENTE, estatisticas.conferir(List.of(ativos, inativos), versao));
+        assertEquals(EstatisticasBeneficios.Conferencia.ALTERADA, estatisticas.conferir(List.of(ativos, inativos), versao - 1));
+    }
+
+    @Test
+    void testLimites_Invalidos() {
+        assertThrows(IllegalArgumentException.class, () -> new EstatisticasBeneficios(new BigDecimal[0]));
+        assertThrows(IllegalArgumentException.class, () ->
+                new EstatisticasBeneficios(new BigDecimal[]{BigDecimal.TEN, BigDecimal.ONE}));
+    }
+
+    private static SaldoBeneficioDTO saldo(Long id, String valor, boolean ativo) {
+        return new SaldoBeneficioDTO(id, new BigDecimal(valor), ativo);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.metrics;
+
+import com.example.backend.exception.BeneficioInativoException;
+import com.example.backend.exception.BeneficioNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficioMetricasTest {
+
+    private SimpleMeterRegistry registry;
+    private BeneficioMetricas metricas;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metricas = new BeneficioMetricas(registry);
+    }
+
+    @Test
+    void testMedirTransferencia_Sucesso() {
+        metricas.medirTransferencia(() -> { });
+
+        assertEquals(1, contagem("sucesso", "nenhum"));
+    }
+
+    @Test
+    void testMedirTransferencia_FalhaPorMotivo() {
+        falhar(new SaldoInsuficienteException("Saldo insuficiente"));
+        falhar(new BeneficioInativoException("Benefício de origem está inativo"));
+        falhar(new BeneficioNotFoundException("Benefício de origem não encontrado: 99"));
+        falhar(new OptimisticLockingFailureException("versão"));
+        falhar(new IllegalArgumentException("Não é possível transferir para o mesmo benefício"));
+        falhar(new IllegalStateException("erro"));
+
+        assertEquals(1, contagem("falha", "saldo_insuficiente"));
+        assertEquals(1, contagem("falha", "inativo"));
+        assertEquals(1, contagem("falha", "nao_encontrado"));
+        assertEquals(1, contagem("falha", "conflito"));
+        assertEquals(1, contagem("falha", "invalida"));
+        assertEquals(1, contagem("falha", "erro"));
+        assertEquals(0, contagem("sucesso", "nenhum"));
+    }
+
+    @Test
+    void testMedirEsperaLock() {
+        String resultado = metricas.medirEsperaLock("lote", () -> "ok");
+
+        assertEquals("ok", resultado);
+        Timer timer = registry.find(BeneficioMetricas.ESPERA_LOCK).tag("operacao", "lote").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    private void falhar(RuntimeException ex) {
+        RuntimeException lancada = assertThrows(RuntimeException.class,
+                () -> metricas.medirTransferencia(() -> { throw ex; }));
+        assertSame(ex, lancada);
+    }
+
+    private long contagem(String resultado, String motivo) {
+        Timer timer = registry.find(BeneficioMetricas.TRANSFERENCIAS)
+                .tags("resultado", resultado, "motivo", motivo)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstatisticasSqlRequisicaoTest {
+
+    @AfterEach
+    void tearDown() {
+        EstatisticasSqlRequisicao.encerrar();
+    }
+
+    @Test
+    void testAtual_ApenasEntreIniciarEEncerrar() {
+        assertTrue(EstatisticasSqlRequisicao.atual().isEmpty());
+
+        EstatisticasSqlRequisicao estatisticas = EstatisticasSqlRequisicao.iniciar();
+        assertSame(estatisticas, EstatisticasSqlRequisicao.atual().orElseThrow());
+
+        EstatisticasSqlRequisicao.encerrar();
+        assertTrue(EstatisticasSqlRequisicao.atual().isEmpty());
+    }
+
+    @Test
+    void testRegistrar_AcumulaStatementsLinhasETempo() {
+        EstatisticasSqlRequisicao estatisticas = EstatisticasSqlRequisicao.iniciar();
+
+        estatisticas.registrarExecucao("select b from beneficio b where id=?", 1_500_000);
+        estatisticas.registrarExecucao("update beneficio set valor=? where id=?", 500_000);
+        estatisticas.registrarLinha();
+
+        assertEquals(2, estatisticas.getStatements());
+        assertEquals(1, estatisticas.getLinhas());
+        assertEquals(2_000_000, estatisticas.getTempoNanos());
+        assertEquals("db;dur=2.000, sql;desc=\"statements=2 linhas=1\"", estatisticas.serverTiming());
+    }
+
+    @Test
+    void testSqlMaisRepetido_IndicaNMaisUm() {
+        EstatisticasSqlRequisicao estatisticas = EstatisticasSqlRequisicao.iniciar();
+        estatisticas.registrarExecucao("select * from beneficio", 0);
+        for (int i = 0; i < 3; i++) {
+            estatisticas.registrarExecucao("select * from beneficio where id=?", 0);
+        }
+
+        Map.Entry<String, Integer> repetido = estatisticas.sqlMaisRepetido().orElseThrow();
+
+        assertEquals("select * from beneficio where id=?", repetido.getKey());
+        assertEquals(3, repetido.getValue());
+    }
+
+    @Test
+    void testSqlMaisRepetido_SemExecucoes() {
+        assertTrue(EstatisticasSqlRequisicao.iniciar().sqlMaisRepetido().isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.backend.metrics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogAcessoFilterTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("acesso");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void testMotivo_ErroELentaSempreRegistrados() {
+        LogAcessoFilter filter = new LogAcessoFilter(0, Duration.ofMillis(100));
+
+        assertEquals("erro", filter.motivo(503, 0));
+        assertEquals("lenta", filter.motivo(200, Duration.ofMillis(150).toNanos()));
+        assertNull(filter.motivo(200, Duration.ofMillis(50).toNanos()));
+    }
+
+    @Test
+    void testMotivo_Amostragem() {
+        assertEquals("amostra", new LogAcessoFilter(1, Duration.ofSeconds(1)).motivo(200, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LogAcessoFilter(1.5, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testDoFilter_RegistraParesChaveValor() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/beneficios/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/beneficios/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new LogAcessoFilter(1, Duration.ofSeconds(1)).doFilter(request, response, new MockFilterChain());
+
+        assertEquals(1, appender.list.size());
+        Map<String, Object> campos = appender.list.get(0).getKeyValuePairs().stream()
+                .collect(Collectors.toMap(par -> par.key, par -> par.value));
+        assertEquals("GET", campos.get("metodo"));
+        assertEquals("/api/v1/beneficios/{id}", campos.get("rota"));
+        assertEquals("/api/v1/beneficios/1", campos.get("uri"));
+        assertEquals(200, campos.get("status"));
+        assertEquals("amostra", campos.get("motivo"));
+        assertTrue(campos.containsKey("duracao_ms"));
+    }
+
+    @Test
+    void testDoFilter_IgnoraForaDaApi() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+
+        new LogAcessoFilter(1, Duration.ofSeconds(1)).doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertTrue(appender.list.isEmpty());
+    }
+}
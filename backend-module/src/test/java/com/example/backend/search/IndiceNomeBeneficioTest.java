@@ -0,0 +1,136 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.SugestaoNomeDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceNomeBeneficioTest {
+
+    private IndiceNomeBeneficio indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceNomeBeneficio();
+        indice.carregar(List.of(
+                new SugestaoNomeDTO(3L, "Vale Alimentação"),
+                new SugestaoNomeDTO(1L, "Vale Transporte"),
+                new SugestaoNomeDTO(2L, "Auxílio Creche"),
+                new SugestaoNomeDTO(4L, "vale cultura")), 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testBuscar_SubstringIgnoraCaixa() {
+        assertTrue(indice.isCarregado());
+        assertEquals(List.of(1L, 3L, 4L), indice.buscar("VALE"));
+        assertEquals(List.of(1L), indice.buscar("sport"));
+        assertEquals(List.of(), indice.buscar("xyz"));
+    }
+
+    @Test
+    void testBuscar_TrigramasPresentesMasSemSubstring() {
+        // Todos os trigramas de "vale creche" existem no índice, mas em nomes diferentes
+        assertEquals(List.of(), indice.buscar("vale creche"));
+        assertEquals(List.of(1L), indice.buscar("ale tr"));
+    }
+
+    @Test
+    void testBuscar_TermoCurto() {
+        assertEquals(List.of(2L), indice.buscar("ch"));
+        assertEquals(List.of(1L, 2L, 3L, 4L), indice.buscar("a"));
+    }
+
+    @Test
+    void testAutocompletar_OrdemAlfabeticaELimite() {
+        List<SugestaoNomeDTO> sugestoes = indice.autocompletar("vale", 2);
+
+        assertEquals(List.of(new SugestaoNomeDTO(3L, "Vale Alimentação"), new SugestaoNomeDTO(4L, "vale cultura")),
+                sugestoes);
+        assertEquals(List.of(), indice.autocompletar("z", 10));
+    }
+
+    @Test
+    void testAtualizar_ReindexaNome() {
+        indice.atualizarAposTransacao(1L, "Vale Refeição");
+
+        assertEquals(List.of(3L, 4L, 1L), indice.autocompletar("vale", 10).stream()
+                .map(SugestaoNomeDTO::getId).toList());
+        assertEquals(List.of(), indice.buscar("transporte"));
+        assertEquals(List.of(1L), indice.buscar("refei"));
+    }
+
+    @Test
+    void testAtualizar_AplicaSomenteAposCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        indice.atualizarAposTransacao(5L, "Plano de Saúde");
+        assertEquals(List.of(), indice.buscar("plano"));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(List.of(5L), indice.buscar("plano"));
+    }
+
+    @Test
+    void testAtualizarLote_UmaSincronizacaoAposCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        indice.atualizarAposTransacao(Map.of(5L, "Plano de Saúde", 1L, "Plano Odontológico"));
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        assertEquals(List.of(), indice.buscar("plano"));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(List.of(1L, 5L), indice.buscar("plano"));
+        assertEquals(List.of(), indice.buscar("transporte"));
+    }
+
+    @Test
+    void testAtualizar_DescartadaNoRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        indice.atualizarAposTransacao(1L, "Plano de Saúde");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(List.of(1L), indice.buscar("transporte"));
+        assertTrue(indice.isEmRepouso());
+    }
+
+    @Test
+    void testCarregar_RecusadoComAlteracoesDuranteALeitura() {
+        long versao = indice.getVersao();
+        indice.atualizarAposTransacao(5L, "Plano de Saúde");
+
+        // A leitura do banco pode não conter a alteração aplicada depois da versão lida
+        assertFalse(indice.carregar(List.of(), versao));
+        assertEquals(List.of(5L), indice.buscar("plano"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        indice.atualizarAposTransacao(6L, "Plano Odontológico");
+        assertFalse(indice.isEmRepouso());
+        assertFalse(indice.carregar(List.of(), indice.getVersao()));
+    }
+
+    @Test
+    void testCarregar_SubstituiConteudo() {
+        assertTrue(indice.carregar(List.of(new SugestaoNomeDTO(7L, "Vale Gás")), indice.getVersao()));
+
+        assertEquals(List.of(7L), indice.buscar("vale"));
+        assertEquals(List.of(), indice.buscar("creche"));
+    }
+}
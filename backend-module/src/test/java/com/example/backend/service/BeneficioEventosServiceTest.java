@@ -0,0 +1,160 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.AlteracaoBeneficioDTO;
+import com.example.backend.repository.BeneficioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BeneficioEventosServiceTest {
+
+    @Mock
+    private BeneficioRepository repository;
+
+    private SimpleMeterRegistry registry;
+    private BeneficioEventosService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        service = new BeneficioEventosService(repository, new ObjectMapper(), registry,
+                Duration.ofMillis(200), Duration.ofMinutes(1), Duration.ofSeconds(15), 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        service.parar();
+    }
+
+    @Test
+    void testPublicar_SemAssinantesNaoConsultaOBanco() {
+        service.publicarAposTransacao(1L, 2L);
+        service.enviar();
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testEnviar_AgrupaAlteracoesRepetidasEmUmaConsulta() {
+        service.assinar();
+        when(repository.findAlteracoesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new AlteracaoBeneficioDTO(1L, new BigDecimal("700.00"), true, 3L),
+                new AlteracaoBeneficioDTO(2L, new BigDecimal("800.00"), true, 5L)));
+
+        service.publicarAposTransacao(2L, 1L);
+        service.publicarAposTransacao(1L);
+        service.publicarAposTransacao(2L);
+        service.enviar();
+        service.enviar();
+
+        verify(repository, times(1)).findAlteracoesByIdIn(any());
+        assertEquals(2.0, registry.get(BeneficioEventosService.ALTERACOES).counter().count());
+        assertEquals(1.0, registry.get(BeneficioEventosService.CONEXOES).gauge().value());
+    }
+
+    @Test
+    void testPublicar_SomenteAposCommit() {
+        service.assinar();
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.publicarAposTransacao(1L);
+        service.publicarAposTransacao(2L);
+        service.enviar();
+        verifyNoInteractions(repository);
+
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        sincronizacoes.get(0).afterCommit();
+        sincronizacoes.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        service.enviar();
+
+        verify(repository).findAlteracoesByIdIn(List.of(1L));
+    }
+
+    @Test
+    void testEnviar_FalhaNaConsultaMantemPendentes() {
+        service.assinar();
+        when(repository.findAlteracoesByIdIn(List.of(1L)))
+                .thenThrow(new IllegalStateException("banco indisponível"))
+                .thenReturn(List.of(new AlteracaoBeneficioDTO(1L, BigDecimal.TEN, true, 1L)));
+
+        service.publicarAposTransacao(1L);
+        service.enviar();
+        service.enviar();
+
+        verify(repository, times(2)).findAlteracoesByIdIn(List.of(1L));
+        assertEquals(1.0, registry.get(BeneficioEventosService.ALTERACOES).counter().count());
+    }
+
+    @Test
+    void testAssinanteLento_NaoAtrasaOsDemaisEEDescartado() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        SseEmitter lento = new SseEmitter() {
+            @Override
+            public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        CountDownLatch recebidos = new CountDownLatch(5);
+        SseEmitter rapido = new SseEmitter() {
+            @Override
+            public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) {
+                recebidos.countDown();
+            }
+        };
+        when(repository.findAlteracoesByIdIn(List.of(1L)))
+                .thenReturn(List.of(new AlteracaoBeneficioDTO(1L, BigDecimal.TEN, true, 1L)));
+        service.assinar(lento);
+        service.assinar(rapido);
+
+        try {
+            // O lento fica parado no primeiro envio; com a fila (2) cheia, é desconectado
+            for (int i = 0; i < 4; i++) {
+                service.publicarAposTransacao(1L);
+                service.enviar();
+            }
+
+            // Conexão mais as 4 alterações chegam ao rápido enquanto o lento continua parado
+            assertTrue(recebidos.await(5, TimeUnit.SECONDS));
+            assertEquals(1L, liberar.getCount());
+            assertEquals(1.0, registry.get(BeneficioEventosService.DESCARTADOS).counter().count());
+            assertEquals(1.0, registry.get(BeneficioEventosService.CONEXOES).gauge().value());
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    void testIntervalo_Invalido() {
+        assertThrows(IllegalArgumentException.class, () -> new BeneficioEventosService(repository,
+                new ObjectMapper(), new SimpleMeterRegistry(), Duration.ZERO, Duration.ofMinutes(1),
+                Duration.ofSeconds(15), 2));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.backend.service;
+
+import com.example.backend.config.CamposResposta;
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.example.backend.repository.BeneficioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BeneficioExportServiceTest {
+
+    @Mock
+    private BeneficioRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BeneficioExportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BeneficioExportService(repository, objectMapper);
+    }
+
+    @Test
+    void testExportarNdjson_UmObjetoPorLinha() throws Exception {
+        when(repository.streamResponseAll()).thenReturn(Stream.of(
+                new BeneficioResponseDTO(1L, "A", "Desc A", new BigDecimal("10.00"), true, 0L),
+                new BeneficioResponseDTO(2L, "B", null, new BigDecimal("20.00"), false, 3L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long linhas = service.exportarNdjson(out);
+
+        String[] json = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(2, linhas);
+        assertEquals(3, json.length);
+        assertEquals("", json[2]);
+        JsonNode primeiro = objectMapper.readTree(json[0]);
+        JsonNode segundo = objectMapper.readTree(json[1]);
+        assertEquals(1L, primeiro.get("id").asLong());
+        assertEquals("B", segundo.get("nome").asText());
+        assertFalse(segundo.get("ativo").asBoolean());
+    }
+
+    @Test
+    void testExportarNdjson_VariosBlocos() throws Exception {
+        int total = BeneficioRepository.FETCH_SIZE_EXPORTACAO * 2 + 1;
+        when(repository.streamResponseAll()).thenReturn(LongStream.rangeClosed(1, total)
+                .mapToObj(id -> new BeneficioResponseDTO(id, "B" + id, null, BigDecimal.ONE, true, 0L)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long linhas = service.exportarNdjson(out);
+
+        String[] json = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(total, linhas);
+        assertEquals(total, json.length);
+        assertEquals(total, objectMapper.readTree(json[total - 1]).get("id").asLong());
+    }
+
+    @Test
+    void testExportarNdjson_ApenasCamposSelecionados() throws Exception {
+        when(repository.streamResponseAll()).thenReturn(Stream.of(
+                new BeneficioResponseDTO(1L, "A", "Desc A", new BigDecimal("10.00"), true, 0L)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportarNdjson(out, CamposResposta.filtro("id,valor"));
+
+        JsonNode linha = objectMapper.readTree(out.toString(StandardCharsets.UTF_8).trim());
+        assertEquals(2, linha.size());
+        assertEquals(1L, linha.get("id").asLong());
+        assertEquals(0, new BigDecimal("10.00").compareTo(linha.get("valor").decimalValue()));
+    }
+
+    @Test
+    void testExportarNdjson_TabelaVazia() throws Exception {
+        when(repository.streamResponseAll()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(0, service.exportarNdjson(out));
+        assertEquals(0, out.size());
+    }
+}
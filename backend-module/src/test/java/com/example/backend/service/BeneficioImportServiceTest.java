@@ -0,0 +1,153 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioCreateDTO;
+import com.example.backend.dto.ErroImportacaoDTO;
+import com.example.backend.dto.ImportacaoDTO;
+import com.example.backend.exception.ImportacaoNaoEncontradaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BeneficioImportServiceTest {
+
+    @Mock
+    private BeneficioService beneficioService;
+
+    @TempDir
+    private Path diretorio;
+
+    private ValidatorFactory validatorFactory;
+    private SimpleMeterRegistry registry;
+    private BeneficioImportService service;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        registry = new SimpleMeterRegistry();
+        service = new BeneficioImportService(beneficioService, validatorFactory.getValidator(), registry,
+                2, 1, 10, Duration.ofMinutes(5), diretorio, 64);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.parar();
+        validatorFactory.close();
+    }
+
+    @Test
+    void testImportar_GravaEmLotesERejeitaLinhasInvalidas() throws Exception {
+        List<List<BeneficioCreateDTO>> lotes = new ArrayList<>();
+        when(beneficioService.createLote(anyList())).thenAnswer(inv -> {
+            lotes.add(new ArrayList<>(inv.getArgument(0)));
+            return List.of();
+        });
+
+        ImportacaoDTO importacao = importar("""
+                nome,descricao,valor,ativo
+                Vale Alimentação,"Mensal, em cartão",100.00,true
+                ,Sem nome,10.00,
+                Vale Cultura,,abc,
+                Vale Creche,,-5.00,
+                Vale Transporte,,50.00,false
+
+                Auxílio Saúde,,75.50,
+                Só dois campos,10.00
+                """);
+
+        assertEquals(ImportacaoDTO.Status.PENDENTE, importacao.getStatus());
+        ImportacaoDTO concluida = aguardarConclusao(importacao.getId());
+        assertEquals(ImportacaoDTO.Status.CONCLUIDA, concluida.getStatus());
+        assertEquals(7, concluida.getLinhasLidas());
+        assertEquals(3, concluida.getImportadas());
+        assertEquals(4, concluida.getRejeitadas());
+        assertEquals(concluida.getBytesTotal(), concluida.getBytesLidos());
+        assertEquals(List.of(
+                new ErroImportacaoDTO(3, "Nome é obrigatório"),
+                new ErroImportacaoDTO(4, "Valor inválido: abc"),
+                new ErroImportacaoDTO(5, "Valor deve ser positivo"),
+                new ErroImportacaoDTO(9, "Quantidade de colunas inválida: esperado 4, encontrado 2")),
+                concluida.getErros());
+
+        assertEquals(2, lotes.size());
+        assertEquals("Mensal, em cartão", lotes.get(0).get(0).getDescricao());
+        assertFalse(lotes.get(0).get(1).getAtivo());
+        assertEquals(new BigDecimal("75.50"), lotes.get(1).get(0).getValor());
+        assertTrue(lotes.get(1).get(0).getAtivo());
+        assertEquals(3.0, registry.get(BeneficioImportService.LINHAS).tag("resultado", "importada").counter().count());
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            assertEquals(0, arquivos.count(), "Arquivo temporário deve ser removido");
+        }
+    }
+
+    @Test
+    void testImportar_FalhaNaGravacaoRejeitaSomenteOLote() throws Exception {
+        when(beneficioService.createLote(anyList()))
+                .thenThrow(new PessimisticLockingFailureException("timeout"))
+                .thenReturn(List.of());
+
+        ImportacaoDTO importacao = importar("nome,valor\nA,1.00\nB,2.00\nC,3.00\n");
+
+        ImportacaoDTO concluida = aguardarConclusao(importacao.getId());
+        assertEquals(ImportacaoDTO.Status.CONCLUIDA, concluida.getStatus());
+        assertEquals(1, concluida.getImportadas());
+        assertEquals(2, concluida.getRejeitadas());
+        assertEquals(2, concluida.getErros().get(0).getLinha());
+        assertTrue(concluida.getErros().get(0).getMensagem().startsWith("Falha ao gravar as linhas 2 a 3"));
+    }
+
+    @Test
+    void testImportar_ColunaObrigatoriaAusente() throws Exception {
+        ImportacaoDTO importacao = importar("nome,descricao\nA,B\n");
+
+        ImportacaoDTO falha = aguardarConclusao(importacao.getId());
+        assertEquals(ImportacaoDTO.Status.FALHA, falha.getStatus());
+        assertEquals("Coluna obrigatória ausente: valor", falha.getMensagem());
+        verifyNoInteractions(beneficioService);
+    }
+
+    @Test
+    void testConsultar_ImportacaoInexistente() {
+        assertThrows(ImportacaoNaoEncontradaException.class, () -> service.consultar("inexistente"));
+    }
+
+    private ImportacaoDTO importar(String csv) throws Exception {
+        return service.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ImportacaoDTO aguardarConclusao(String id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < limite) {
+            ImportacaoDTO situacao = service.consultar(id);
+            if (situacao.getStatus() == ImportacaoDTO.Status.CONCLUIDA
+                    || situacao.getStatus() == ImportacaoDTO.Status.FALHA) {
+                return situacao;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Importação não concluída: " + id);
+    }
+}
@@ -1,27 +1,51 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.BeneficioCache;
 import com.example.backend.dto.BeneficioCreateDTO;
+import com.example.backend.dto.BeneficioUpdateLoteDTO;
 import com.example.backend.dto.BeneficioResponseDTO;
 import com.example.backend.dto.BeneficioUpdateDTO;
+import com.example.backend.dto.PaginaCursorDTO;
+import com.example.backend.dto.PaginaDTO;
+import com.example.backend.dto.SugestaoNomeDTO;
 import com.example.backend.dto.TransferenciaDTO;
 import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.Lancamento;
+import com.example.backend.estatisticas.EstatisticasBeneficios;
 import com.example.backend.exception.BeneficioNotFoundException;
 import com.example.backend.mapper.BeneficioMapper;
+import com.example.backend.metrics.BeneficioMetricas;
 import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.search.IndiceNomeBeneficio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +57,32 @@ class BeneficioServiceTest {
     @Mock
     private BeneficioMapper mapper;
 
+    @Spy
+    private BeneficioCache cache = new BeneficioCache(100, 100, Duration.ofMinutes(5));
+
+    @Spy
+    private IndiceNomeBeneficio indiceNomes = new IndiceNomeBeneficio();
+
+    @Mock
+    private EstatisticasBeneficios estatisticas;
+
+    @Mock
+    private BeneficioEventosService eventos;
+
+    @Mock
+    private LancamentoService lancamentos;
+
+    @Mock
+    private BeneficioSlotService slots;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Spy
+    private BeneficioMetricas metricas = new BeneficioMetricas(registry);
+
     @InjectMocks
     private BeneficioService service;
 
@@ -43,46 +93,207 @@ class BeneficioServiceTest {
     @BeforeEach
     void setUp() {
         beneficio = new Beneficio(1L, "Beneficio A", "Descrição A", 
-                new BigDecimal("1000.00"), true, 0L);
+                new BigDecimal("1000.00"), true, 0L, 0);
         
         responseDTO = new BeneficioResponseDTO(1L, "Beneficio A", "Descrição A",
                 new BigDecimal("1000.00"), true, 0L);
         
         createDTO = new BeneficioCreateDTO("Beneficio A", "Descrição A",
                 new BigDecimal("1000.00"), true);
+
+        lenient().when(lancamentos.saldoPendente(any())).thenReturn(BigDecimal.ZERO);
     }
 
     @Test
     void testFindAll() {
-        when(repository.findAll()).thenReturn(Arrays.asList(beneficio));
-        when(mapper.toResponseDTO(any())).thenReturn(responseDTO);
+        when(repository.findResponsePagina(0L, Limit.of(51))).thenReturn(Arrays.asList(responseDTO));
 
-        List<BeneficioResponseDTO> result = service.findAll();
+        PaginaCursorDTO<BeneficioResponseDTO> result = service.findAll(null, 50);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(repository).findAll();
+        assertEquals(1, result.getItens().size());
+        assertNull(result.getProximoCursor());
+        verify(repository).findResponsePagina(0L, Limit.of(51));
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void testFindAll_ProximoCursor() {
+        BeneficioResponseDTO segundo = new BeneficioResponseDTO(2L, "Beneficio B", "Descrição B",
+                new BigDecimal("500.00"), true, 0L);
+        when(repository.findResponsePagina(0L, Limit.of(2))).thenReturn(Arrays.asList(responseDTO, segundo));
+
+        PaginaCursorDTO<BeneficioResponseDTO> result = service.findAll(null, 1);
+
+        assertEquals(1, result.getItens().size());
+        assertEquals(1L, result.getProximoCursor());
+    }
+
+    @Test
+    void testFindAtivos_AposCursor() {
+        when(repository.findResponseAtivosPagina(10L, Limit.of(21))).thenReturn(List.of());
+
+        PaginaCursorDTO<BeneficioResponseDTO> result = service.findAtivos(10L, 20);
+
+        assertTrue(result.getItens().isEmpty());
+        assertNull(result.getProximoCursor());
+    }
+
+    @Test
+    void testFindAll_LimiteInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> service.findAll(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.findAll(null, 5000));
+    }
+
+    @Test
+    void testFindPagina_FiltroOrdenacaoETotal() {
+        PageRequest pageRequest = PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "nome")
+                .and(Sort.by(Sort.Direction.DESC, "id")));
+        when(repository.findResponseFiltrada("bene", true, pageRequest))
+                .thenReturn(new PageImpl<>(List.of(responseDTO), pageRequest, 21));
+
+        PaginaDTO<BeneficioResponseDTO> result = service.findPagina(2, 10, "Nome", "desc", " bene ", true);
+
+        assertEquals(List.of(responseDTO), result.getItens());
+        assertEquals(2, result.getPagina());
+        assertEquals(10, result.getTamanho());
+        assertEquals(21, result.getTotal());
+    }
+
+    @Test
+    void testFindPagina_ParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> service.findPagina(-1, 10, "id", "asc", null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.findPagina(0, 0, "id", "asc", null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.findPagina(0, 10, "descricao", "asc", null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.findPagina(0, 10, "id", "para-cima", null, null));
+        verifyNoInteractions(repository);
     }
 
     @Test
     void testFindById_Success() {
-        when(repository.findById(1L)).thenReturn(Optional.of(beneficio));
-        when(mapper.toResponseDTO(beneficio)).thenReturn(responseDTO);
+        when(repository.findResponseById(1L)).thenReturn(Optional.of(responseDTO));
 
         BeneficioResponseDTO result = service.findById(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(repository).findById(1L);
+        verify(repository).findResponseById(1L);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void testFindById_CacheHitEInvalidacao() {
+        when(repository.findResponseById(1L)).thenReturn(Optional.of(responseDTO));
+        when(repository.findById(1L)).thenReturn(Optional.of(beneficio));
+        when(repository.save(beneficio)).thenReturn(beneficio);
+
+        service.findById(1L);
+        service.findById(1L);
+        verify(repository, times(1)).findResponseById(1L);
+
+        service.delete(1L);
+        service.findById(1L);
+        verify(repository, times(2)).findResponseById(1L);
+        verify(cache).invalidarAposTransacao(1L);
     }
 
     @Test
     void testFindById_NotFound() {
-        when(repository.findById(999L)).thenReturn(Optional.empty());
+        when(repository.findResponseById(999L)).thenReturn(Optional.empty());
 
         assertThrows(BeneficioNotFoundException.class, () -> service.findById(999L));
     }
 
+    @Test
+    void testFindVersion() {
+        when(repository.findVersionById(1L)).thenReturn(Optional.of(3L));
+
+        assertEquals(3L, service.findVersion(1L));
+        verify(repository, never()).findResponseById(any());
+    }
+
+    @Test
+    void testFindVersion_NotFound() {
+        when(repository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(BeneficioNotFoundException.class, () -> service.findVersion(999L));
+    }
+
+    @Test
+    void testFindByNome() {
+        when(repository.findResponseByNomeContainingIgnoreCase("bene")).thenReturn(List.of(responseDTO));
+
+        List<BeneficioResponseDTO> result = service.findByNome("bene");
+
+        assertEquals(1, result.size());
+        verifyNoInteractions(mapper);
+    }
+
+    @Test
+    void testFindByNome_UsaIndice() {
+        indiceNomes.carregar(List.of(new SugestaoNomeDTO(1L, "Beneficio A"), new SugestaoNomeDTO(2L, "Outro")), 0L);
+        when(repository.findResponseByIdIn(List.of(1L))).thenReturn(List.of(responseDTO));
+
+        List<BeneficioResponseDTO> result = service.findByNome("BENE");
+
+        assertEquals(List.of(responseDTO), result);
+        verify(repository, never()).findResponseByNomeContainingIgnoreCase(anyString());
+    }
+
+    @Test
+    void testFindByNome_DescartaEntradaDefasadaDoIndice() {
+        // O índice ainda tem o nome antigo do benefício 2, renomeado por outra instância
+        indiceNomes.carregar(List.of(new SugestaoNomeDTO(1L, "Beneficio A"), new SugestaoNomeDTO(2L, "Beneficio B")),
+                0L);
+        BeneficioResponseDTO renomeado = new BeneficioResponseDTO(2L, "Outro", "Descrição B",
+                new BigDecimal("500.00"), true, 1L);
+        when(repository.findResponseByIdIn(List.of(1L, 2L))).thenReturn(List.of(responseDTO, renomeado));
+
+        assertEquals(List.of(responseDTO), service.findByNome("beneficio"));
+    }
+
+    @Test
+    void testAutocompletar_BancoEnquantoIndiceNaoCarregado() {
+        List<SugestaoNomeDTO> sugestoes = List.of(new SugestaoNomeDTO(1L, "Beneficio A"));
+        when(repository.findSugestoesByNomePrefixo("bene", Limit.of(10))).thenReturn(sugestoes);
+
+        assertEquals(sugestoes, service.autocompletar("bene", 10));
+    }
+
+    @Test
+    void testCarregarIndiceNomes() {
+        when(repository.findAllNomes()).thenReturn(List.of(new SugestaoNomeDTO(1L, "Beneficio A")));
+
+        service.carregarIndiceNomes();
+
+        assertTrue(indiceNomes.isCarregado());
+        assertEquals(List.of(new SugestaoNomeDTO(1L, "Beneficio A")), service.autocompletar("bene", 10));
+        verify(repository, never()).findSugestoesByNomePrefixo(anyString(), any());
+    }
+
+    @Test
+    void testUpdate_ReindexaNome() {
+        indiceNomes.carregar(List.of(new SugestaoNomeDTO(1L, "Beneficio A")), 0L);
+        BeneficioUpdateDTO dto = new BeneficioUpdateDTO("Vale Cultura", "Descrição", new BigDecimal("1000.00"), true);
+        when(repository.findById(1L)).thenReturn(Optional.of(beneficio));
+        when(repository.save(beneficio)).thenReturn(beneficio);
+        doAnswer(invocation -> {
+            beneficio.setNome("Vale Cultura");
+            return null;
+        }).when(mapper).updateEntity(beneficio, dto);
+
+        service.update(1L, dto);
+
+        assertEquals(List.of(1L), indiceNomes.buscar("cultura"));
+        assertTrue(indiceNomes.buscar("beneficio").isEmpty());
+    }
+
+    @Test
+    void testAutocompletar_LimiteInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> service.autocompletar("be", 0));
+        assertThrows(IllegalArgumentException.class, () -> service.autocompletar(" ", 10));
+    }
+
     @Test
     void testCreate() {
         when(mapper.toEntity(createDTO)).thenReturn(beneficio);
@@ -93,6 +304,7 @@ class BeneficioServiceTest {
 
         assertNotNull(result);
         verify(repository).save(beneficio);
+        verify(lancamentos).registrar(1L, Lancamento.Tipo.CRIACAO, new BigDecimal("1000.00"), true);
     }
 
     @Test
@@ -108,6 +320,145 @@ class BeneficioServiceTest {
 
         assertNotNull(result);
         verify(repository).save(beneficio);
+        verify(lancamentos).registrar(1L, Lancamento.Tipo.AJUSTE, new BigDecimal("500.00"), true);
+        verify(estatisticas).definirAposTransacao(1L, new BigDecimal("1500.00"), true);
+        verify(eventos).publicarAposTransacao(1L);
+    }
+
+    @Test
+    void testUpdateLedger_AjustePendente() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.LEDGER);
+        BeneficioUpdateDTO updateDTO = new BeneficioUpdateDTO("Beneficio A", "Descrição A",
+                new BigDecimal("1500.00"), true);
+        when(repository.findByIdForUpdate(1L)).thenReturn(Optional.of(beneficio));
+        when(lancamentos.saldoPendente(1L)).thenReturn(new BigDecimal("200.00"));
+        when(repository.save(beneficio)).thenReturn(beneficio);
+        when(mapper.toResponseDTO(beneficio)).thenReturn(responseDTO);
+
+        BeneficioResponseDTO result = service.update(1L, updateDTO);
+
+        // Snapshot intacto; a diferença para o saldo (1000 + 200) fica pendente no diário
+        assertEquals(new BigDecimal("1000.00"), beneficio.getValor());
+        assertEquals(new BigDecimal("1500.00"), result.getValor());
+        verify(lancamentos).registrar(1L, Lancamento.Tipo.AJUSTE, new BigDecimal("300.00"), false);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void testUpdateParticionado_RedistribuiAjusteNosSlots() {
+        BeneficioUpdateDTO updateDTO = new BeneficioUpdateDTO("Beneficio A", "Descrição A",
+                new BigDecimal("1500.00"), true);
+        beneficio.setValor(BigDecimal.ZERO);
+        beneficio.setSlots(4);
+        when(repository.findById(1L)).thenReturn(Optional.of(beneficio));
+        when(slots.redefinir(1L, new BigDecimal("1500.00"))).thenReturn(new BigDecimal("1200.00"));
+        when(repository.save(beneficio)).thenReturn(beneficio);
+        when(mapper.toResponseDTO(beneficio)).thenReturn(responseDTO);
+
+        BeneficioResponseDTO result = service.update(1L, updateDTO);
+
+        // Benefício particionado bloqueado antes dos slots; os slots passam a somar 1500
+        // e o diário registra a diferença para a soma anterior (1200)
+        InOrder ordem = inOrder(entityManager, slots);
+        ordem.verify(entityManager).refresh(beneficio, LockModeType.PESSIMISTIC_WRITE);
+        ordem.verify(slots).redefinir(1L, new BigDecimal("1500.00"));
+        assertEquals(BigDecimal.ZERO, beneficio.getValor());
+        assertEquals(new BigDecimal("1500.00"), result.getValor());
+        verify(lancamentos).registrar(1L, Lancamento.Tipo.AJUSTE, new BigDecimal("300.00"), true);
+    }
+
+    @Test
+    void testUpdateParticionado_ConsolidacaoEntreLeituraEBloqueio() {
+        BeneficioUpdateDTO updateDTO = new BeneficioUpdateDTO("Beneficio A", "Descrição A",
+                new BigDecimal("1500.00"), true);
+        beneficio.setValor(new BigDecimal("300.00"));
+        beneficio.setSlots(4);
+        when(repository.findById(1L)).thenReturn(Optional.of(beneficio));
+        // Consolidação concorrente move os 300 do VALOR para os slots antes do bloqueio
+        doAnswer(invocacao -> {
+            beneficio.setValor(BigDecimal.ZERO);
+            return null;
+        }).when(entityManager).refresh(beneficio, LockModeType.PESSIMISTIC_WRITE);
+        when(slots.redefinir(1L, new BigDecimal("1500.00"))).thenReturn(new BigDecimal("1500.00"));
+        when(repository.save(beneficio)).thenReturn(beneficio);
+        when(mapper.toResponseDTO(beneficio)).thenReturn(responseDTO);
+
+        service.update(1L, updateDTO);
+
+        // O ajuste parte do VALOR relido com o lock (0), não do lido antes (300): o saldo final é 1500
+        verify(slots).redefinir(1L, new BigDecimal("1500.00"));
+        assertEquals(BigDecimal.ZERO, beneficio.getValor());
+        verify(lancamentos, never()).registrar(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testCreateLote_FlushELimpezaPorChunk() {
+        ReflectionTestUtils.setField(service, "tamanhoChunkCadastro", 2);
+        BeneficioMapper mapeador = new BeneficioMapper();
+        when(mapper.toEntity(any())).thenAnswer(inv -> mapeador.toEntity(inv.getArgument(0)));
+        when(mapper.toResponseDTO(any())).thenAnswer(inv -> mapeador.toResponseDTO(inv.getArgument(0)));
+        long[] proximoId = {10L};
+        when(repository.saveAll(any())).thenAnswer(inv -> {
+            List<Beneficio> beneficios = inv.getArgument(0);
+            beneficios.forEach(b -> b.setId(proximoId[0]++));
+            return beneficios;
+        });
+
+        List<BeneficioResponseDTO> result = service.createLote(List.of(
+                new BeneficioCreateDTO("Vale Cultura", null, new BigDecimal("10.00"), true),
+                new BeneficioCreateDTO("Vale Creche", null, new BigDecimal("20.00"), true),
+                new BeneficioCreateDTO("Auxílio Home Office", null, new BigDecimal("30.00"), true)));
+
+        assertEquals(List.of(10L, 11L, 12L), result.stream().map(BeneficioResponseDTO::getId).toList());
+        verify(repository, times(2)).saveAll(any());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(lancamentos).registrar(12L, Lancamento.Tipo.CRIACAO, new BigDecimal("30.00"), true);
+        assertEquals(List.of(10L, 11L), indiceNomes.buscar("vale"));
+    }
+
+    @Test
+    void testUpdateLote_BloqueiaEmOrdemERespondeNaOrdemDoLote() {
+        Beneficio outro = new Beneficio(2L, "Beneficio B", null, new BigDecimal("500.00"), true, 0L, 0);
+        BeneficioMapper mapeador = new BeneficioMapper();
+        when(mapper.toResponseDTO(any())).thenAnswer(inv -> mapeador.toResponseDTO(inv.getArgument(0)));
+        when(repository.findAllByIdForUpdate(List.of(1L, 2L))).thenReturn(List.of(beneficio, outro));
+        when(lancamentos.saldosPendentes(List.of(1L, 2L))).thenReturn(Map.of(2L, new BigDecimal("100.00")));
+
+        List<BeneficioResponseDTO> result = service.updateLote(List.of(
+                new BeneficioUpdateLoteDTO.Item(2L, "Beneficio B", null, new BigDecimal("700.00"), true),
+                new BeneficioUpdateLoteDTO.Item(1L, "Beneficio A", null, new BigDecimal("900.00"), true)));
+
+        assertEquals(List.of(2L, 1L), result.stream().map(BeneficioResponseDTO::getId).toList());
+        // Saldo de B = 500 + 100 pendentes: ajuste de 100 aplicado ao VALOR; a resposta informa o saldo
+        assertEquals(new BigDecimal("600.00"), outro.getValor());
+        assertEquals(new BigDecimal("700.00"), result.get(0).getValor());
+        assertEquals(new BigDecimal("900.00"), beneficio.getValor());
+        verify(lancamentos).registrar(2L, Lancamento.Tipo.AJUSTE, new BigDecimal("100.00"), true);
+        verify(lancamentos).registrar(1L, Lancamento.Tipo.AJUSTE, new BigDecimal("-100.00"), true);
+        verify(entityManager).flush();
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void testUpdateLote_IdRepetido() {
+        List<BeneficioUpdateLoteDTO.Item> itens = List.of(
+                new BeneficioUpdateLoteDTO.Item(1L, "A", null, BigDecimal.ONE, true),
+                new BeneficioUpdateLoteDTO.Item(1L, "B", null, BigDecimal.TEN, true));
+
+        assertThrows(IllegalArgumentException.class, () -> service.updateLote(itens));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testUpdateLote_BeneficioNaoEncontrado() {
+        when(repository.findAllByIdForUpdate(List.of(1L, 99L))).thenReturn(List.of(beneficio));
+
+        BeneficioNotFoundException ex = assertThrows(BeneficioNotFoundException.class, () -> service.updateLote(List.of(
+                new BeneficioUpdateLoteDTO.Item(99L, "X", null, BigDecimal.ONE, true),
+                new BeneficioUpdateLoteDTO.Item(1L, "A", null, BigDecimal.TEN, true))));
+        assertTrue(ex.getMessage().contains("99"));
+        verify(entityManager, never()).flush();
     }
 
     @Test
@@ -118,12 +469,14 @@ class BeneficioServiceTest {
 
         assertFalse(beneficio.getAtivo());
         verify(repository).save(beneficio);
+        verify(estatisticas).desativarAposTransacao(1L);
+        verify(eventos).publicarAposTransacao(1L);
     }
 
     @Test
     void testTransfer_Success() {
-        Beneficio from = new Beneficio(1L, "From", "Desc", new BigDecimal("1000.00"), true, 0L);
-        Beneficio to = new Beneficio(2L, "To", "Desc", new BigDecimal("500.00"), true, 0L);
+        Beneficio from = new Beneficio(1L, "From", "Desc", new BigDecimal("1000.00"), true, 0L, 0);
+        Beneficio to = new Beneficio(2L, "To", "Desc", new BigDecimal("500.00"), true, 0L, 0);
         TransferenciaDTO dto = new TransferenciaDTO(1L, 2L, new BigDecimal("300.00"));
 
         when(repository.findById(1L)).thenReturn(Optional.of(from));
@@ -134,12 +487,30 @@ class BeneficioServiceTest {
         assertEquals(new BigDecimal("700.00"), from.getValor());
         assertEquals(new BigDecimal("800.00"), to.getValor());
         verify(repository, times(2)).save(any());
+        verify(lancamentos).registrarTransferencia(dto, true);
+        verify(estatisticas).ajustarAposTransacao(Map.of(1L, new BigDecimal("-300.00"), 2L, new BigDecimal("300.00")));
+        verify(eventos).publicarAposTransacao(1L, 2L);
+    }
+
+    @Test
+    void testTransfer_SaldoIncluiLancamentosPendentes() {
+        Beneficio from = new Beneficio(1L, "From", "Desc", new BigDecimal("1000.00"), true, 0L, 0);
+        Beneficio to = new Beneficio(2L, "To", "Desc", new BigDecimal("500.00"), true, 0L, 0);
+        TransferenciaDTO dto = new TransferenciaDTO(1L, 2L, new BigDecimal("300.00"));
+
+        when(repository.findById(1L)).thenReturn(Optional.of(from));
+        when(repository.findById(2L)).thenReturn(Optional.of(to));
+        when(lancamentos.saldoPendente(1L)).thenReturn(new BigDecimal("-800.00"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.transfer(dto));
+        assertTrue(ex.getMessage().contains("Disponível: 200.00"));
+        verify(lancamentos, never()).registrarTransferencia(any(), anyBoolean());
     }
 
     @Test
     void testTransfer_InsufficientBalance() {
-        Beneficio from = new Beneficio(1L, "From", "Desc", new BigDecimal("100.00"), true, 0L);
-        Beneficio to = new Beneficio(2L, "To", "Desc", new BigDecimal("500.00"), true, 0L);
+        Beneficio from = new Beneficio(1L, "From", "Desc", new BigDecimal("100.00"), true, 0L, 0);
+        Beneficio to = new Beneficio(2L, "To", "Desc", new BigDecimal("500.00"), true, 0L, 0);
         TransferenciaDTO dto = new TransferenciaDTO(1L, 2L, new BigDecimal("300.00"));
 
         when(repository.findById(1L)).thenReturn(Optional.of(from));
@@ -154,4 +525,117 @@ class BeneficioServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> service.transfer(dto));
     }
+
+    @Test
+    void testTransferAtomico_Success() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.ATOMICO);
+        TransferenciaDTO dto = new TransferenciaDTO(1L, 2L, new BigDecimal("300.00"));
+
+        when(repository.debitar(1L, dto.getAmount())).thenReturn(1);
+        when(repository.creditar(2L, dto.getAmount())).thenReturn(1);
+
+        service.transfer(dto);
+
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+        verify(lancamentos).registrarTransferencia(dto, true);
+    }
+
+    @Test
+    void testTransferLedger_BloqueiaSomenteOrigem() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.LEDGER);
+        Beneficio from = new Beneficio(1L, "From", "Desc", new BigDecimal("100.00"), true, 0L, 0);
+        Beneficio to = new Beneficio(2L, "To", "Desc", new BigDecimal("500.00"), true, 0L, 0);
+        TransferenciaDTO dto = new TransferenciaDTO(1L, 2L, new BigDecimal("300.00"));
+
+        when(repository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(repository.findById(2L)).thenReturn(Optional.of(to));
+        when(lancamentos.saldoPendente(1L)).thenReturn(new BigDecimal("250.00"));
+
+        service.transfer(dto);
+
+        // Saldo 100 + 250 pendentes; nenhuma linha de BENEFICIO é alterada
+        assertEquals(new BigDecimal("100.00"), from.getValor());
+        assertEquals(new BigDecimal("500.00"), to.getValor());
+        verify(lancamentos).registrarTransferencia(dto, false);
+        verify(repository, never()).findByIdForUpdate(2L);
+        verify(repository, never()).save(any());
+        assertEquals(1, registry.get(BeneficioMetricas.ESPERA_LOCK).tag("operacao", "transferencia_ledger").timer()
+                .count());
+    }
+
+    @Test
+    void testTransferLedger_DestinoInativo() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.LEDGER);
+        Beneficio from = new Beneficio(1L, "From", "Desc", new BigDecimal("1000.00"), true, 0L, 0);
+        Beneficio to = new Beneficio(2L, "To", "Desc", new BigDecimal("500.00"), false, 0L, 0);
+        TransferenciaDTO dto = new TransferenciaDTO(1L, 2L, new BigDecimal("300.00"));
+
+        when(repository.findByIdForUpdate(1L)).thenReturn(Optional.of(from));
+        when(repository.findById(2L)).thenReturn(Optional.of(to));
+
+        assertThrows(IllegalArgumentException.class, () -> service.transfer(dto));
+        verify(lancamentos, never()).registrarTransferencia(any(), anyBoolean());
+    }
+
+    @Test
+    void testTransferAtomico_InsufficientBalance() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.ATOMICO);
+        Beneficio from = new Beneficio(1L, "From", "Desc", new BigDecimal("100.00"), true, 0L, 0);
+        TransferenciaDTO dto = new TransferenciaDTO(1L, 2L, new BigDecimal("300.00"));
+
+        when(repository.debitar(1L, dto.getAmount())).thenReturn(0);
+        when(repository.findById(1L)).thenReturn(Optional.of(from));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.transfer(dto));
+        assertTrue(ex.getMessage().contains("Saldo insuficiente"));
+        verify(repository, never()).creditar(any(), any());
+    }
+
+    @Test
+    void testTransferAtomico_DestinoNaoEncontrado() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.ATOMICO);
+        TransferenciaDTO dto = new TransferenciaDTO(2L, 1L, new BigDecimal("300.00"));
+
+        when(repository.creditar(1L, dto.getAmount())).thenReturn(0);
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(BeneficioNotFoundException.class, () -> service.transfer(dto));
+        verify(repository, never()).debitar(any(), any());
+    }
+
+    @Test
+    void testTransferParticionado_DebitaSlotECreditaDestino() {
+        Beneficio from = new Beneficio(1L, "From", "Desc", BigDecimal.ZERO, true, 0L, 4);
+        Beneficio to = new Beneficio(2L, "To", "Desc", new BigDecimal("500.00"), true, 0L, 0);
+        TransferenciaDTO dto = new TransferenciaDTO(1L, 2L, new BigDecimal("300.00"));
+
+        when(repository.findById(1L)).thenReturn(Optional.of(from));
+        when(repository.findById(2L)).thenReturn(Optional.of(to));
+        when(repository.findSlotsById(1L)).thenReturn(Optional.of(4));
+        when(repository.creditar(2L, dto.getAmount())).thenReturn(1);
+
+        service.transfer(dto);
+
+        // O UPDATE condicional da origem recusa o benefício particionado (SLOTS lido na própria linha):
+        // slot aleatório na origem, UPDATE condicional no destino
+        verify(repository).debitar(1L, dto.getAmount());
+        verify(slots).debitar(1L, dto.getAmount());
+        verify(repository, never()).findByIdForUpdate(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testTransferParticionado_DestinoInativo() {
+        Beneficio from = new Beneficio(2L, "From", "Desc", new BigDecimal("500.00"), true, 0L, 0);
+        Beneficio to = new Beneficio(1L, "To", "Desc", BigDecimal.ZERO, false, 0L, 4);
+        TransferenciaDTO dto = new TransferenciaDTO(2L, 1L, new BigDecimal("300.00"));
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.ATOMICO);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(to));
+
+        assertThrows(IllegalArgumentException.class, () -> service.transfer(dto));
+        verify(slots, never()).creditar(any(), anyInt(), any());
+        verify(repository, never()).debitar(any(), any());
+    }
 }
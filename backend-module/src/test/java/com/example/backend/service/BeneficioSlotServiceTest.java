@@ -0,0 +1,179 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.SaldoSlotDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.exception.BeneficioNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.BeneficioSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BeneficioSlotServiceTest {
+
+    @Mock
+    private BeneficioSlotRepository repository;
+
+    @Mock
+    private BeneficioRepository beneficioRepository;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection conexao;
+
+    @Mock
+    private Savepoint savepoint;
+
+    private SimpleMeterRegistry registry;
+    private BeneficioSlotService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        registry = new SimpleMeterRegistry();
+        service = new BeneficioSlotService(repository, beneficioRepository,
+                new BeneficioCache(100, 100, Duration.ofMinutes(5)), new BeneficioMetricas(registry), dataSource,
+                registry, 8);
+
+        lenient().when(dataSource.getConnection()).thenReturn(conexao);
+        lenient().when(conexao.setSavepoint()).thenReturn(savepoint);
+    }
+
+    @Test
+    void testDistribuir_RestoNoPrimeiroSlot() {
+        assertEquals(List.of(new BigDecimal("33.34"), new BigDecimal("33.33"), new BigDecimal("33.33")),
+                BeneficioSlotService.distribuir(new BigDecimal("100.00"), 3));
+        assertEquals(List.of(new BigDecimal("0.01"), new BigDecimal("0.00")),
+                BeneficioSlotService.distribuir(new BigDecimal("0.01"), 2));
+    }
+
+    @Test
+    void testParticionar_MarcaSlotsComBeneficioBloqueado() {
+        when(beneficioRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(beneficio(0)));
+
+        service.particionar(1L, 4);
+
+        verify(repository, times(4)).save(any());
+        verify(beneficioRepository).particionar(1L, new BigDecimal("100.00"), 4);
+        verify(beneficioRepository, never()).moverParaSlots(any(), any());
+        assertEquals(1, registry.get(BeneficioMetricas.ESPERA_LOCK).tag("operacao", "particionamento").timer()
+                .count());
+    }
+
+    @Test
+    void testParticionar_JaParticionado() {
+        when(beneficioRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(beneficio(4)));
+
+        assertThrows(IllegalArgumentException.class, () -> service.particionar(1L, 4));
+        verify(repository, never()).save(any());
+        verify(beneficioRepository, never()).particionar(any(), any(), anyInt());
+    }
+
+    @Test
+    void testDebitar_SlotComSaldo() throws SQLException {
+        when(repository.findSaldos(1L)).thenReturn(List.of(
+                slot(0, "5.00"), slot(1, "50.00"), slot(2, "5.00"), slot(3, "5.00")));
+        when(repository.debitar(1L, 1, new BigDecimal("10.00"))).thenReturn(1);
+
+        service.debitar(1L, new BigDecimal("10.00"));
+
+        // Único slot com saldo suficiente; o savepoint é liberado sem rollback
+        verify(conexao).releaseSavepoint(savepoint);
+        verify(conexao, never()).rollback(any(Savepoint.class));
+        verify(beneficioRepository, never()).findValorByIdForUpdate(any());
+        assertEquals(0.0, registry.get(BeneficioSlotService.CONSOLIDACOES).counter().count());
+    }
+
+    @Test
+    void testDebitar_SlotPerdeuSaldoVoltaAoSavepoint() throws SQLException {
+        when(repository.findSaldos(1L)).thenReturn(List.of(slot(0, "50.00"), slot(1, "0.00")));
+        when(repository.debitar(1L, 0, new BigDecimal("40.00"))).thenReturn(0);
+        when(beneficioRepository.findValorByIdForUpdate(1L)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(repository.findSaldosForUpdate(1L)).thenReturn(List.of(slot(0, "45.00"), slot(1, "0.00")));
+
+        service.debitar(1L, new BigDecimal("40.00"));
+
+        // O lock do slot que falhou é liberado antes de a consolidação bloquear o benefício
+        InOrder ordem = inOrder(conexao, beneficioRepository);
+        ordem.verify(conexao).rollback(savepoint);
+        ordem.verify(beneficioRepository).findValorByIdForUpdate(1L);
+        verify(repository).definir(1L, 0, new BigDecimal("2.50"));
+        verify(repository).definir(1L, 1, new BigDecimal("2.50"));
+    }
+
+    @Test
+    void testDebitar_SemSlotComSaldoConsolida() {
+        when(repository.findSaldos(1L)).thenReturn(List.of(slot(0, "20.00"), slot(1, "30.00")));
+        when(beneficioRepository.findValorByIdForUpdate(1L)).thenReturn(Optional.of(new BigDecimal("5.00")));
+        when(repository.findSaldosForUpdate(1L)).thenReturn(List.of(slot(0, "20.00"), slot(1, "30.00")));
+
+        service.debitar(1L, new BigDecimal("40.00"));
+
+        // Total 5 + 20 + 30 = 55: o VALOR vai para os slots e os 15 restantes são redistribuídos
+        verify(repository, never()).debitar(any(), anyInt(), any());
+        verify(beneficioRepository).moverParaSlots(1L, new BigDecimal("5.00"));
+        verify(repository).definir(1L, 0, new BigDecimal("7.50"));
+        verify(repository).definir(1L, 1, new BigDecimal("7.50"));
+        assertEquals(1.0, registry.get(BeneficioSlotService.CONSOLIDACOES).counter().count());
+    }
+
+    @Test
+    void testDebitar_SaldoInsuficienteNaConsolidacao() {
+        when(repository.findSaldos(1L)).thenReturn(List.of(slot(0, "20.00"), slot(1, "30.00")));
+        when(beneficioRepository.findValorByIdForUpdate(1L)).thenReturn(Optional.of(BigDecimal.ZERO));
+        when(repository.findSaldosForUpdate(1L)).thenReturn(List.of(slot(0, "20.00"), slot(1, "30.00")));
+
+        SaldoInsuficienteException ex = assertThrows(SaldoInsuficienteException.class,
+                () -> service.debitar(1L, new BigDecimal("60.00")));
+
+        assertTrue(ex.getMessage().contains("Disponível: 50.00"));
+        verify(repository, never()).definir(any(), anyInt(), any());
+        verify(beneficioRepository, never()).moverParaSlots(any(), any());
+    }
+
+    @Test
+    void testParticionar_Validacoes() {
+        assertThrows(IllegalArgumentException.class, () -> service.particionar(1L, 1));
+        assertThrows(IllegalArgumentException.class, () -> service.particionar(1L, 9));
+
+        when(beneficioRepository.findByIdForUpdate(99L)).thenReturn(Optional.empty());
+        assertThrows(BeneficioNotFoundException.class, () -> service.particionar(99L, 4));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testCreditar_NaoParticionado() {
+        assertThrows(IllegalStateException.class, () -> service.creditar(1L, 0, BigDecimal.ONE));
+    }
+
+    private static Beneficio beneficio(int slots) {
+        return new Beneficio(1L, "Quente", null, new BigDecimal("100.00"), true, 0L, slots);
+    }
+
+    private static SaldoSlotDTO slot(int slot, String valor) {
+        return new SaldoSlotDTO(1L, slot, new BigDecimal(valor));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.LancamentoDTO;
+import com.example.backend.dto.PaginaCursorDTO;
+import com.example.backend.dto.SaldoPendenteDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.Lancamento;
+import com.example.backend.exception.BeneficioNotFoundException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.LancamentoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LancamentoServiceTest {
+
+    @Mock
+    private LancamentoRepository repository;
+
+    @Mock
+    private BeneficioRepository beneficioRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry registry;
+    private LancamentoService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        service = new LancamentoService(repository, beneficioRepository, transactionTemplate,
+                new BeneficioCache(100, 100, Duration.ofMinutes(5)), new BeneficioMetricas(registry), registry,
+                10, 100, ModoTransferencia.LEDGER);
+
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            TransactionCallback<?> callback = inv.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+    }
+
+    @Test
+    void testRegistrarTransferencia_DebitoECreditoComMesmaReferencia() {
+        service.registrarTransferencia(new TransferenciaDTO(1L, 2L, new BigDecimal("300.00")), false);
+
+        ArgumentCaptor<Lancamento> captor = ArgumentCaptor.forClass(Lancamento.class);
+        verify(repository, times(2)).save(captor.capture());
+        Lancamento debito = captor.getAllValues().get(0);
+        Lancamento credito = captor.getAllValues().get(1);
+        assertEquals(Lancamento.Tipo.DEBITO, debito.getTipo());
+        assertEquals(1L, debito.getBeneficioId());
+        assertEquals(new BigDecimal("-300.00"), debito.getValor());
+        assertEquals(Lancamento.Tipo.CREDITO, credito.getTipo());
+        assertEquals(2L, credito.getBeneficioId());
+        assertEquals(new BigDecimal("300.00"), credito.getValor());
+        assertNotNull(debito.getReferencia());
+        assertEquals(debito.getReferencia(), credito.getReferencia());
+        assertFalse(debito.getCompactado());
+        assertFalse(credito.getCompactado());
+    }
+
+    @Test
+    void testForaDoModoLedger_NaoGravaNemConsultaDiario() {
+        LancamentoService atomico = new LancamentoService(repository, beneficioRepository, transactionTemplate,
+                new BeneficioCache(100, 100, Duration.ofMinutes(5)), new BeneficioMetricas(registry), registry,
+                10, 100, ModoTransferencia.ATOMICO);
+
+        atomico.registrarTransferencia(new TransferenciaDTO(1L, 2L, new BigDecimal("300.00")), true);
+        atomico.registrar(1L, Lancamento.Tipo.AJUSTE, BigDecimal.TEN, true);
+
+        assertEquals(BigDecimal.ZERO, atomico.saldoPendente(1L));
+        assertTrue(atomico.saldosPendentes(List.of(1L, 2L)).isEmpty());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testCompactarRemanescentes_ForaDoModoLedgerAteEsvaziar() {
+        LancamentoService atomico = new LancamentoService(repository, beneficioRepository, transactionTemplate,
+                new BeneficioCache(100, 100, Duration.ofMinutes(5)), new BeneficioMetricas(registry), registry,
+                10, 100, ModoTransferencia.ATOMICO);
+        when(repository.findBeneficiosComPendencias(Limit.of(10))).thenReturn(List.of(1L), List.of());
+        when(beneficioRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(beneficio(1L)));
+        when(repository.findPendentes(1L, Limit.of(100))).thenReturn(List.of(pendente(10L, 1L, "50.00")));
+
+        atomico.compactarRemanescentes();
+        service.compactarRemanescentes();
+
+        verify(beneficioRepository).compactar(1L, new BigDecimal("50.00"), 1);
+        verify(repository, times(2)).findBeneficiosComPendencias(any());
+    }
+
+    @Test
+    void testSaldosPendentes_PorBeneficio() {
+        when(repository.somaPendentePorBeneficio(List.of(1L, 2L)))
+                .thenReturn(List.of(new SaldoPendenteDTO(2L, new BigDecimal("15.00"))));
+
+        Map<Long, BigDecimal> saldos = service.saldosPendentes(List.of(1L, 2L));
+
+        assertEquals(Map.of(2L, new BigDecimal("15.00")), saldos);
+        assertTrue(service.saldosPendentes(List.of()).isEmpty());
+        verify(repository, times(1)).somaPendentePorBeneficio(any());
+    }
+
+    @Test
+    void testCompactar_SomaPendentesAoSnapshot() {
+        when(beneficioRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(beneficio(1L)));
+        when(repository.findPendentes(1L, Limit.of(100))).thenReturn(List.of(
+                pendente(10L, 1L, "-300.00"), pendente(11L, 1L, "50.00")));
+
+        int compactados = service.compactar(1L);
+
+        assertEquals(2, compactados);
+        verify(repository).marcarCompactados(List.of(10L, 11L));
+        verify(beneficioRepository).compactar(1L, new BigDecimal("-250.00"), 2);
+        assertEquals(2.0, registry.get(LancamentoService.COMPACTADOS).counter().count());
+        assertEquals(1, registry.get(BeneficioMetricas.ESPERA_LOCK).tag("operacao", "compactacao").timer().count());
+    }
+
+    @Test
+    void testCompactar_SemPendentes() {
+        when(beneficioRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(beneficio(1L)));
+        when(repository.findPendentes(1L, Limit.of(100))).thenReturn(List.of());
+
+        assertEquals(0, service.compactar(1L));
+        verify(repository, never()).marcarCompactados(any());
+        verify(beneficioRepository, never()).compactar(any(), any(), anyLong());
+    }
+
+    @Test
+    void testCompactarPendentes_FalhaNaoInterrompeDemais() {
+        when(repository.findBeneficiosComPendencias(Limit.of(10))).thenReturn(List.of(1L, 2L));
+        when(beneficioRepository.findByIdForUpdate(1L)).thenThrow(new PessimisticLockingFailureException("timeout"));
+        when(beneficioRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(beneficio(2L)));
+        when(repository.findPendentes(2L, Limit.of(100))).thenReturn(List.of(pendente(20L, 2L, "300.00")));
+
+        int compactados = service.compactarPendentes();
+
+        assertEquals(1, compactados);
+        verify(beneficioRepository).compactar(2L, new BigDecimal("300.00"), 1);
+    }
+
+    @Test
+    void testFindHistorico_ProximoCursor() {
+        when(beneficioRepository.existsById(1L)).thenReturn(true);
+        when(repository.findHistorico(1L, 0L, Limit.of(3))).thenReturn(List.of(
+                historico(10L), historico(11L), historico(12L)));
+
+        PaginaCursorDTO<LancamentoDTO> pagina = service.findHistorico(1L, null, 2);
+
+        assertEquals(2, pagina.getItens().size());
+        assertEquals(11L, pagina.getProximoCursor());
+    }
+
+    @Test
+    void testFindHistorico_BeneficioNaoEncontrado() {
+        when(beneficioRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(BeneficioNotFoundException.class, () -> service.findHistorico(99L, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.findHistorico(1L, null, 0));
+    }
+
+    private static Beneficio beneficio(Long id) {
+        return new Beneficio(id, "B" + id, null, new BigDecimal("1000.00"), true, 0L, 0);
+    }
+
+    private static Lancamento pendente(Long id, Long beneficioId, String valor) {
+        return new Lancamento(id, beneficioId, Lancamento.Tipo.CREDITO, new BigDecimal(valor), null,
+                LocalDateTime.now(), false);
+    }
+
+    private static LancamentoDTO historico(Long id) {
+        return new LancamentoDTO(id, Lancamento.Tipo.CREDITO, BigDecimal.ONE, null, LocalDateTime.now(), true);
+    }
+}
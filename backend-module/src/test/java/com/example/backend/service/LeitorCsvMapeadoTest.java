@@ -0,0 +1,87 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeitorCsvMapeadoTest {
+
+    @TempDir
+    private Path diretorio;
+
+    @Test
+    void testProximaLinha_CrlfBomESemQuebraFinal() throws IOException {
+        Path arquivo = arquivo("﻿nome,valor\r\nVale Alimentação,10.00\r\n\r\nVale Cultura,20.00");
+
+        assertEquals(List.of("nome,valor", "Vale Alimentação,10.00", "", "Vale Cultura,20.00"), linhas(arquivo, 1024));
+    }
+
+    @Test
+    void testProximaLinha_LinhasAtravessamJanelas() throws IOException {
+        StringBuilder conteudo = new StringBuilder();
+        List<String> esperadas = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String linha = "Benefício " + i + ",descrição " + "x".repeat(i % 13) + "," + i + ".00";
+            esperadas.add(linha);
+            conteudo.append(linha).append('\n');
+        }
+        Path arquivo = arquivo(conteudo.toString());
+
+        // Janela pequena: várias linhas começam em uma janela e terminam na seguinte
+        assertEquals(esperadas, linhas(arquivo, 64));
+    }
+
+    @Test
+    void testProximaLinha_LinhaMaiorQueJanela() throws IOException {
+        Path arquivo = arquivo("curta\n" + "y".repeat(100) + "\n");
+
+        try (LeitorCsvMapeado leitor = new LeitorCsvMapeado(arquivo, 32)) {
+            assertEquals("curta", leitor.proximaLinha());
+            assertThrows(IOException.class, leitor::proximaLinha);
+        }
+    }
+
+    @Test
+    void testProximaLinha_ArquivoVazioEPosicao() throws IOException {
+        try (LeitorCsvMapeado leitor = new LeitorCsvMapeado(arquivo(""), 64)) {
+            assertNull(leitor.proximaLinha());
+        }
+        try (LeitorCsvMapeado leitor = new LeitorCsvMapeado(arquivo("a\nb\n"), 64)) {
+            leitor.proximaLinha();
+            assertEquals(2, leitor.getPosicao());
+            leitor.proximaLinha();
+            assertEquals(leitor.getTamanho(), leitor.getPosicao());
+            assertNull(leitor.proximaLinha());
+        }
+    }
+
+    @Test
+    void testCampos_AspasEVirgulas() {
+        assertEquals(List.of("Vale, Refeição", "diz \"oi\"", "", "10.00"),
+                LeitorCsvMapeado.campos("\"Vale, Refeição\",\"diz \"\"oi\"\"\",,10.00"));
+        assertThrows(IllegalArgumentException.class, () -> LeitorCsvMapeado.campos("\"aberta,10.00"));
+    }
+
+    private Path arquivo(String conteudo) throws IOException {
+        return Files.writeString(Files.createTempFile(diretorio, "leitor-", ".csv"), conteudo, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> linhas(Path arquivo, int tamanhoJanela) throws IOException {
+        List<String> linhas = new ArrayList<>();
+        try (LeitorCsvMapeado leitor = new LeitorCsvMapeado(arquivo, tamanhoJanela)) {
+            String linha;
+            while ((linha = leitor.proximaLinha()) != null) {
+                linhas.add(linha);
+            }
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TicketTransferenciaDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaLoteResultadoDTO;
+import com.example.backend.dto.TransferenciaResultadoDTO;
+import com.example.backend.exception.FilaTransferenciaIndisponivelException;
+import com.example.backend.exception.TransferenciaNaoEncontradaException;
+import com.example.backend.metrics.BeneficioMetricas;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferenciaFilaServiceTest {
+
+    @Mock
+    private TransferenciaLoteService loteService;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private TransferenciaFilaService fila;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (fila != null) {
+            fila.parar();
+        }
+    }
+
+    @Test
+    void testEnfileirar_RetornaPendenteEConcluiNoWorker() throws InterruptedException {
+        fila = criar(true, 2, 100);
+        aceitarTodas();
+        fila.iniciar();
+
+        TicketTransferenciaDTO ticket = fila.enfileirar(transferencia(1L, 2L, "10.00"));
+
+        assertEquals(TicketTransferenciaDTO.Status.PENDENTE, ticket.getStatus());
+        TicketTransferenciaDTO concluido = aguardarProcessamento(ticket.getTicket());
+        assertEquals(TicketTransferenciaDTO.Status.CONCLUIDA, concluido.getStatus());
+        assertNotNull(concluido.getProcessadaEm());
+        // Métrica registrada antes da publicação do ticket
+        assertEquals(1, contagem("sucesso", "nenhum"));
+    }
+
+    @Test
+    void testEnfileirar_RejeicaoDoLoteNoTicket() throws InterruptedException {
+        fila = criar(true, 1, 100);
+        when(loteService.transferLote(anyList())).thenAnswer(inv -> {
+            List<TransferenciaDTO> lote = inv.getArgument(0);
+            TransferenciaDTO dto = lote.get(0);
+            return new TransferenciaLoteResultadoDTO(1, 0, 1, List.of(new TransferenciaResultadoDTO(
+                    0, dto.getFromId(), dto.getToId(), dto.getAmount(), false, "Saldo insuficiente",
+                    "saldo_insuficiente")));
+        });
+        fila.iniciar();
+
+        TicketTransferenciaDTO ticket = fila.enfileirar(transferencia(1L, 2L, "999999.00"));
+
+        TicketTransferenciaDTO rejeitado = aguardarProcessamento(ticket.getTicket());
+        assertEquals(TicketTransferenciaDTO.Status.REJEITADA, rejeitado.getStatus());
+        assertEquals("Saldo insuficiente", rejeitado.getMensagem());
+        assertEquals(1, contagem("falha", "saldo_insuficiente"));
+        assertEquals(0, contagem("sucesso", "nenhum"));
+    }
+
+    @Test
+    void testWorker_DrenaEmLotesNaOrdemDeChegada() throws InterruptedException {
+        fila = criar(true, 1, 10);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<List<TransferenciaDTO>> lotes = new ArrayList<>();
+        when(loteService.transferLote(anyList())).thenAnswer(inv -> {
+            List<TransferenciaDTO> lote = new ArrayList<>(inv.getArgument(0));
+            liberar.await(5, TimeUnit.SECONDS);
+            synchronized (lotes) {
+                lotes.add(lote);
+            }
+            return sucesso(lote);
+        });
+        fila.iniciar();
+
+        // A primeira ocupa o worker; as 25 seguintes acumulam e saem em lotes de até 10
+        List<TicketTransferenciaDTO> tickets = new ArrayList<>();
+        for (int i = 0; i < 26; i++) {
+            tickets.add(fila.enfileirar(transferencia(1L, 2L, (i + 1) + ".00")));
+        }
+        liberar.countDown();
+        for (TicketTransferenciaDTO ticket : tickets) {
+            aguardarProcessamento(ticket.getTicket());
+        }
+
+        List<BigDecimal> ordem = new ArrayList<>();
+        synchronized (lotes) {
+            assertTrue(lotes.stream().allMatch(lote -> lote.size() <= 10));
+            assertTrue(lotes.size() < 26, "Transferências acumuladas devem ser aplicadas em lote");
+            lotes.forEach(lote -> lote.forEach(dto -> ordem.add(dto.getAmount())));
+        }
+        for (int i = 0; i < ordem.size(); i++) {
+            assertEquals(0, new BigDecimal((i + 1) + ".00").compareTo(ordem.get(i)));
+        }
+    }
+
+    @Test
+    void testEnfileirar_FilaCheia() {
+        // Worker bloqueado no primeiro lote: a partição de capacidade 1 enche logo em seguida
+        fila = criar(true, 1, 100, 1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(loteService.transferLote(anyList())).thenAnswer(inv -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return sucesso(inv.getArgument(0));
+        });
+        fila.iniciar();
+
+        try {
+            assertThrows(FilaTransferenciaIndisponivelException.class, () -> {
+                for (int i = 0; i < 10; i++) {
+                    fila.enfileirar(transferencia(1L, 2L, "1.00"));
+                }
+            });
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    void testEnfileirar_FilaParada() {
+        fila = criar(true, 1, 100);
+
+        assertThrows(FilaTransferenciaIndisponivelException.class,
+                () -> fila.enfileirar(transferencia(1L, 2L, "1.00")));
+    }
+
+    @Test
+    void testParar_ConcorrenteComEnfileiramentoNaoDeixaPendentes() throws InterruptedException {
+        fila = criar(true, 2, 10);
+        aceitarTodas();
+        fila.iniciar();
+        List<String> aceitos = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> clientes = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            long origem = c + 1L;
+            Thread cliente = new Thread(() -> {
+                try {
+                    while (true) {
+                        aceitos.add(fila.enfileirar(transferencia(origem, 10L, "1.00")).getTicket());
+                    }
+                } catch (FilaTransferenciaIndisponivelException ex) {
+                    // fila parada (ou cheia): encerra o cliente
+                }
+            });
+            cliente.start();
+            clientes.add(cliente);
+        }
+        Thread.sleep(20);
+
+        fila.parar();
+        for (Thread cliente : clientes) {
+            cliente.join();
+        }
+
+        assertFalse(aceitos.isEmpty());
+        for (String ticket : aceitos) {
+            assertNotEquals(TicketTransferenciaDTO.Status.PENDENTE, fila.consultar(ticket).getStatus(), ticket);
+        }
+    }
+
+    @Test
+    void testEnfileirar_MesmoBeneficio() {
+        fila = criar(true, 1, 100);
+        fila.iniciar();
+
+        assertThrows(IllegalArgumentException.class, () -> fila.enfileirar(transferencia(1L, 1L, "1.00")));
+        verifyNoInteractions(loteService);
+    }
+
+    @Test
+    void testConsultar_TicketInexistente() {
+        fila = criar(true, 1, 100);
+
+        assertThrows(TransferenciaNaoEncontradaException.class, () -> fila.consultar("inexistente"));
+    }
+
+    @Test
+    void testIniciar_DesabilitadaNaoIniciaWorkers() {
+        fila = criar(false, 1, 100);
+        fila.iniciar();
+
+        assertFalse(fila.isHabilitada());
+        assertThrows(FilaTransferenciaIndisponivelException.class,
+                () -> fila.enfileirar(transferencia(1L, 2L, "1.00")));
+    }
+
+    private TransferenciaFilaService criar(boolean habilitada, int particoes, int tamanhoLote) {
+        return criar(habilitada, particoes, tamanhoLote, 1000);
+    }
+
+    private TransferenciaFilaService criar(boolean habilitada, int particoes, int tamanhoLote, int capacidade) {
+        return new TransferenciaFilaService(loteService, new BeneficioMetricas(registry), registry, habilitada,
+                particoes, tamanhoLote, capacidade, Duration.ofMinutes(5));
+    }
+
+    private void aceitarTodas() {
+        when(loteService.transferLote(anyList())).thenAnswer(inv -> sucesso(inv.getArgument(0)));
+    }
+
+    private static TransferenciaLoteResultadoDTO sucesso(List<TransferenciaDTO> lote) {
+        List<TransferenciaResultadoDTO> resultados = new ArrayList<>();
+        for (int i = 0; i < lote.size(); i++) {
+            TransferenciaDTO dto = lote.get(i);
+            resultados.add(new TransferenciaResultadoDTO(i, dto.getFromId(), dto.getToId(), dto.getAmount(), true, null,
+                    null));
+        }
+        return new TransferenciaLoteResultadoDTO(lote.size(), lote.size(), 0, resultados);
+    }
+
+    private TicketTransferenciaDTO aguardarProcessamento(String ticket) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < limite) {
+            TicketTransferenciaDTO situacao = fila.consultar(ticket);
+            if (situacao.getStatus() != TicketTransferenciaDTO.Status.PENDENTE) {
+                return situacao;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Transferência não processada: " + ticket);
+    }
+
+    private long contagem(String resultado, String motivo) {
+        Timer timer = registry.find(BeneficioMetricas.TRANSFERENCIAS)
+                .tags("resultado", resultado, "motivo", motivo)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static TransferenciaDTO transferencia(Long fromId, Long toId, String amount) {
+        TransferenciaDTO dto = new TransferenciaDTO();
+        dto.setFromId(fromId);
+        dto.setToId(toId);
+        dto.setAmount(new BigDecimal(amount));
+        return dto;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.backend.service;
+
+import com.example.backend.cache.BeneficioCache;
+import com.example.backend.dto.EstatisticasBeneficiosDTO;
+import com.example.backend.dto.SaldoBeneficioDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaLoteResultadoDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.estatisticas.EstatisticasBeneficios;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferenciaLoteServiceTest {
+
+    @Mock
+    private BeneficioRepository repository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private LancamentoService lancamentos;
+
+    @Mock
+    private BeneficioSlotService slots;
+
+    @Mock
+    private BeneficioEventosService eventos;
+
+    private EstatisticasBeneficios estatisticas;
+    private TransferenciaLoteService service;
+
+    private Beneficio a;
+    private Beneficio b;
+    private Beneficio c;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = new EstatisticasBeneficios(new BigDecimal[]{new BigDecimal("1000")});
+        service = new TransferenciaLoteService(repository, transactionTemplate,
+                new BeneficioCache(100, 100, Duration.ofMinutes(5)),
+                new BeneficioMetricas(new SimpleMeterRegistry()), lancamentos, slots, estatisticas, eventos, 2);
+        a = new Beneficio(1L, "A", "Desc", new BigDecimal("1000.00"), true, 0L, 0);
+        b = new Beneficio(2L, "B", "Desc", new BigDecimal("500.00"), true, 0L, 0);
+        c = new Beneficio(3L, "C", "Desc", new BigDecimal("100.00"), false, 0L, 0);
+
+        lenient().doAnswer(inv -> {
+            Consumer<Object> callback = inv.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void testTransferLote_ResultadoPorPerna() {
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(a, b, c));
+
+        List<TransferenciaDTO> lote = List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("300.00")),
+                new TransferenciaDTO(2L, 1L, new BigDecimal("5000.00")),
+                new TransferenciaDTO(1L, 3L, new BigDecimal("10.00")));
+
+        TransferenciaLoteResultadoDTO result = service.transferLote(lote);
+
+        assertEquals(3, result.getTotal());
+        assertEquals(1, result.getSucessos());
+        assertEquals(2, result.getFalhas());
+        assertTrue(result.getResultados().get(0).isSucesso());
+        assertTrue(result.getResultados().get(1).getMensagem().contains("Saldo insuficiente"));
+        assertTrue(result.getResultados().get(2).getMensagem().contains("inativo"));
+        assertEquals(new BigDecimal("700.00"), a.getValor());
+        assertEquals(new BigDecimal("800.00"), b.getValor());
+    }
+
+    @Test
+    void testTransferLote_AjustaEstatisticasApenasDasPernasAplicadas() {
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(a, b));
+        estatisticas.carregar(List.of(new SaldoBeneficioDTO(1L, a.getValor(), true),
+                new SaldoBeneficioDTO(2L, b.getValor(), true)), 0);
+
+        service.transferLote(List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("300.00")),
+                new TransferenciaDTO(2L, 1L, new BigDecimal("5000.00"))));
+
+        EstatisticasBeneficiosDTO resumo = estatisticas.resumo();
+        assertEquals(0, new BigDecimal("1500.00").compareTo(resumo.getTotal()));
+        assertEquals(new BigDecimal("700.00"), resumo.getMinimo());
+        assertEquals(new BigDecimal("800.00"), resumo.getMaximo());
+        assertEquals(2, resumo.getHistograma().get(0).getQuantidade());
+        verify(eventos).publicarAposTransacao(1L, 2L);
+    }
+
+    @Test
+    void testTransferLote_SaldoIncluiPendentesERegistraLancamentos() {
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(a, b));
+        when(lancamentos.saldosPendentes(any())).thenReturn(Map.of(1L, new BigDecimal("-900.00")));
+        TransferenciaDTO aceita = new TransferenciaDTO(1L, 2L, new BigDecimal("50.00"));
+
+        TransferenciaLoteResultadoDTO result = service.transferLote(List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("300.00")), aceita));
+
+        assertTrue(result.getResultados().get(0).getMensagem().contains("Disponível: 100.00"));
+        assertTrue(result.getResultados().get(1).isSucesso());
+        verify(lancamentos).registrarTransferencia(aceita, true);
+        verify(lancamentos, times(1)).registrarTransferencia(any(), anyBoolean());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTransferLote_BloqueiaEmOrdemCrescentePorChunk() {
+        List<List<Long>> idsBloqueados = new ArrayList<>();
+        when(repository.findAllByIdForUpdate(any())).thenAnswer(inv -> {
+            idsBloqueados.add(new ArrayList<>((Collection<Long>) inv.getArgument(0)));
+            return Arrays.asList(a, b, c);
+        });
+
+        service.transferLote(List.of(
+                new TransferenciaDTO(3L, 1L, new BigDecimal("1.00")),
+                new TransferenciaDTO(2L, 1L, new BigDecimal("1.00")),
+                new TransferenciaDTO(2L, 1L, new BigDecimal("1.00"))));
+
+        assertEquals(2, idsBloqueados.size());
+        assertEquals(List.of(1L, 2L, 3L), idsBloqueados.get(0));
+        assertEquals(List.of(1L, 2L), idsBloqueados.get(1));
+    }
+
+    @Test
+    void testTransferLote_FalhaDoChunkNaoAfetaOutrosChunks() {
+        when(repository.findAllByIdForUpdate(any()))
+                .thenThrow(new PessimisticLockingFailureException("timeout"))
+                .thenReturn(Arrays.asList(a, b));
+
+        TransferenciaLoteResultadoDTO result = service.transferLote(List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("1.00")),
+                new TransferenciaDTO(1L, 2L, new BigDecimal("1.00")),
+                new TransferenciaDTO(1L, 2L, new BigDecimal("1.00"))));
+
+        assertEquals(1, result.getSucessos());
+        assertFalse(result.getResultados().get(0).isSucesso());
+        assertFalse(result.getResultados().get(1).isSucesso());
+        assertTrue(result.getResultados().get(2).isSucesso());
+    }
+
+    @Test
+    void testTransferLote_PernaInvalida() {
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(a));
+
+        TransferenciaLoteResultadoDTO result = service.transferLote(List.of(
+                new TransferenciaDTO(1L, 1L, new BigDecimal("1.00")),
+                new TransferenciaDTO(1L, 99L, new BigDecimal("1.00"))));
+
+        assertEquals(0, result.getSucessos());
+        assertTrue(result.getResultados().get(1).getMensagem().contains("não encontrado"));
+        assertEquals(new BigDecimal("1000.00"), a.getValor());
+    }
+
+    @Test
+    void testTransferLote_ParticionadoSemBloqueio() {
+        Beneficio quente = new Beneficio(4L, "Quente", "Desc", BigDecimal.ZERO, true, 0L, 4);
+        when(repository.findIdsParticionados(any())).thenReturn(List.of(4L));
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(a));
+        when(repository.findAllById(List.of(4L))).thenReturn(List.of(quente));
+
+        TransferenciaLoteResultadoDTO result = service.transferLote(List.of(
+                new TransferenciaDTO(1L, 4L, new BigDecimal("300.00")),
+                new TransferenciaDTO(4L, 1L, new BigDecimal("100.00"))));
+
+        assertEquals(2, result.getSucessos());
+        verify(repository).findAllByIdForUpdate(Set.of(1L));
+        verify(slots).creditar(4L, 4, new BigDecimal("300.00"));
+        verify(slots).debitar(4L, new BigDecimal("100.00"));
+        assertEquals(new BigDecimal("800.00"), a.getValor());
+        assertEquals(BigDecimal.ZERO, quente.getValor());
+    }
+
+    @Test
+    void testTransferLote_ParticionadoEntreAsConsultasSegueParaOsSlots() {
+        // Particionado depois da consulta dos particionados: chega bloqueado, com SLOTS lido sob o lock
+        Beneficio quente = new Beneficio(4L, "Quente", "Desc", BigDecimal.ZERO, true, 1L, 4);
+        when(repository.findAllByIdForUpdate(any())).thenReturn(Arrays.asList(a, quente));
+
+        TransferenciaLoteResultadoDTO result = service.transferLote(List.of(
+                new TransferenciaDTO(1L, 4L, new BigDecimal("300.00"))));
+
+        assertEquals(1, result.getSucessos());
+        verify(slots).creditar(4L, 4, new BigDecimal("300.00"));
+        assertEquals(BigDecimal.ZERO, quente.getValor());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.benchmarks;
+
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.mapper.BeneficioMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da conversão entidade -> DTO de resposta
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeneficioMapperBenchmark {
+
+    private final BeneficioMapper mapper = new BeneficioMapper();
+
+    private Beneficio beneficio;
+
+    @Setup
+    public void preparar() {
+        beneficio = new Beneficio(1L, "Beneficio 0000001", "Descricao 1",
+                new BigDecimal("1000000.00"), true, 0L, 0);
+    }
+
+    @Benchmark
+    public BeneficioResponseDTO toResponseDTO() {
+        return mapper.toResponseDTO(beneficio);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.benchmarks;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.example.backend.dto.PaginaCursorDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.service.BeneficioService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de {@link BeneficioService} com o contexto Spring completo sobre H2 em memória
+ * A tabela é populada com {@code linhas} benefícios (IDs 1..linhas) de nome "Beneficio 0000001", "Beneficio 0000002", ...
+ *
+ * O modo de transferência pode ser trocado com {@code -p modo=ATOMICO}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BeneficioServiceBenchmark {
+
+    private static final int TAMANHO_PAGINA = 50;
+    private static final BigDecimal VALOR_TRANSFERENCIA = new BigDecimal("0.01");
+
+    @Param({"1000", "100000", "1000000"})
+    private int linhas;
+
+    @Param("ENTIDADE")
+    private String modo;
+
+    private ConfigurableApplicationContext contexto;
+    private BeneficioService service;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                // Argumentos de linha de comando: têm precedência sobre o application.properties do backend
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        // Tabela criada pelo Hibernate a partir da entidade, sem os dados de exemplo
+                        "--spring.sql.init.mode=never",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.backend=WARN",
+                        "--logging.level.org.springframework.web=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--beneficio.transferencia.modo=" + modo);
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        // IDs explícitos (a coluna criada pelo Hibernate não tem DEFAULT); a sequência continua após eles
+        jdbcTemplate.update(
+                "INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO, VERSION) " +
+                "SELECT X, 'Beneficio ' || LPAD(X, 7, '0'), 'Descricao ' || X, 1000000.00, TRUE, 0 " +
+                "FROM SYSTEM_RANGE(1, ?) ORDER BY X", linhas);
+        jdbcTemplate.execute("ALTER SEQUENCE BENEFICIO_SEQ RESTART WITH " + (linhas + 1));
+
+        service = contexto.getBean(BeneficioService.class);
+        // O índice de nomes é carregado na inicialização, antes da carga acima
+        service.carregarIndiceNomes();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long fromId = random.nextLong(1, linhas + 1);
+        long toId = random.nextLong(1, linhas);
+        if (toId >= fromId) {
+            toId++;
+        }
+        service.transfer(new TransferenciaDTO(fromId, toId, VALOR_TRANSFERENCIA));
+    }
+
+    @Benchmark
+    public PaginaCursorDTO<BeneficioResponseDTO> findAll() {
+        long after = ThreadLocalRandom.current().nextLong(0, linhas - TAMANHO_PAGINA);
+        return service.findAll(after, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public List<BeneficioResponseDTO> findByNome() {
+        // Número completo com zeros à esquerda: seleciona exatamente um benefício
+        int id = ThreadLocalRandom.current().nextInt(1, linhas + 1);
+        return service.findByNome(String.format("%07d", id));
+    }
+}
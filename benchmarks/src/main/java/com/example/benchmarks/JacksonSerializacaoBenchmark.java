@@ -0,0 +1,56 @@
+package com.example.benchmarks;
+
+import com.example.backend.dto.BeneficioResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da serialização JSON de listas de {@link BeneficioResponseDTO}
+ * O ObjectMapper é criado com os mesmos padrões usados pelo Spring MVC
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSerializacaoBenchmark {
+
+    @Param({"10", "50", "1000"})
+    private int tamanho;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<BeneficioResponseDTO> beneficios;
+
+    @Setup
+    public void preparar() {
+        beneficios = new ArrayList<>(tamanho);
+        for (long id = 1; id <= tamanho; id++) {
+            beneficios.add(new BeneficioResponseDTO(id, "Beneficio " + id, "Descricao " + id,
+                    new BigDecimal("1000000.00"), true, 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beneficios);
+    }
+}
@@ -0,0 +1,465 @@
+package com.example.benchmarks.stress;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.exception.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga de transferências concorrentes via {@code POST /api/v1/beneficios/transferir}
+ *
+ * Sobe o backend com H2 em arquivo, popula N benefícios e dispara M transferências aleatórias
+ * (sementes fixas por transferência, para carga reproduzível) com T requisições simultâneas.
+ * Conflitos de concorrência (409) são repetidos com backoff. Ao final, reporta vazão, percentis
+ * de latência (HdrHistogram), conflitos e retentativas, e falha se a soma dos saldos mudou.
+ *
+ * Parâmetros (--nome=valor): beneficios, transferencias, threads, virtual, servidor, tomcat-threads,
+ * modo, max-tentativas, seed, banco, quente, slots, logs.
+ *
+ * {@code --quente=F} faz a fração F das transferências envolver o benefício 1 (origem ou destino, ao acaso),
+ * simulando uma conta muito disputada; {@code --slots=N} particiona esse benefício em N slots de saldo
+ * ({@code PUT /api/v1/beneficios/1/slots}) antes da carga.
+ *
+ * {@code --servidor=virtual} roda as requisições do Tomcat em threads virtuais (Java 21) e reporta as
+ * threads virtuais presas ao carrier (evento JFR jdk.VirtualThreadPinned); {@code --servidor=ambos}
+ * executa a mesma carga com threads de plataforma (pool de {@code tomcat-threads}) e virtuais e compara.
+ *
+ * {@code --logs} define o logging do backend: {@code silenciados} (padrão, apenas WARN), {@code padrao}
+ * (configuração do application.properties: SQL no stdout, DEBUG/TRACE e INFO por chamada) ou {@code prod}
+ * (perfil prod: appender assíncrono e log de acesso amostrado). Fora de {@code silenciados}, o stdout do
+ * backend vai para {@code banco}/backend.log; {@code --logs=ambos} executa padrao e prod e compara.
+ * Execução: mvn -f benchmarks/pom.xml package exec:exec@stress -Dstress.args="--threads=64 --modo=ATOMICO"
+ */
+public class TransferenciaStress {
+
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000.00");
+    private static final long LATENCIA_MAXIMA_NS = TimeUnit.MINUTES.toNanos(1);
+    private static final Duration LIMIAR_PINNING = Duration.ofMillis(1);
+
+    private final int beneficios;
+    private final int transferencias;
+    private final int threads;
+    private final boolean virtual;
+    private final Servidor servidor;
+    private final int tomcatThreads;
+    private final String modo;
+    private final int maxTentativas;
+    private final long seed;
+    private final Path banco;
+    private final double quente;
+    private final int slots;
+    private final Logs logs;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA_NS, 3);
+    private final LongAdder sucessos = new LongAdder();
+    private final LongAdder recusadas = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+    private final LongAdder esgotadas = new LongAdder();
+    private final LongAdder conflitosLock = new LongAdder();
+    private final LongAdder conflitosVersao = new LongAdder();
+    private final LongAdder retentativas = new LongAdder();
+    private final Map<String, LongAdder> pinning = new ConcurrentHashMap<>();
+
+    private URI uriTransferir;
+
+    TransferenciaStress(Map<String, String> parametros) {
+        this.beneficios = Integer.parseInt(parametros.getOrDefault("beneficios", "100"));
+        this.transferencias = Integer.parseInt(parametros.getOrDefault("transferencias", "10000"));
+        this.threads = Integer.parseInt(parametros.getOrDefault("threads", "16"));
+        this.virtual = Boolean.parseBoolean(parametros.getOrDefault("virtual", "false"));
+        this.servidor = Servidor.valueOf(parametros.getOrDefault("servidor", "plataforma").toUpperCase());
+        this.tomcatThreads = Integer.parseInt(parametros.getOrDefault("tomcat-threads", "200"));
+        this.modo = parametros.getOrDefault("modo", "ENTIDADE");
+        this.maxTentativas = Integer.parseInt(parametros.getOrDefault("max-tentativas", "5"));
+        this.seed = Long.parseLong(parametros.getOrDefault("seed", "42"));
+        this.banco = Path.of(parametros.getOrDefault("banco", "target/stress")).toAbsolutePath();
+        this.quente = Double.parseDouble(parametros.getOrDefault("quente", "0"));
+        this.slots = Integer.parseInt(parametros.getOrDefault("slots", "0"));
+        this.logs = Logs.valueOf(parametros.getOrDefault("logs", "silenciados").toUpperCase());
+        if (beneficios < 2 || transferencias < 1 || threads < 1 || tomcatThreads < 1 || maxTentativas < 1
+                || quente < 0 || quente > 1 || slots < 0) {
+            throw new IllegalArgumentException("Parâmetros inválidos: " + parametros);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento deve seguir o formato --nome=valor: " + arg);
+            }
+            parametros.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        boolean servidores = "ambos".equalsIgnoreCase(parametros.get("servidor"));
+        boolean configuracoesLog = "ambos".equalsIgnoreCase(parametros.get("logs"));
+        if (servidores && configuracoesLog) {
+            throw new IllegalArgumentException("--servidor=ambos e --logs=ambos não podem ser combinados");
+        }
+        if (servidores) {
+            parametros.put("servidor", Servidor.PLATAFORMA.name());
+            Resultado plataforma = new TransferenciaStress(parametros).executar();
+            parametros.put("servidor", Servidor.VIRTUAL.name());
+            Resultado virtual = new TransferenciaStress(parametros).executar();
+            comparar("servidor", List.of(plataforma, virtual));
+        } else if (configuracoesLog) {
+            parametros.put("logs", Logs.PADRAO.name());
+            Resultado padrao = new TransferenciaStress(parametros).executar();
+            parametros.put("logs", Logs.PROD.name());
+            Resultado prod = new TransferenciaStress(parametros).executar();
+            comparar("logs", List.of(padrao, prod));
+        } else {
+            new TransferenciaStress(parametros).executar();
+        }
+    }
+
+    Resultado executar() throws Exception {
+        if (servidor == Servidor.VIRTUAL && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("--servidor=virtual exige Java 21 ou superior");
+        }
+        FileSystemUtils.deleteRecursively(banco);
+        PrintStream saida = System.out;
+        BigDecimal totalInicial;
+        BigDecimal totalFinal;
+        double segundos;
+        try (PrintStream logBackend = redirecionarLog();
+             ConfigurableApplicationContext contexto = iniciarBackend()) {
+            JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+            // IDs explícitos (a coluna criada pelo Hibernate não tem DEFAULT); a sequência continua após eles
+            jdbcTemplate.update(
+                    "INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO, VERSION) " +
+                    "SELECT X, 'Beneficio ' || X, 'Stress', ?, TRUE, 0 FROM SYSTEM_RANGE(1, ?) ORDER BY X",
+                    SALDO_INICIAL, beneficios);
+            jdbcTemplate.execute("ALTER SEQUENCE BENEFICIO_SEQ RESTART WITH " + (beneficios + 1));
+            totalInicial = somaValores(jdbcTemplate);
+
+            int porta = ((ServletWebServerApplicationContext) contexto).getWebServer().getPort();
+            uriTransferir = URI.create("http://localhost:" + porta + "/api/v1/beneficios/transferir");
+            if (slots > 0) {
+                particionar(URI.create("http://localhost:" + porta + "/api/v1/beneficios/1/slots?quantidade=" + slots));
+            }
+
+            long inicio;
+            try (RecordingStream monitor = monitorarPinning()) {
+                inicio = System.nanoTime();
+                disparar();
+            }
+            segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+            totalFinal = somaValores(jdbcTemplate);
+        } finally {
+            System.setOut(saida);
+        }
+        reportar(segundos, totalInicial, totalFinal);
+        if (totalInicial.compareTo(totalFinal) != 0) {
+            throw new IllegalStateException(String.format(
+                    "Invariante violada: soma dos saldos mudou de %s para %s", totalInicial, totalFinal));
+        }
+        String configuracao = (logs == Logs.SILENCIADOS ? servidor.name() : logs.name()).toLowerCase();
+        return new Resultado(configuracao, transferencias / segundos, percentil(50), percentil(99),
+                latencias.getMaxValue() / 1e6, esgotadas.sum() + erros.sum(), totalPinning());
+    }
+
+    /**
+     * Com logs não silenciados, o stdout do processo (console do logback e show-sql) vai para
+     * {@code banco}/backend.log até o backend ser encerrado, mantendo o custo real de escrita
+     *
+     * @return stream do arquivo, ou nulo com logs silenciados
+     */
+    private PrintStream redirecionarLog() throws IOException {
+        if (logs == Logs.SILENCIADOS) {
+            return null;
+        }
+        Files.createDirectories(banco);
+        PrintStream arquivo = new PrintStream(new BufferedOutputStream(
+                Files.newOutputStream(banco.resolve("backend.log"))), false, StandardCharsets.UTF_8);
+        System.setOut(arquivo);
+        return arquivo;
+    }
+
+    private ConfigurableApplicationContext iniciarBackend() {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:file:" + banco.resolve("beneficiodb"),
+                // Tabela criada pelo Hibernate a partir da entidade, sem os dados de exemplo
+                "--spring.sql.init.mode=never",
+                "--spring.datasource.hikari.maximum-pool-size=" + Math.max(10, Math.min(threads, 50)),
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--spring.threads.virtual.enabled=" + (servidor == Servidor.VIRTUAL),
+                "--beneficio.transferencia.modo=" + modo));
+        if (logs == Logs.PROD) {
+            args.add("--spring.profiles.active=prod");
+        }
+        if (logs == Logs.SILENCIADOS) {
+            args.addAll(List.of("--spring.jpa.show-sql=false",
+                    "--spring.jpa.properties.hibernate.format_sql=false",
+                    "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.example.backend=WARN",
+                    "--logging.level.org.springframework.web=WARN",
+                    "--logging.level.org.hibernate.SQL=WARN",
+                    "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                    // Conflitos são esperados e contabilizados pelo próprio teste
+                    "--logging.level.com.example.backend.exception=OFF",
+                    "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                    "--logging.level.org.hibernate.orm.jdbc.batch=OFF",
+                    // Alertas de SQL por requisição são esperados sob contenção
+                    "--logging.level.com.example.backend.metrics=ERROR"));
+        }
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                // Argumentos de linha de comando: têm precedência sobre o application.properties do backend
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Executa as transferências com no máximo {@code threads} requisições simultâneas
+     */
+    private void disparar() throws InterruptedException {
+        Semaphore simultaneas = new Semaphore(threads);
+        ExecutorService executor = virtual ? executorVirtual() : Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < transferencias; i++) {
+                long semente = seed + i;
+                simultaneas.acquire();
+                executor.execute(() -> {
+                    try {
+                        transferir(new Random(semente));
+                    } finally {
+                        simultaneas.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.HOURS);
+        }
+    }
+
+    /**
+     * Registra as threads virtuais presas ao carrier (synchronized ou código nativo durante um bloqueio)
+     * por mais de {@link #LIMIAR_PINNING}, agrupadas pelo frame mais alto da aplicação ou do driver
+     * Em Java 17 o evento não existe e nada é registrado.
+     */
+    private RecordingStream monitorarPinning() {
+        RecordingStream monitor = new RecordingStream();
+        monitor.enable("jdk.VirtualThreadPinned").withThreshold(LIMIAR_PINNING).withStackTrace();
+        monitor.onEvent("jdk.VirtualThreadPinned", evento -> {
+            String origem = evento.getStackTrace() == null ? "desconhecida" : evento.getStackTrace().getFrames().stream()
+                    .filter(RecordedFrame::isJavaFrame)
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                    .filter(metodo -> !metodo.startsWith("java.") && !metodo.startsWith("jdk."))
+                    .findFirst()
+                    .orElse("jdk");
+            pinning.computeIfAbsent(origem, chave -> new LongAdder()).increment();
+        });
+        monitor.startAsync();
+        return monitor;
+    }
+
+    private long totalPinning() {
+        return pinning.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Threads virtuais exigem Java 21; o módulo compila para Java 17, então o executor é obtido por reflexão
+     */
+    private static ExecutorService executorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Threads virtuais exigem Java 21 ou superior", ex);
+        }
+    }
+
+    private void particionar(URI uri) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(uri).PUT(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 204) {
+            throw new IllegalStateException("Falha ao particionar o benefício 1: " + response.body());
+        }
+    }
+
+    private void transferir(Random random) {
+        long fromId = random.nextInt(beneficios) + 1;
+        long toId = random.nextInt(beneficios - 1) + 1;
+        if (toId >= fromId) {
+            toId++;
+        }
+        if (random.nextDouble() < quente) {
+            // Conta disputada: o benefício 1 entra como origem ou destino
+            long outro = random.nextInt(beneficios - 1) + 2;
+            boolean origem = random.nextBoolean();
+            fromId = origem ? 1 : outro;
+            toId = origem ? outro : 1;
+        }
+        BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 10_001), 2);
+        String corpo = String.format("{\"fromId\":%d,\"toId\":%d,\"amount\":%s}", fromId, toId, amount.toPlainString());
+        HttpRequest request = HttpRequest.newBuilder(uriTransferir)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+
+        long inicio = System.nanoTime();
+        for (int tentativa = 1; ; tentativa++) {
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException | InterruptedException ex) {
+                if (ex instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                erros.increment();
+                return;
+            }
+            if (response.statusCode() != 409) {
+                latencias.recordValue(Math.min(System.nanoTime() - inicio, LATENCIA_MAXIMA_NS));
+                switch (response.statusCode()) {
+                    case 200 -> sucessos.increment();
+                    case 400 -> recusadas.increment();
+                    default -> erros.increment();
+                }
+                return;
+            }
+            registrarConflito(response.body());
+            if (tentativa >= maxTentativas) {
+                latencias.recordValue(Math.min(System.nanoTime() - inicio, LATENCIA_MAXIMA_NS));
+                esgotadas.increment();
+                return;
+            }
+            retentativas.increment();
+            aguardar(tentativa);
+        }
+    }
+
+    private void registrarConflito(String corpo) {
+        try {
+            String mensagem = objectMapper.readTree(corpo).path("message").asText();
+            if (GlobalExceptionHandler.MENSAGEM_CONFLITO_LOCK.equals(mensagem)) {
+                conflitosLock.increment();
+            } else {
+                conflitosVersao.increment();
+            }
+        } catch (IOException ex) {
+            conflitosVersao.increment();
+        }
+    }
+
+    /**
+     * Backoff exponencial com "full jitter", como no TransferenciaEngine do módulo EJB
+     */
+    private static void aguardar(int tentativa) {
+        long limiteMs = Math.min(500L, 10L << Math.min(tentativa, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limiteMs));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Soma dos saldos: VALOR dos benefícios mais os lançamentos ainda não compactados (modo LEDGER)
+     * e os slots dos benefícios particionados, lidos no mesmo statement para não contar duas vezes
+     * o que o compactador e a consolidação movem entre as tabelas
+     */
+    private static BigDecimal somaValores(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT (SELECT SUM(VALOR) FROM BENEFICIO) + " +
+                "(SELECT COALESCE(SUM(VALOR), 0) FROM LANCAMENTO WHERE COMPACTADO = FALSE) + " +
+                "(SELECT COALESCE(SUM(VALOR), 0) FROM BENEFICIO_SLOT)", BigDecimal.class);
+    }
+
+    private void reportar(double segundos, BigDecimal totalInicial, BigDecimal totalFinal) {
+        System.out.printf("%nTransferências: %d em %.2f s (%,.0f/s) | modo=%s benefícios=%d threads=%d%s%n",
+                transferencias, segundos, transferencias / segundos, modo, beneficios, threads,
+                virtual ? " (virtuais)" : "");
+        if (quente > 0) {
+            System.out.printf("Benefício 1 em %.0f%% das transferências%s%n", quente * 100,
+                    slots > 0 ? ", particionado em " + slots + " slots" : "");
+        }
+        System.out.printf("Servidor: %s%n", servidor == Servidor.VIRTUAL
+                ? "threads virtuais" : "pool de " + tomcatThreads + " threads de plataforma");
+        if (logs != Logs.SILENCIADOS) {
+            System.out.printf("Logs: %s (%s)%n", logs == Logs.PROD
+                    ? "perfil prod, appender assíncrono e log de acesso amostrado"
+                    : "configuração padrão, síncronos", banco.resolve("backend.log"));
+        }
+        System.out.printf("Sucessos: %d | recusadas (400): %d | tentativas esgotadas: %d | erros: %d%n",
+                sucessos.sum(), recusadas.sum(), esgotadas.sum(), erros.sum());
+        System.out.printf("Conflitos de lock/deadlock: %d | conflitos de versão: %d | retentativas: %d%n",
+                conflitosLock.sum(), conflitosVersao.sum(), retentativas.sum());
+        System.out.printf("Latência (ms): p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                percentil(50), percentil(90), percentil(99), percentil(99.9), latencias.getMaxValue() / 1e6);
+        System.out.printf("Soma dos saldos: inicial=%s final=%s%n", totalInicial, totalFinal);
+        if (servidor == Servidor.VIRTUAL) {
+            System.out.printf("Threads virtuais presas ao carrier (> %d ms): %d%n",
+                    LIMIAR_PINNING.toMillis(), totalPinning());
+            pinning.entrySet().stream()
+                    .sorted(Map.Entry.<String, LongAdder>comparingByValue(
+                            (a, b) -> Long.compare(b.sum(), a.sum())))
+                    .limit(10)
+                    .forEach(origem -> System.out.printf("  %6d  %s%n", origem.getValue().sum(), origem.getKey()));
+        }
+    }
+
+    private static void comparar(String dimensao, List<Resultado> resultados) {
+        System.out.printf("%n%-12s %12s %10s %10s %10s %8s %8s%n",
+                dimensao, "vazão (/s)", "p50 (ms)", "p99 (ms)", "max (ms)", "falhas", "pinning");
+        for (Resultado r : resultados) {
+            System.out.printf("%-12s %,12.0f %10.2f %10.2f %10.2f %8d %8d%n", r.configuracao(),
+                    r.vazao(), r.p50(), r.p99(), r.max(), r.falhas(), r.pinning());
+        }
+    }
+
+    private double percentil(double percentil) {
+        return latencias.getValueAtPercentile(percentil) / 1e6;
+    }
+
+    /**
+     * Como o Tomcat atende as requisições
+     */
+    enum Servidor { PLATAFORMA, VIRTUAL }
+
+    /**
+     * Configuração de logging do backend
+     */
+    enum Logs { SILENCIADOS, PADRAO, PROD }
+
+    record Resultado(String configuracao, double vazao, double p50, double p99, double max,
+                     long falhas, long pinning) {
+    }
+}
@@ -1,8 +1,40 @@
+-- IDs alocados em blocos de 50 pelo Hibernate (otimizador pooled-lo: cada valor da sequência inicia um bloco),
+-- de modo que INSERTs com o DEFAULT da coluna nunca colidem com os blocos já alocados
+CREATE SEQUENCE BENEFICIO_SEQ START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE BENEFICIO (
-  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  ID BIGINT DEFAULT nextval('beneficio_seq') PRIMARY KEY,
   NOME VARCHAR(100) NOT NULL,
   DESCRICAO VARCHAR(255),
   VALOR DECIMAL(15,2) NOT NULL,
   ATIVO BOOLEAN DEFAULT TRUE,
-  VERSION BIGINT DEFAULT 0
+  VERSION BIGINT DEFAULT 0,
+  SLOTS INT DEFAULT 0 NOT NULL
+);
+
+-- Diário append-only de lançamentos (saldo = BENEFICIO.VALOR + lançamentos não compactados)
+CREATE SEQUENCE LANCAMENTO_SEQ START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE LANCAMENTO (
+  ID BIGINT PRIMARY KEY,
+  BENEFICIO_ID BIGINT NOT NULL REFERENCES BENEFICIO(ID),
+  TIPO VARCHAR(20) NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  REFERENCIA VARCHAR(36),
+  CRIADO_EM TIMESTAMP NOT NULL,
+  COMPACTADO BOOLEAN DEFAULT FALSE NOT NULL
+);
+
+CREATE INDEX IDX_LANCAMENTO_PENDENTE ON LANCAMENTO (COMPACTADO, BENEFICIO_ID);
+CREATE INDEX IDX_LANCAMENTO_HISTORICO ON LANCAMENTO (BENEFICIO_ID, ID);
+
+-- Slots de saldo de benefícios muito disputados (saldo = VALOR + lançamentos pendentes + soma dos slots)
+-- BENEFICIO.SLOTS guarda a quantidade de slots do benefício (zero quando não particionado).
+-- Em banco já populado: ALTER TABLE BENEFICIO ADD COLUMN SLOTS INT DEFAULT 0 NOT NULL;
+CREATE TABLE BENEFICIO_SLOT (
+  BENEFICIO_ID BIGINT NOT NULL REFERENCES BENEFICIO(ID),
+  SLOT INT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  VERSAO BIGINT DEFAULT 0 NOT NULL,
+  PRIMARY KEY (BENEFICIO_ID, SLOT)
 );
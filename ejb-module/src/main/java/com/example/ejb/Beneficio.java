@@ -6,19 +6,27 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entidade JPA representando um Benefício
  * Usa Optimistic Locking através do campo VERSION
+ * Cache de segundo nível READ_WRITE: o VERSION é usado para que o cache nunca
+ * substitua uma entrada mais nova por uma mais antiga
+ * IDs de sequência com alocação em blocos (otimizador pooled-lo), compartilhada com o backend
  */
 @Entity
 @Table(name = "BENEFICIO")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beneficio")
 public class Beneficio implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficio_seq")
+    @SequenceGenerator(name = "beneficio_seq", sequenceName = "BENEFICIO_SEQ", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
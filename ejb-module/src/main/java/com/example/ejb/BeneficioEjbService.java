@@ -1,5 +1,8 @@
 package com.example.ejb;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.ejb.Stateless;
 import jakarta.ejb.TransactionAttribute;
 import jakarta.ejb.TransactionAttributeType;
@@ -7,7 +10,13 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.PersistenceContext;
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 
 /**
  * Serviço EJB para operações de Benefício
@@ -16,9 +25,23 @@ import java.util.List;
 @Stateless
 public class BeneficioEjbService {
 
+    static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+    static final String METRICA_ESPERA_LOCK = "beneficio.lock.espera";
+
     @PersistenceContext
     private EntityManager em;
 
+    /**
+     * Tempo máximo de espera por um lock PESSIMISTIC_WRITE, em milissegundos
+     * Configurável via system property beneficio.transferencia.lock-timeout-ms
+     */
+    private long lockTimeoutMs = Long.getLong("beneficio.transferencia.lock-timeout-ms", 2000L);
+
+    /**
+     * Registro de métricas (global do Micrometer, compartilhado com a aplicação hospedeira)
+     */
+    private MeterRegistry registry = Metrics.globalRegistry;
+
     /**
      * Realiza transferência de valor entre dois benefícios
      * CORREÇÃO DO BUG: Agora com validações, locking e rollback automático
@@ -27,6 +50,7 @@ public class BeneficioEjbService {
      * @param toId ID do benefício de destino
      * @param amount Valor a ser transferido
      * @throws IllegalArgumentException se parâmetros inválidos
+     * @throws BeneficioInativoException se algum benefício estiver inativo
      * @throws InsufficientBalanceException se saldo insuficiente
      * @throws BeneficioNotFoundException se benefício não encontrado
      */
@@ -36,8 +60,26 @@ public class BeneficioEjbService {
         validateTransferParameters(fromId, toId, amount);
 
         // 2. Buscar benefícios com PESSIMISTIC LOCK para evitar race conditions
-        Beneficio from = em.find(Beneficio.class, fromId, LockModeType.PESSIMISTIC_WRITE);
-        Beneficio to = em.find(Beneficio.class, toId, LockModeType.PESSIMISTIC_WRITE);
+        // Locks sempre em ordem crescente de ID: transferências opostas (A→B e B→A)
+        // disputam o mesmo primeiro lock em vez de entrarem em deadlock
+        // Timeout passado só às buscas com lock: não altera o EntityManager compartilhado da transação
+        Map<String, Object> timeout = Map.of(LOCK_TIMEOUT_HINT, lockTimeoutMs);
+        Long primeiroId = fromId < toId ? fromId : toId;
+        Long segundoId = fromId < toId ? toId : fromId;
+        Timer.Sample espera = Timer.start(registry);
+        Beneficio primeiro;
+        Beneficio segundo;
+        try {
+            primeiro = em.find(Beneficio.class, primeiroId, LockModeType.PESSIMISTIC_WRITE, timeout);
+            segundo = em.find(Beneficio.class, segundoId, LockModeType.PESSIMISTIC_WRITE, timeout);
+        } finally {
+            espera.stop(Timer.builder(METRICA_ESPERA_LOCK)
+                    .description("Tempo de espera por locks PESSIMISTIC_WRITE")
+                    .tag("operacao", "transferencia")
+                    .register(registry));
+        }
+        Beneficio from = fromId.equals(primeiroId) ? primeiro : segundo;
+        Beneficio to = fromId.equals(primeiroId) ? segundo : primeiro;
 
         // 3. Validar existência
         if (from == null) {
@@ -49,10 +91,10 @@ public class BeneficioEjbService {
 
         // 4. Validar se benefícios estão ativos
         if (!from.getAtivo()) {
-            throw new IllegalArgumentException("Benefício de origem está inativo: " + fromId);
+            throw new BeneficioInativoException("Benefício de origem está inativo: " + fromId);
         }
         if (!to.getAtivo()) {
-            throw new IllegalArgumentException("Benefício de destino está inativo: " + toId);
+            throw new BeneficioInativoException("Benefício de destino está inativo: " + toId);
         }
 
         // 5. Validar saldo suficiente (CORREÇÃO DO BUG PRINCIPAL)
@@ -74,16 +116,66 @@ public class BeneficioEjbService {
         // Rollback automático em caso de exceção (gerenciado pelo container EJB)
     }
 
+    /**
+     * Realiza transferência via UPDATEs condicionais, sem carregar as entidades
+     * O banco valida existência, atividade e saldo; a contagem de linhas afetadas decide o sucesso.
+     * Os UPDATEs seguem a ordem crescente de ID para evitar deadlock entre transferências opostas.
+     *
+     * @param fromId ID do benefício de origem
+     * @param toId ID do benefício de destino
+     * @param amount Valor a ser transferido
+     * @throws IllegalArgumentException se parâmetros inválidos ou benefício inativo
+     * @throws InsufficientBalanceException se saldo insuficiente
+     * @throws BeneficioNotFoundException se benefício não encontrado
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRED)
+    public void transferAtomico(Long fromId, Long toId, BigDecimal amount) {
+        validateTransferParameters(fromId, toId, amount);
+
+        if (fromId < toId) {
+            debitar(fromId, amount);
+            creditar(toId, amount);
+        } else {
+            creditar(toId, amount);
+            debitar(fromId, amount);
+        }
+
+        // Exceções lançadas acima desfazem o UPDATE já aplicado (rollback do container EJB)
+    }
+
     /**
      * Busca todos os benefícios
+     * Resultado servido pelo cache de consultas enquanto a tabela BENEFICIO não for alterada.
+     * Para tabelas grandes, preferir {@link #findAll(Long, int)}
      */
     public List<Beneficio> findAll() {
         return em.createQuery("SELECT b FROM Beneficio b ORDER BY b.id", Beneficio.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+    }
+
+    /**
+     * Busca uma página de benefícios por cursor (keyset sobre o ID)
+     * O ID do último item retornado é o cursor da próxima página;
+     * uma página com menos de {@code limit} itens é a última.
+     *
+     * @param after ID do último item da página anterior (nulo para a primeira página)
+     * @param limit quantidade máxima de itens
+     */
+    public List<Beneficio> findAll(Long after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limite deve ser maior que zero");
+        }
+        return em.createQuery("SELECT b FROM Beneficio b WHERE b.id > :after ORDER BY b.id", Beneficio.class)
+                .setParameter("after", after != null ? after : 0L)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
                 .getResultList();
     }
 
     /**
      * Busca benefício por ID
+     * Servido pelo cache de segundo nível quando a entidade não foi alterada
      */
     public Beneficio findById(Long id) {
         if (id == null) {
@@ -134,6 +226,62 @@ public class BeneficioEjbService {
         em.merge(beneficio);
     }
 
+    /**
+     * Estatísticas das regiões do cache de segundo nível (entidade, consultas e timestamps),
+     * para dimensionamento do cache
+     */
+    public Map<String, CacheRegionStatistics> estatisticasCache() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Map<String, CacheRegionStatistics> regioes = new LinkedHashMap<>();
+        for (String regiao : statistics.getSecondLevelCacheRegionNames()) {
+            regioes.put(regiao, statistics.getCacheRegionStatistics(regiao));
+        }
+        return regioes;
+    }
+
+    /**
+     * Debita de forma condicional; em caso de falha, lê o benefício apenas para informar o motivo
+     */
+    private void debitar(Long fromId, BigDecimal amount) {
+        int linhas = em.createQuery("UPDATE Beneficio b SET b.valor = b.valor - :amount, " +
+                        "b.version = b.version + 1 " +
+                        "WHERE b.id = :id AND b.ativo = true AND b.valor >= :amount")
+                .setParameter("amount", amount)
+                .setParameter("id", fromId)
+                .executeUpdate();
+        if (linhas == 0) {
+            Beneficio from = em.find(Beneficio.class, fromId);
+            if (from == null) {
+                throw new BeneficioNotFoundException("Benefício de origem não encontrado: " + fromId);
+            }
+            if (!from.getAtivo()) {
+                throw new BeneficioInativoException("Benefício de origem está inativo: " + fromId);
+            }
+            throw new InsufficientBalanceException(
+                String.format("Saldo insuficiente. Disponível: %s, Solicitado: %s",
+                    from.getValor(), amount)
+            );
+        }
+    }
+
+    /**
+     * Credita de forma condicional; em caso de falha, lê o benefício apenas para informar o motivo
+     */
+    private void creditar(Long toId, BigDecimal amount) {
+        int linhas = em.createQuery("UPDATE Beneficio b SET b.valor = b.valor + :amount, " +
+                        "b.version = b.version + 1 " +
+                        "WHERE b.id = :id AND b.ativo = true")
+                .setParameter("amount", amount)
+                .setParameter("id", toId)
+                .executeUpdate();
+        if (linhas == 0) {
+            if (em.find(Beneficio.class, toId) == null) {
+                throw new BeneficioNotFoundException("Benefício de destino não encontrado: " + toId);
+            }
+            throw new BeneficioInativoException("Benefício de destino está inativo: " + toId);
+        }
+    }
+
     /**
      * Valida parâmetros da transferência
      */
@@ -167,5 +315,11 @@ public class BeneficioEjbService {
             super(message);
         }
     }
+
+    public static class BeneficioInativoException extends IllegalArgumentException {
+        public BeneficioInativoException(String message) {
+            super(message);
+        }
+    }
 }
 
@@ -0,0 +1,164 @@
+package com.example.ejb;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.ejb.EJB;
+import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Motor de transferências com retentativas para conflitos de concorrência
+ * Cada tentativa roda em uma transação nova de {@link BeneficioEjbService#transfer}
+ * (que adquire os locks em ordem canônica de ID e respeita o timeout de lock).
+ * Conflitos de lock (pessimista, timeout ou otimista) são repetidos com backoff
+ * exponencial com jitter; erros de negócio são propagados sem retentativa.
+ * Publica beneficio.transferencias (resultado e motivo de falha) e
+ * beneficio.transferencias.retentativas no registro global do Micrometer.
+ */
+@Stateless
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class TransferenciaEngine {
+
+    static final String METRICA_TRANSFERENCIAS = "beneficio.transferencias";
+    static final String METRICA_RETENTATIVAS = "beneficio.transferencias.retentativas";
+
+    @EJB
+    private BeneficioEjbService beneficioService;
+
+    private final MeterRegistry registry;
+    private final int maxTentativas;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    public TransferenciaEngine() {
+        this(null, Metrics.globalRegistry,
+            Integer.getInteger("beneficio.transferencia.max-tentativas", 5),
+            Long.getLong("beneficio.transferencia.backoff-base-ms", 10L),
+            Long.getLong("beneficio.transferencia.backoff-max-ms", 500L));
+    }
+
+    TransferenciaEngine(BeneficioEjbService beneficioService, MeterRegistry registry,
+                        int maxTentativas, long backoffBaseMs, long backoffMaxMs) {
+        if (maxTentativas < 1) {
+            throw new IllegalArgumentException("Quantidade de tentativas deve ser maior que zero");
+        }
+        this.beneficioService = beneficioService;
+        this.registry = registry;
+        this.maxTentativas = maxTentativas;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+    }
+
+    /**
+     * Realiza transferência repetindo-a em caso de conflito de lock
+     *
+     * @param fromId ID do benefício de origem
+     * @param toId ID do benefício de destino
+     * @param amount Valor a ser transferido
+     * @return quantidade de tentativas utilizadas
+     * @throws ConflitoTransferenciaException se o conflito persistir após todas as tentativas
+     */
+    public int transfer(Long fromId, Long toId, BigDecimal amount) {
+        Timer.Sample amostra = Timer.start(registry);
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                beneficioService.transfer(fromId, toId, amount);
+                amostra.stop(timerTransferencia("sucesso", "nenhum"));
+                return tentativa;
+            } catch (RuntimeException ex) {
+                if (!isConflitoDeLock(ex)) {
+                    amostra.stop(timerTransferencia("falha", motivo(ex)));
+                    throw ex;
+                }
+                if (tentativa >= maxTentativas) {
+                    amostra.stop(timerTransferencia("falha", "conflito"));
+                    throw new ConflitoTransferenciaException(
+                        String.format("Transferência %d -> %d não concluída após %d tentativas",
+                            fromId, toId, tentativa), ex);
+                }
+                registry.counter(METRICA_RETENTATIVAS).increment();
+                aguardar(tentativa);
+            }
+        }
+    }
+
+    /**
+     * Classifica a falha de negócio para a tag "motivo" (mesmos valores do backend)
+     */
+    static String motivo(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof BeneficioEjbService.InsufficientBalanceException) {
+                return "saldo_insuficiente";
+            }
+            if (causa instanceof BeneficioEjbService.BeneficioInativoException) {
+                return "inativo";
+            }
+            if (causa instanceof BeneficioEjbService.BeneficioNotFoundException) {
+                return "nao_encontrado";
+            }
+            if (causa instanceof IllegalArgumentException) {
+                return "invalida";
+            }
+            if (causa.getCause() == causa) {
+                break;
+            }
+        }
+        return "erro";
+    }
+
+    private Timer timerTransferencia(String resultado, String motivo) {
+        return Timer.builder(METRICA_TRANSFERENCIAS)
+                .description("Transferências entre benefícios")
+                .tag("resultado", resultado)
+                .tag("motivo", motivo)
+                .register(registry);
+    }
+
+    /**
+     * Backoff exponencial com "full jitter": espera aleatória em [0, min(max, base * 2^tentativa))
+     * O jitter evita que transações que colidiram voltem a colidir no mesmo instante
+     */
+    private void aguardar(int tentativa) {
+        long limite = Math.min(backoffMaxMs, backoffBaseMs << Math.min(tentativa, 20));
+        if (limite <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limite));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoTransferenciaException("Transferência interrompida durante retentativa", ex);
+        }
+    }
+
+    /**
+     * Verifica na cadeia de causas se a falha foi um conflito de lock
+     * (o container EJB e o commit podem encapsular a exceção original)
+     */
+    static boolean isConflitoDeLock(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof PessimisticLockException
+                    || causa instanceof LockTimeoutException
+                    || causa instanceof OptimisticLockException) {
+                return true;
+            }
+            if (causa.getCause() == causa) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    public static class ConflitoTransferenciaException extends RuntimeException {
+        public ConflitoTransferenciaException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.example.ejb;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -48,9 +51,9 @@ class BeneficioEjbServiceTest {
     void testTransfer_Success() {
         // Arrange
         BigDecimal transferAmount = new BigDecimal("300.00");
-        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE)))
+        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
                 .thenReturn(beneficioA);
-        when(em.find(eq(Beneficio.class), eq(2L), eq(LockModeType.PESSIMISTIC_WRITE)))
+        when(em.find(eq(Beneficio.class), eq(2L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
                 .thenReturn(beneficioB);
 
         // Act
@@ -63,13 +66,37 @@ class BeneficioEjbServiceTest {
         verify(em).merge(beneficioB);
     }
 
+    @Test
+    void testTransfer_LockEmOrdemCrescenteDeId() {
+        // Arrange: transferência B -> A deve bloquear A (ID menor) primeiro
+        BigDecimal transferAmount = new BigDecimal("200.00");
+        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
+                .thenReturn(beneficioA);
+        when(em.find(eq(Beneficio.class), eq(2L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
+                .thenReturn(beneficioB);
+
+        // Act
+        service.transfer(2L, 1L, transferAmount);
+
+        // Assert
+        InOrder inOrder = inOrder(em);
+        inOrder.verify(em).find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE),
+                argThat(hints -> hints.containsKey(BeneficioEjbService.LOCK_TIMEOUT_HINT)));
+        inOrder.verify(em).find(eq(Beneficio.class), eq(2L), eq(LockModeType.PESSIMISTIC_WRITE),
+                argThat(hints -> hints.containsKey(BeneficioEjbService.LOCK_TIMEOUT_HINT)));
+        // O timeout não fica no EntityManager compartilhado
+        verify(em, never()).setProperty(anyString(), any());
+        assertEquals(new BigDecimal("1200.00"), beneficioA.getValor());
+        assertEquals(new BigDecimal("300.00"), beneficioB.getValor());
+    }
+
     @Test
     void testTransfer_InsufficientBalance() {
         // Arrange
         BigDecimal transferAmount = new BigDecimal("1500.00"); // Mais que o saldo
-        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE)))
+        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
                 .thenReturn(beneficioA);
-        when(em.find(eq(Beneficio.class), eq(2L), eq(LockModeType.PESSIMISTIC_WRITE)))
+        when(em.find(eq(Beneficio.class), eq(2L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
                 .thenReturn(beneficioB);
 
         // Act & Assert
@@ -84,7 +111,7 @@ class BeneficioEjbServiceTest {
     @Test
     void testTransfer_BeneficioNotFound() {
         // Arrange
-        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE)))
+        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
                 .thenReturn(null);
 
         // Act & Assert
@@ -96,9 +123,9 @@ class BeneficioEjbServiceTest {
     void testTransfer_InactiveBeneficio() {
         // Arrange
         beneficioA.setAtivo(false);
-        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE)))
+        when(em.find(eq(Beneficio.class), eq(1L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
                 .thenReturn(beneficioA);
-        when(em.find(eq(Beneficio.class), eq(2L), eq(LockModeType.PESSIMISTIC_WRITE)))
+        when(em.find(eq(Beneficio.class), eq(2L), eq(LockModeType.PESSIMISTIC_WRITE), anyMap()))
                 .thenReturn(beneficioB);
 
         // Act & Assert
@@ -143,19 +170,37 @@ class BeneficioEjbServiceTest {
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void testFindAll() {
         // Arrange
         List<Beneficio> beneficios = Arrays.asList(beneficioA, beneficioB);
-        when(em.createQuery(anyString(), eq(Beneficio.class)))
-                .thenReturn(mock(jakarta.persistence.TypedQuery.class));
-        when(em.createQuery(anyString(), eq(Beneficio.class)).getResultList())
-                .thenReturn(beneficios);
+        TypedQuery<Beneficio> query = mock(TypedQuery.class, RETURNS_SELF);
+        when(em.createQuery(anyString(), eq(Beneficio.class))).thenReturn(query);
+        when(query.getResultList()).thenReturn(beneficios);
 
         // Act
         List<Beneficio> result = service.findAll();
 
         // Assert
         assertEquals(2, result.size());
+        verify(query).setHint("org.hibernate.cacheable", true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFindAll_PaginaPorCursor() {
+        // Arrange
+        TypedQuery<Beneficio> query = mock(TypedQuery.class, RETURNS_SELF);
+        when(em.createQuery(contains("b.id > :after"), eq(Beneficio.class))).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(beneficioB));
+
+        // Act
+        List<Beneficio> result = service.findAll(1L, 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(query).setParameter("after", 1L);
+        verify(query).setMaxResults(10);
     }
 
     @Test
@@ -231,4 +276,60 @@ class BeneficioEjbServiceTest {
         assertFalse(beneficioA.getAtivo());
         verify(em).merge(beneficioA);
     }
+
+    @Test
+    void testTransferAtomico_Success() {
+        // Arrange
+        Query query = mock(Query.class, RETURNS_SELF);
+        when(em.createQuery(anyString())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(1);
+
+        // Act
+        service.transferAtomico(1L, 2L, new BigDecimal("300.00"));
+
+        // Assert
+        verify(query, times(2)).executeUpdate();
+        verify(em, never()).find(any(), any());
+        verify(em, never()).merge(any());
+    }
+
+    @Test
+    void testTransferAtomico_InsufficientBalance() {
+        // Arrange
+        Query query = mock(Query.class, RETURNS_SELF);
+        when(em.createQuery(anyString())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(0);
+        when(em.find(Beneficio.class, 1L)).thenReturn(beneficioA);
+
+        // Act & Assert
+        BeneficioEjbService.InsufficientBalanceException exception =
+            assertThrows(BeneficioEjbService.InsufficientBalanceException.class,
+                () -> service.transferAtomico(1L, 2L, new BigDecimal("1500.00")));
+
+        assertTrue(exception.getMessage().contains("Saldo insuficiente"));
+        verify(query, times(1)).executeUpdate();
+    }
+
+    @Test
+    void testTransferAtomico_InactiveDestino() {
+        // Arrange: crédito (ID menor) é emitido primeiro e não afeta nenhuma linha
+        Query query = mock(Query.class, RETURNS_SELF);
+        when(em.createQuery(anyString())).thenReturn(query);
+        when(query.executeUpdate()).thenReturn(0);
+        when(em.find(Beneficio.class, 1L)).thenReturn(beneficioA);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> service.transferAtomico(2L, 1L, new BigDecimal("100.00")));
+
+        assertTrue(exception.getMessage().contains("inativo"));
+    }
+
+    @Test
+    void testTransferAtomico_SameId() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> service.transferAtomico(1L, 1L, new BigDecimal("100.00")));
+        verify(em, never()).createQuery(anyString());
+    }
 }
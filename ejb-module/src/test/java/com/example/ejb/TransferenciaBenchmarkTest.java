@@ -0,0 +1,148 @@
+package com.example.ejb;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark comparando {@link BeneficioEjbService#transfer} (SELECT com lock + merge)
+ * com {@link BeneficioEjbService#transferAtomico} (UPDATEs condicionais) em H2 em memória
+ *
+ * Desabilitado por padrão. Para executar:
+ * mvn -f ejb-module/pom.xml test -Dtest=TransferenciaBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TransferenciaBenchmarkTest {
+
+    private static final int BENEFICIOS = 100;
+    private static final int AQUECIMENTO = 5_000;
+    private static final int OPERACOES = 20_000;
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    static void setUp() {
+        Map<String, Object> props = new HashMap<>();
+        props.put("jakarta.persistence.transactionType", "RESOURCE_LOCAL");
+        props.put("jakarta.persistence.jtaDataSource", null);
+        props.put("jakarta.persistence.jdbc.driver", "org.h2.Driver");
+        props.put("jakarta.persistence.jdbc.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        props.put("jakarta.persistence.jdbc.user", "sa");
+        props.put("jakarta.persistence.jdbc.password", "");
+        props.put("hibernate.hbm2ddl.auto", "create-drop");
+        props.put("hibernate.show_sql", "false");
+        props.put("hibernate.format_sql", "false");
+        emf = Persistence.createEntityManagerFactory("BeneficioPU", props);
+
+        EntityManager em = emf.createEntityManager();
+        em.getTransaction().begin();
+        for (int i = 0; i < BENEFICIOS; i++) {
+            em.persist(new Beneficio("Beneficio " + i, null, new BigDecimal("1000000.00"), true));
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (emf != null) {
+            emf.close();
+        }
+    }
+
+    @Test
+    void compararModos() throws Exception {
+        BigDecimal totalInicial = somaValores();
+
+        for (int threads : new int[]{1, 8}) {
+            executar("ENTIDADE", threads, (service, from, to, amount) -> service.transfer(from, to, amount));
+            executar("ATOMICO ", threads, (service, from, to, amount) -> service.transferAtomico(from, to, amount));
+        }
+
+        // Nenhum modo pode criar ou destruir saldo
+        assertEquals(0, totalInicial.compareTo(somaValores()));
+    }
+
+    private void executar(String modo, int threads, Operacao operacao) throws Exception {
+        rodada(threads, AQUECIMENTO, operacao);
+        long inicio = System.nanoTime();
+        rodada(threads, OPERACOES, operacao);
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        System.out.printf("%s threads=%d  %,.0f transferências/s%n", modo, threads, OPERACOES / segundos);
+    }
+
+    private void rodada(int threads, int operacoes, Operacao operacao) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    EntityManager em = emf.createEntityManager();
+                    BeneficioEjbService service = novoService(em);
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < operacoes / threads; i++) {
+                        long from = random.nextLong(1, BENEFICIOS + 1);
+                        long to = random.nextLong(1, BENEFICIOS);
+                        if (to >= from) {
+                            to++;
+                        }
+                        em.getTransaction().begin();
+                        try {
+                            operacao.transferir(service, from, to, BigDecimal.ONE);
+                            em.getTransaction().commit();
+                        } catch (RuntimeException ex) {
+                            em.getTransaction().rollback();
+                        }
+                        em.clear();
+                    }
+                    em.close();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private BigDecimal somaValores() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT SUM(b.valor) FROM Beneficio b", BigDecimal.class).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static BeneficioEjbService novoService(EntityManager em) throws ReflectiveOperationException {
+        BeneficioEjbService service = new BeneficioEjbService();
+        Field field = BeneficioEjbService.class.getDeclaredField("em");
+        field.setAccessible(true);
+        field.set(service, em);
+        return service;
+    }
+
+    @FunctionalInterface
+    private interface Operacao {
+        void transferir(BeneficioEjbService service, Long fromId, Long toId, BigDecimal amount);
+    }
+}
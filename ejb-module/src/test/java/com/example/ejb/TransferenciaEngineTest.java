@@ -0,0 +1,119 @@
+package com.example.ejb;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ejb.EJBException;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários para TransferenciaEngine
+ * Testa retentativas em conflitos de lock e propagação de erros de negócio
+ */
+@ExtendWith(MockitoExtension.class)
+class TransferenciaEngineTest {
+
+    @Mock
+    private BeneficioEjbService beneficioService;
+
+    private TransferenciaEngine engine;
+
+    private SimpleMeterRegistry registry;
+
+    private final BigDecimal amount = new BigDecimal("100.00");
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        engine = new TransferenciaEngine(beneficioService, registry, 3, 0L, 0L);
+    }
+
+    @Test
+    void testTransfer_SemConflito() {
+        // Act
+        int tentativas = engine.transfer(1L, 2L, amount);
+
+        // Assert
+        assertEquals(1, tentativas);
+        verify(beneficioService).transfer(1L, 2L, amount);
+        assertEquals(1, contagem("sucesso", "nenhum"));
+    }
+
+    @Test
+    void testTransfer_RepeteConflitoDeLock() {
+        // Arrange: exceções encapsuladas pelo container, como em produção
+        doThrow(new EJBException(new PessimisticLockException("deadlock")))
+                .doThrow(new EJBException(new OptimisticLockException("versão")))
+                .doNothing()
+                .when(beneficioService).transfer(1L, 2L, amount);
+
+        // Act
+        int tentativas = engine.transfer(1L, 2L, amount);
+
+        // Assert
+        assertEquals(3, tentativas);
+        verify(beneficioService, times(3)).transfer(1L, 2L, amount);
+        assertEquals(2.0, registry.counter(TransferenciaEngine.METRICA_RETENTATIVAS).count());
+        assertEquals(1, contagem("sucesso", "nenhum"));
+    }
+
+    @Test
+    void testTransfer_EsgotaTentativas() {
+        // Arrange
+        doThrow(new LockTimeoutException("timeout"))
+                .when(beneficioService).transfer(1L, 2L, amount);
+
+        // Act & Assert
+        TransferenciaEngine.ConflitoTransferenciaException exception =
+            assertThrows(TransferenciaEngine.ConflitoTransferenciaException.class,
+                () -> engine.transfer(1L, 2L, amount));
+
+        assertTrue(exception.getMessage().contains("3 tentativas"));
+        verify(beneficioService, times(3)).transfer(1L, 2L, amount);
+        assertEquals(1, contagem("falha", "conflito"));
+    }
+
+    @Test
+    void testTransfer_ErroDeNegocioNaoRepete() {
+        // Arrange
+        doThrow(new BeneficioEjbService.InsufficientBalanceException("Saldo insuficiente"))
+                .when(beneficioService).transfer(1L, 2L, amount);
+
+        // Act & Assert
+        assertThrows(BeneficioEjbService.InsufficientBalanceException.class,
+                () -> engine.transfer(1L, 2L, amount));
+        verify(beneficioService, times(1)).transfer(1L, 2L, amount);
+        assertEquals(1, contagem("falha", "saldo_insuficiente"));
+    }
+
+    @Test
+    void testTransfer_MetricaPorMotivoDeFalha() {
+        // Arrange
+        doThrow(new EJBException(new BeneficioEjbService.BeneficioInativoException("inativo")))
+                .when(beneficioService).transfer(1L, 2L, amount);
+
+        // Act
+        assertThrows(EJBException.class, () -> engine.transfer(1L, 2L, amount));
+
+        // Assert
+        assertEquals(1, contagem("falha", "inativo"));
+        assertEquals(0, contagem("sucesso", "nenhum"));
+    }
+
+    private long contagem(String resultado, String motivo) {
+        var timer = registry.find(TransferenciaEngine.METRICA_TRANSFERENCIAS)
+                .tags("resultado", resultado, "motivo", motivo)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
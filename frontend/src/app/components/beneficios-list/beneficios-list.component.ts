@@ -1,9 +1,25 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, ElementRef, OnDestroy, OnInit, ViewChild } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { RouterLink } from '@angular/router';
 import { BeneficioService } from '../../services/beneficio.service';
-import { Beneficio } from '../../models/beneficio.interface';
+import { AlteracaoBeneficio, Beneficio, OrdenacaoBeneficio } from '../../models/beneficio.interface';
 import { FormsModule } from '@angular/forms';
+import { Subject, Subscription } from 'rxjs';
+import { auditTime, debounceTime, distinctUntilChanged } from 'rxjs/operators';
+
+/** Linha da janela visível; sem benefício enquanto a página dela não chegou */
+interface Linha {
+  indice: number;
+  beneficio?: Beneficio;
+}
+
+/** Altura fixa de cada linha, em px (.linha) */
+const ALTURA_LINHA = 64;
+const TAMANHO_PAGINA = 50;
+/** Linhas renderizadas além da área visível, acima e abaixo */
+const MARGEM_LINHAS = 10;
+/** Páginas mantidas em memória; as menos usadas recentemente são descartadas */
+const MAXIMO_PAGINAS = 20;
 
 @Component({
   selector: 'app-beneficios-list',
@@ -23,39 +39,56 @@ import { FormsModule } from '@angular/forms';
     <div class="search-bar glass-panel fade-in" style="animation-delay: 0.1s">
       <div class="search-input">
         <span class="icon">🔍</span>
-        <input type="text" [(ngModel)]="searchTerm" (input)="search()" placeholder="Buscar por nome...">
+        <input type="text" [(ngModel)]="searchTerm" (input)="buscas.next(searchTerm)" placeholder="Buscar por nome...">
       </div>
+      <select class="status-filter" [(ngModel)]="filtroAtivo" (ngModelChange)="recarregar(true)">
+        <option [ngValue]="null">Todos</option>
+        <option [ngValue]="true">Ativos</option>
+        <option [ngValue]="false">Inativos</option>
+      </select>
     </div>
 
-    <div class="table-container glass-panel fade-in" style="animation-delay: 0.2s">
+    <div class="table-container glass-panel fade-in" style="animation-delay: 0.2s"
+         #viewport (scroll)="atualizarJanela()">
       <table class="modern-table">
         <thead>
           <tr>
-            <th>ID</th>
-            <th>Nome</th>
+            <th class="sortable" (click)="ordenar('id')">ID {{indicador('id')}}</th>
+            <th class="sortable" (click)="ordenar('nome')">Nome {{indicador('nome')}}</th>
             <th>Descrição</th>
-            <th>Valor</th>
+            <th class="sortable" (click)="ordenar('valor')">Valor {{indicador('valor')}}</th>
             <th>Status</th>
             <th class="actions">Ações</th>
           </tr>
         </thead>
         <tbody>
-          <tr *ngFor="let b of beneficios">
-            <td class="id-cell">#{{b.id}}</td>
-            <td class="name-cell">{{b.nome}}</td>
-            <td class="desc-cell">{{b.descricao || '-'}}</td>
-            <td class="amount-cell">{{b.valor | currency:'BRL'}}</td>
-            <td>
-              <span class="badge" [class.active]="b.ativo" [class.inactive]="!b.ativo">
-                {{b.ativo ? 'Ativo' : 'Inativo'}}
-              </span>
-            </td>
-            <td class="actions">
-              <button class="icon-btn edit" [routerLink]="['/beneficios/editar', b.id]">✏️</button>
-              <button class="icon-btn delete" (click)="deleteBeneficio(b)">🗑️</button>
-            </td>
+          <tr *ngIf="espacoAcima > 0" class="espaco" [style.height.px]="espacoAcima" aria-hidden="true">
+            <td colspan="6"></td>
+          </tr>
+          <tr *ngFor="let linha of linhas; trackBy: porIndice" class="linha">
+            <ng-container *ngIf="linha.beneficio as b; else carregandoLinha">
+              <td class="id-cell">#{{b.id}}</td>
+              <td class="name-cell">{{b.nome}}</td>
+              <td class="desc-cell">{{b.descricao || '-'}}</td>
+              <td class="amount-cell">{{b.valor | currency:'BRL'}}</td>
+              <td>
+                <span class="badge" [class.active]="b.ativo" [class.inactive]="!b.ativo">
+                  {{b.ativo ? 'Ativo' : 'Inativo'}}
+                </span>
+              </td>
+              <td class="actions">
+                <button class="icon-btn edit" [routerLink]="['/beneficios/editar', b.id]">✏️</button>
+                <button class="icon-btn delete" (click)="deleteBeneficio(b)">🗑️</button>
+              </td>
+            </ng-container>
+            <ng-template #carregandoLinha>
+              <td colspan="6" class="loading-cell">Carregando...</td>
+            </ng-template>
           </tr>
-          <tr *ngIf="beneficios.length === 0">
+          <tr *ngIf="espacoAbaixo > 0" class="espaco" [style.height.px]="espacoAbaixo" aria-hidden="true">
+            <td colspan="6"></td>
+          </tr>
+          <tr *ngIf="total === 0 && carregado">
             <td colspan="6" class="empty-state">
               <div class="empty-icon">📭</div>
               <p>Nenhum benefício encontrado.</p>
@@ -64,6 +97,7 @@ import { FormsModule } from '@angular/forms';
         </tbody>
       </table>
     </div>
+    <p class="total fade-in" *ngIf="carregado">{{total}} benefício(s)</p>
   `,
   styles: [`
     .page-header {
@@ -77,13 +111,24 @@ import { FormsModule } from '@angular/forms';
     .subtitle { color: var(--text-muted); }
 
     .search-bar {
+      display: flex;
+      gap: 1rem;
       padding: 1rem;
       margin-bottom: 2rem;
     }
 
+    .status-filter {
+      background: rgba(0, 0, 0, 0.2);
+      border: 1px solid var(--border-color);
+      border-radius: 0.5rem;
+      color: white;
+      padding: 0.5rem 1rem;
+    }
+
     .search-input {
       display: flex;
       align-items: center;
+      flex: 1;
       gap: 0.75rem;
       background: rgba(0, 0, 0, 0.2);
       padding: 0.5rem 1rem;
@@ -100,8 +145,10 @@ import { FormsModule } from '@angular/forms';
       font-size: 1rem;
     }
 
+    /* Viewport da rolagem virtual: só as linhas visíveis (mais uma margem) ficam no DOM */
     .table-container {
-      overflow-x: auto;
+      overflow: auto;
+      height: 70vh;
     }
 
     .modern-table {
@@ -118,13 +165,26 @@ import { FormsModule } from '@angular/forms';
       font-size: 0.75rem;
       letter-spacing: 0.05em;
       border-bottom: 1px solid var(--border-color);
+      position: sticky;
+      top: 0;
+      background: var(--card-bg);
+      z-index: 1;
     }
 
+    .modern-table th.sortable { cursor: pointer; user-select: none; }
+
     .modern-table td {
       padding: 1.25rem 1rem;
       border-bottom: 1px solid var(--border-color);
     }
 
+    /* Altura fixa: a posição de cada linha é calculada a partir do índice */
+    .linha { height: 64px; }
+    .linha td { white-space: nowrap; overflow: hidden; text-overflow: ellipsis; max-width: 20rem; }
+    .espaco td { padding: 0 !important; border: none !important; }
+    .loading-cell { color: var(--text-muted); }
+    .total { color: var(--text-muted); margin-top: 0.75rem; text-align: right; }
+
     .id-cell { color: var(--text-muted); font-family: monospace; }
     .name-cell { font-weight: 600; }
     .amount-cell { font-weight: 700; color: var(--success); }
@@ -166,37 +226,187 @@ import { FormsModule } from '@angular/forms';
     .empty-icon { font-size: 3rem; margin-bottom: 1rem; }
   `]
 })
-export class BeneficiosListComponent implements OnInit {
-  beneficios: Beneficio[] = [];
+export class BeneficiosListComponent implements OnInit, OnDestroy {
+  @ViewChild('viewport', { static: true }) viewport!: ElementRef<HTMLElement>;
+
   searchTerm: string = '';
+  filtroAtivo: boolean | null = null;
+  ordenacao: OrdenacaoBeneficio = 'id';
+  direcao: 'asc' | 'desc' = 'asc';
+
+  total = 0;
+  carregado = false;
+  linhas: Linha[] = [];
+  espacoAcima = 0;
+  espacoAbaixo = 0;
+
+  readonly buscas = new Subject<string>();
+  private readonly recargas = new Subject<void>();
+
+  /** Páginas já recebidas, em ordem de uso (a primeira é a menos recente) */
+  private paginas = new Map<number, Beneficio[]>();
+  private pendentes = new Set<number>();
+  /** Incrementada a cada recarga; respostas de consultas anteriores são descartadas */
+  private geracao = 0;
+  private subscriptions = new Subscription();
 
   constructor(private service: BeneficioService) {}
 
+  /**
+   * Só as páginas da área visível são buscadas, sob demanda, e só as linhas visíveis vão para o DOM:
+   * primeira renderização e memória não dependem da quantidade de benefícios
+   */
   ngOnInit() {
-    this.loadBeneficios();
+    this.subscriptions.add(this.buscas.pipe(debounceTime(300), distinctUntilChanged())
+      .subscribe(() => this.recarregar(true)));
+    this.subscriptions.add(this.service.alteracoes().subscribe(evento => {
+      if (evento.tipo === 'reconectado') {
+        this.recarregar(false);
+        return;
+      }
+      const carregados = Array.from(this.paginas.values()).flat();
+      const reposicionados = this.reposicionados(carregados, evento.alteracoes);
+      const ausentes = this.service.aplicarAlteracoes(carregados, evento.alteracoes);
+      // Benefícios novos mudam o total e as posições, e alterações no campo da ordenação ou do filtro
+      // mudam a posição da linha ou a tiram do filtro: as páginas visíveis são buscadas de novo
+      if (ausentes.length > 0 || reposicionados) {
+        this.recargas.next();
+      }
+    }));
+    this.subscriptions.add(this.recargas.pipe(auditTime(1000)).subscribe(() => this.recarregar(false)));
+    this.recarregar(true);
   }
 
-  loadBeneficios() {
-    this.service.findAll().subscribe(data => {
-      this.beneficios = data;
+  ngOnDestroy() {
+    this.subscriptions.unsubscribe();
+  }
+
+  /** Indica se alguma alteração muda o valor de uma linha ordenada por valor ou a situação com o filtro ativo */
+  private reposicionados(carregados: Beneficio[], alteracoes: AlteracaoBeneficio[]): boolean {
+    const porId = new Map(carregados.map(b => [b.id, b]));
+    return alteracoes.some(alteracao => {
+      const beneficio = porId.get(alteracao.id);
+      return !!beneficio && (beneficio.version ?? -1) <= alteracao.version
+        && ((this.ordenacao === 'valor' && beneficio.valor !== alteracao.valor)
+          || (this.filtroAtivo != null && beneficio.ativo !== alteracao.ativo));
     });
   }
 
-  search() {
-    if (this.searchTerm.trim()) {
-      this.service.findByNome(this.searchTerm).subscribe(data => {
-        this.beneficios = data;
-      });
-    } else {
-      this.loadBeneficios();
+  ordenar(campo: OrdenacaoBeneficio) {
+    this.direcao = this.ordenacao === campo && this.direcao === 'asc' ? 'desc' : 'asc';
+    this.ordenacao = campo;
+    this.recarregar(true);
+  }
+
+  indicador(campo: OrdenacaoBeneficio): string {
+    return this.ordenacao !== campo ? '' : this.direcao === 'asc' ? '▲' : '▼';
+  }
+
+  /**
+   * Descarta as páginas em memória e busca de novo as necessárias
+   *
+   * @param topo novo filtro ou ordenação: volta a rolagem ao início; caso contrário as páginas visíveis
+   *             continuam na tela até as novas chegarem
+   */
+  recarregar(topo: boolean) {
+    this.geracao++;
+    this.pendentes.clear();
+    if (topo) {
+      this.paginas.clear();
+      this.viewport.nativeElement.scrollTop = 0;
+      this.carregarPagina(0);
+      this.atualizarJanela();
+      return;
     }
+    const visiveis = new Set(this.linhas.map(linha => Math.floor(linha.indice / TAMANHO_PAGINA)));
+    if (visiveis.size === 0) {
+      visiveis.add(0);
+    }
+    for (const pagina of Array.from(this.paginas.keys())) {
+      if (!visiveis.has(pagina)) {
+        this.paginas.delete(pagina);
+      }
+    }
+    visiveis.forEach(pagina => this.carregarPagina(pagina, true));
+  }
+
+  /** Recalcula as linhas visíveis a partir da rolagem e busca as páginas que faltam */
+  atualizarJanela() {
+    const elemento = this.viewport.nativeElement;
+    const primeira = Math.max(0, Math.floor(elemento.scrollTop / ALTURA_LINHA) - MARGEM_LINHAS);
+    const ultima = Math.min(this.total,
+      Math.ceil((elemento.scrollTop + elemento.clientHeight) / ALTURA_LINHA) + MARGEM_LINHAS);
+
+    const linhas: Linha[] = [];
+    let itens: Beneficio[] | undefined;
+    for (let indice = primeira; indice < ultima; indice++) {
+      const pagina = Math.floor(indice / TAMANHO_PAGINA);
+      if (indice === primeira || indice % TAMANHO_PAGINA === 0) {
+        itens = this.usarPagina(pagina);
+        if (!itens) {
+          this.carregarPagina(pagina);
+        }
+      }
+      linhas.push({ indice, beneficio: itens?.[indice % TAMANHO_PAGINA] });
+    }
+    this.linhas = linhas;
+    this.espacoAcima = primeira * ALTURA_LINHA;
+    this.espacoAbaixo = Math.max(0, this.total - Math.max(ultima, primeira)) * ALTURA_LINHA;
+  }
+
+  porIndice(_: number, linha: Linha): number {
+    return linha.indice;
   }
 
   deleteBeneficio(b: Beneficio) {
     if (confirm(`Tem certeza que deseja inativar o benefício "${b.nome}"?`)) {
       this.service.delete(b.id!).subscribe(() => {
-        this.loadBeneficios();
+        b.ativo = false;
       });
     }
   }
+
+  private carregarPagina(pagina: number, substituir = false) {
+    if ((this.paginas.has(pagina) && !substituir) || this.pendentes.has(pagina)) {
+      return;
+    }
+    this.pendentes.add(pagina);
+    const geracao = this.geracao;
+    const consulta = {
+      ordenacao: this.ordenacao,
+      direcao: this.direcao,
+      nome: this.searchTerm,
+      ativo: this.filtroAtivo
+    };
+    this.service.findPagina(pagina, TAMANHO_PAGINA, consulta).subscribe({
+      next: resposta => {
+        if (geracao !== this.geracao) {
+          return;
+        }
+        this.pendentes.delete(pagina);
+        this.paginas.set(pagina, resposta.itens);
+        while (this.paginas.size > MAXIMO_PAGINAS) {
+          this.paginas.delete(this.paginas.keys().next().value!);
+        }
+        this.total = resposta.total;
+        this.carregado = true;
+        this.atualizarJanela();
+      },
+      error: () => {
+        if (geracao === this.geracao) {
+          this.pendentes.delete(pagina);
+        }
+      }
+    });
+  }
+
+  /** Página em memória, marcada como a mais recentemente usada */
+  private usarPagina(pagina: number): Beneficio[] | undefined {
+    const itens = this.paginas.get(pagina);
+    if (itens) {
+      this.paginas.delete(pagina);
+      this.paginas.set(pagina, itens);
+    }
+    return itens;
+  }
 }
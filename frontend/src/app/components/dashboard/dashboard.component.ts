@@ -1,7 +1,7 @@
 import { Component, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { BeneficioService } from '../../services/beneficio.service';
-import { Beneficio } from '../../models/beneficio.interface';
+import { EstatisticasBeneficios, FaixaValor } from '../../models/beneficio.interface';
 import { RouterLink } from '@angular/router';
 
 @Component({
@@ -19,7 +19,7 @@ import { RouterLink } from '@angular/router';
         <div class="stat-icon">💰</div>
         <div class="stat-info">
           <div class="stat-label">Total em Benefícios</div>
-          <div class="stat-value">{{totalValor | currency:'BRL'}}</div>
+          <div class="stat-value">{{estatisticas?.total ?? 0 | currency:'BRL'}}</div>
         </div>
       </div>
 
@@ -27,7 +27,8 @@ import { RouterLink } from '@angular/router';
         <div class="stat-icon">📋</div>
         <div class="stat-info">
           <div class="stat-label">Benefícios Ativos</div>
-          <div class="stat-value">{{totalAtivos}}</div>
+          <div class="stat-value">{{estatisticas?.ativos ?? 0}}</div>
+          <div class="stat-detail" *ngIf="estatisticas?.inativos">{{estatisticas?.inativos}} inativos</div>
         </div>
       </div>
 
@@ -35,11 +36,25 @@ import { RouterLink } from '@angular/router';
         <div class="stat-icon">📊</div>
         <div class="stat-info">
           <div class="stat-label">Média por Benefício</div>
-          <div class="stat-value">{{mediaValor | currency:'BRL'}}</div>
+          <div class="stat-value">{{estatisticas?.media ?? 0 | currency:'BRL'}}</div>
+          <div class="stat-detail" *ngIf="estatisticas?.minimo != null">
+            de {{estatisticas?.minimo | currency:'BRL'}} a {{estatisticas?.maximo | currency:'BRL'}}
+          </div>
         </div>
       </div>
     </div>
 
+    <div class="histogram glass-panel fade-in" style="animation-delay: 0.15s" *ngIf="estatisticas?.ativos">
+      <h2>Distribuição de Saldos</h2>
+      <div class="histogram-row" *ngFor="let faixa of estatisticas?.histograma">
+        <div class="histogram-label">{{rotulo(faixa)}}</div>
+        <div class="histogram-bar-track">
+          <div class="histogram-bar" [style.width.%]="proporcao(faixa)"></div>
+        </div>
+        <div class="histogram-count">{{faixa.quantidade}}</div>
+      </div>
+    </div>
+
     <div class="quick-actions fade-in" style="animation-delay: 0.2s">
       <h2>Ações Rápidas</h2>
       <div class="actions-grid">
@@ -93,6 +108,15 @@ import { RouterLink } from '@angular/router';
 
     .stat-label { color: var(--text-muted); font-size: 0.875rem; margin-bottom: 0.25rem; }
     .stat-value { font-size: 1.75rem; font-weight: 700; color: var(--primary-color); }
+    .stat-detail { color: var(--text-muted); font-size: 0.8rem; margin-top: 0.25rem; }
+
+    .histogram { padding: 2rem; margin-bottom: 4rem; }
+    .histogram h2 { margin-bottom: 1.5rem; color: var(--text-muted); font-weight: 600; font-size: 1rem; text-transform: uppercase; letter-spacing: 0.1em; }
+    .histogram-row { display: grid; grid-template-columns: 160px 1fr 60px; align-items: center; gap: 1rem; margin-bottom: 0.5rem; }
+    .histogram-label { color: var(--text-muted); font-size: 0.875rem; }
+    .histogram-bar-track { background: rgba(255,255,255,0.05); border-radius: 0.5rem; height: 0.75rem; }
+    .histogram-bar { background: var(--primary-color); border-radius: 0.5rem; height: 100%; transition: width 0.3s; }
+    .histogram-count { text-align: right; font-weight: 600; }
 
     .quick-actions h2 { margin-bottom: 2rem; color: var(--text-muted); font-weight: 600; font-size: 1rem; text-transform: uppercase; letter-spacing: 0.1em; }
 
@@ -125,18 +149,27 @@ import { RouterLink } from '@angular/router';
   `]
 })
 export class DashboardComponent implements OnInit {
-  totalValor = 0;
-  totalAtivos = 0;
-  mediaValor = 0;
+  estatisticas?: EstatisticasBeneficios;
+  private maiorFaixa = 0;
 
   constructor(private service: BeneficioService) {}
 
+  /** Agregados calculados pelo backend: uma requisição, independente da quantidade de benefícios */
   ngOnInit() {
-    this.service.findAll().subscribe(data => {
-      const ativos = data.filter(b => b.ativo);
-      this.totalAtivos = ativos.length;
-      this.totalValor = ativos.reduce((acc, curr) => acc + curr.valor, 0);
-      this.mediaValor = this.totalAtivos > 0 ? this.totalValor / this.totalAtivos : 0;
+    this.service.estatisticas().subscribe(estatisticas => {
+      this.estatisticas = estatisticas;
+      this.maiorFaixa = Math.max(0, ...estatisticas.histograma.map(faixa => faixa.quantidade));
     });
   }
+
+  rotulo(faixa: FaixaValor): string {
+    if (faixa.de == null) {
+      return `abaixo de ${faixa.ate}`;
+    }
+    return faixa.ate == null ? `${faixa.de} ou mais` : `${faixa.de} a ${faixa.ate}`;
+  }
+
+  proporcao(faixa: FaixaValor): number {
+    return this.maiorFaixa > 0 ? (faixa.quantidade / this.maiorFaixa) * 100 : 0;
+  }
 }
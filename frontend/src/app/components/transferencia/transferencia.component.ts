@@ -1,9 +1,11 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormBuilder, FormGroup, Validators, ReactiveFormsModule } from '@angular/forms';
 import { BeneficioService } from '../../services/beneficio.service';
 import { Beneficio, TransferenciaDTO } from '../../models/beneficio.interface';
 import { Router, RouterLink } from '@angular/router';
+import { forkJoin, of, Subscription } from 'rxjs';
+import { switchMap } from 'rxjs/operators';
 
 @Component({
   selector: 'app-transferencia',
@@ -190,11 +192,12 @@ import { Router, RouterLink } from '@angular/router';
     }
   `]
 })
-export class TransferenciaComponent implements OnInit {
+export class TransferenciaComponent implements OnInit, OnDestroy {
   transferForm!: FormGroup;
   ativos: Beneficio[] = [];
   selectedSource?: Beneficio;
   loading = false;
+  private alteracoes?: Subscription;
 
   constructor(
     private fb: FormBuilder,
@@ -204,9 +207,31 @@ export class TransferenciaComponent implements OnInit {
 
   ngOnInit() {
     this.initForm();
+    this.alteracoes = this.service.alteracoes().subscribe(evento => {
+      if (evento.tipo === 'reconectado') {
+        this.loadAtivos();
+        return;
+      }
+      const ausentes = this.service.aplicarAlteracoes(this.ativos, evento.alteracoes);
+      this.ativos = this.ativos.filter(b => b.ativo !== false);
+      const novos = evento.alteracoes.filter(a => a.ativo && ausentes.includes(a.id));
+      if (novos.length > 0) {
+        forkJoin(novos.map(a => this.service.findById(a.id))).subscribe(beneficios => {
+          const conhecidos = new Set(this.ativos.map(b => b.id));
+          this.ativos = this.ativos.concat(beneficios.filter(b => b.ativo && !conhecidos.has(b.id)))
+            .sort((a, b) => a.id! - b.id!);
+        });
+      }
+      // Atualiza o saldo exibido da origem selecionada (ou a desmarca, se deixou de estar ativa)
+      this.onSourceChange();
+    });
     this.loadAtivos();
   }
 
+  ngOnDestroy() {
+    this.alteracoes?.unsubscribe();
+  }
+
   initForm() {
     this.transferForm = this.fb.group({
       fromId: [null, Validators.required],
@@ -218,7 +243,8 @@ export class TransferenciaComponent implements OnInit {
   get f() { return this.transferForm.controls; }
 
   loadAtivos() {
-    this.service.findAtivos().subscribe(data => {
+    // A seleção não exibe a descrição: ela nem é serializada
+    this.service.findAtivos(['id', 'nome', 'valor', 'ativo', 'version']).subscribe(data => {
       this.ativos = data;
     });
   }
@@ -239,10 +265,19 @@ export class TransferenciaComponent implements OnInit {
     this.loading = true;
     const dto: TransferenciaDTO = this.transferForm.value;
 
-    this.service.transfer(dto).subscribe({
-      next: () => {
-        alert('Transferência realizada com sucesso!');
+    // Com a fila habilitada o resultado só é conhecido após o processamento do ticket
+    this.service.transfer(dto).pipe(
+      switchMap(ticket => ticket ? this.service.aguardarTransferencia(ticket.ticket) : of(null))
+    ).subscribe({
+      next: situacao => {
         this.loading = false;
+        if (situacao?.status === 'REJEITADA') {
+          alert(situacao.mensagem || 'Transferência rejeitada');
+          return;
+        }
+        alert(situacao?.status === 'PENDENTE'
+          ? `Transferência recebida e ainda pendente de processamento (ticket ${situacao.ticket})`
+          : 'Transferência realizada com sucesso!');
         this.router.navigate(['/beneficios']);
       },
       error: (err) => {
@@ -26,3 +26,76 @@ export interface TransferenciaDTO {
   toId: number;
   amount: number;
 }
+
+export interface PaginaCursor<T> {
+  itens: T[];
+  proximoCursor?: number | null;
+  limite: number;
+}
+
+/** Página por número (rolagem virtual), com o total de itens do filtro */
+export interface Pagina<T> {
+  itens: T[];
+  pagina: number;
+  tamanho: number;
+  total: number;
+}
+
+export type OrdenacaoBeneficio = 'id' | 'nome' | 'valor';
+
+/** Filtro e ordenação da listagem paginada por número de página */
+export interface ConsultaPagina {
+  ordenacao: OrdenacaoBeneficio;
+  direcao: 'asc' | 'desc';
+  nome?: string;
+  ativo?: boolean | null;
+}
+
+/** Faixa do histograma de saldos: [de, ate) */
+export interface FaixaValor {
+  de: number | null;
+  ate: number | null;
+  quantidade: number;
+}
+
+/** Estatísticas agregadas; valores consideram apenas os benefícios ativos */
+export interface EstatisticasBeneficios {
+  ativos: number;
+  inativos: number;
+  total: number;
+  minimo: number | null;
+  maximo: number | null;
+  media: number | null;
+  histograma: FaixaValor[];
+  conferidoEm: string | null;
+}
+
+/** Estado de um benefício após uma alteração confirmada (fluxo de alterações) */
+export interface AlteracaoBeneficio {
+  id: number;
+  valor: number;
+  ativo: boolean;
+  version: number;
+}
+
+/** Evento do fluxo de alterações; após uma reconexão eventos podem ter sido perdidos e os dados devem ser recarregados */
+export type EventoAlteracoes =
+  | { tipo: 'alteracoes'; alteracoes: AlteracaoBeneficio[] }
+  | { tipo: 'reconectado' };
+
+export interface SugestaoNome {
+  id: number;
+  nome: string;
+}
+
+/** Transferência enfileirada (fila assíncrona habilitada no backend) */
+export interface TicketTransferencia {
+  ticket: string;
+  status: 'PENDENTE' | 'CONCLUIDA' | 'REJEITADA';
+  fromId: number;
+  toId: number;
+  amount: number;
+  mensagem?: string | null;
+  recebidaEm: string;
+  processadaEm?: string | null;
+}
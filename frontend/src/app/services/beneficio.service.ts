@@ -1,26 +1,64 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
-import { Observable } from 'rxjs';
-import { Beneficio, BeneficioCreateDTO, BeneficioUpdateDTO, TransferenciaDTO } from '../models/beneficio.interface';
+import { EMPTY, Observable, timer } from 'rxjs';
+import { exhaustMap, expand, last, map, reduce, share, take, takeWhile } from 'rxjs/operators';
+import { AlteracaoBeneficio, Beneficio, BeneficioCreateDTO, ConsultaPagina, BeneficioUpdateDTO, EstatisticasBeneficios, EventoAlteracoes, Pagina, PaginaCursor, SugestaoNome, TicketTransferencia, TransferenciaDTO } from '../models/beneficio.interface';
 
 @Injectable({
   providedIn: 'root'
 })
 export class BeneficioService {
   private apiUrl = 'http://localhost:8080/api/v1/beneficios';
+  private eventos?: Observable<EventoAlteracoes>;
 
   constructor(private http: HttpClient) { }
 
+  findPage(after?: number | null, limit = 50): Observable<PaginaCursor<Beneficio>> {
+    return this.http.get<PaginaCursor<Beneficio>>(this.apiUrl, { params: this.pageParams(after, limit) });
+  }
+
+  /** campos: apenas os campos informados são serializados (?fields=); omitido, todos */
+  findAtivosPage(after?: number | null, limit = 50, campos?: (keyof Beneficio)[]): Observable<PaginaCursor<Beneficio>> {
+    let params = this.pageParams(after, limit);
+    if (campos?.length) {
+      params = params.set('fields', campos.join(','));
+    }
+    return this.http.get<PaginaCursor<Beneficio>>(`${this.apiUrl}/ativos`, { params });
+  }
+
+  /** Página por número, filtrada e ordenada no servidor, com o total (rolagem virtual) */
+  findPagina(pagina: number, tamanho: number, consulta: ConsultaPagina): Observable<Pagina<Beneficio>> {
+    let params = new HttpParams()
+      .set('pagina', pagina)
+      .set('tamanho', tamanho)
+      .set('ordenacao', consulta.ordenacao)
+      .set('direcao', consulta.direcao);
+    if (consulta.nome?.trim()) {
+      params = params.set('nome', consulta.nome.trim());
+    }
+    if (consulta.ativo != null) {
+      params = params.set('ativo', consulta.ativo);
+    }
+    return this.http.get<Pagina<Beneficio>>(`${this.apiUrl}/pagina`, { params });
+  }
+
+  /** Percorre todas as páginas; usar apenas onde a lista completa é realmente necessária */
   findAll(): Observable<Beneficio[]> {
-    return this.http.get<Beneficio[]>(this.apiUrl);
+    return this.collectPages(after => this.findPage(after, 500));
   }
 
   findById(id: number): Observable<Beneficio> {
     return this.http.get<Beneficio>(`${this.apiUrl}/${id}`);
   }
 
-  findAtivos(): Observable<Beneficio[]> {
-    return this.http.get<Beneficio[]>(`${this.apiUrl}/ativos`);
+  /** Percorre todas as páginas de benefícios ativos */
+  findAtivos(campos?: (keyof Beneficio)[]): Observable<Beneficio[]> {
+    return this.collectPages(after => this.findAtivosPage(after, 500, campos));
+  }
+
+  /** Contagens, total, mínimo, máximo, média e histograma, mantidos em memória pelo backend */
+  estatisticas(): Observable<EstatisticasBeneficios> {
+    return this.http.get<EstatisticasBeneficios>(`${this.apiUrl}/estatisticas`);
   }
 
   findByNome(nome: string): Observable<Beneficio[]> {
@@ -28,6 +66,11 @@ export class BeneficioService {
     return this.http.get<Beneficio[]>(`${this.apiUrl}/buscar`, { params });
   }
 
+  autocompletar(prefixo: string, limit = 10): Observable<SugestaoNome[]> {
+    const params = new HttpParams().set('prefixo', prefixo).set('limit', limit);
+    return this.http.get<SugestaoNome[]>(`${this.apiUrl}/autocompletar`, { params });
+  }
+
   create(dto: BeneficioCreateDTO): Observable<Beneficio> {
     return this.http.post<Beneficio>(this.apiUrl, dto);
   }
@@ -40,7 +83,85 @@ export class BeneficioService {
     return this.http.delete<void>(`${this.apiUrl}/${id}`);
   }
 
-  transfer(dto: TransferenciaDTO): Observable<void> {
-    return this.http.post<void>(`${this.apiUrl}/transferir`, dto);
+  /** Com a fila assíncrona habilitada o backend responde 202 com o ticket; caso contrário, 200 sem corpo */
+  transfer(dto: TransferenciaDTO): Observable<TicketTransferencia | null> {
+    return this.http.post<TicketTransferencia | null>(`${this.apiUrl}/transferir`, dto);
+  }
+
+  consultarTransferencia(ticket: string): Observable<TicketTransferencia> {
+    return this.http.get<TicketTransferencia>(`${this.apiUrl}/transferir/${ticket}`);
+  }
+
+  /**
+   * Consulta o ticket a cada intervalo até a transferência sair de PENDENTE; esgotadas as tentativas,
+   * emite o ticket ainda pendente
+   */
+  aguardarTransferencia(ticket: string, intervaloMs = 500, tentativas = 20): Observable<TicketTransferencia> {
+    return timer(intervaloMs, intervaloMs).pipe(
+      take(tentativas),
+      exhaustMap(() => this.consultarTransferencia(ticket)),
+      takeWhile(situacao => situacao.status === 'PENDENTE', true),
+      last()
+    );
+  }
+
+  /**
+   * Fluxo de alterações (Server-Sent Events), com uma única conexão compartilhada pelos componentes
+   * A conexão abre com o primeiro assinante e fecha com o último; o EventSource reconecta sozinho
+   */
+  alteracoes(): Observable<EventoAlteracoes> {
+    if (!this.eventos) {
+      this.eventos = new Observable<EventoAlteracoes>(subscriber => {
+        const fonte = new EventSource(`${this.apiUrl}/stream`);
+        let perdida = false;
+        fonte.addEventListener('alteracoes', evento =>
+          subscriber.next({ tipo: 'alteracoes', alteracoes: JSON.parse((evento as MessageEvent).data) }));
+        fonte.onopen = () => {
+          if (perdida) {
+            perdida = false;
+            subscriber.next({ tipo: 'reconectado' });
+          }
+        };
+        fonte.onerror = () => perdida = true;
+        return () => fonte.close();
+      }).pipe(share());
+    }
+    return this.eventos;
+  }
+
+  /**
+   * Aplica as alterações aos benefícios carregados (valor, situação e versão), ignorando as mais antigas
+   * que a versão conhecida; retorna os IDs ausentes da lista (ex.: benefícios criados depois da carga)
+   */
+  aplicarAlteracoes(beneficios: Beneficio[], alteracoes: AlteracaoBeneficio[]): number[] {
+    const porId = new Map(beneficios.map(b => [b.id, b]));
+    const ausentes: number[] = [];
+    for (const alteracao of alteracoes) {
+      const beneficio = porId.get(alteracao.id);
+      if (!beneficio) {
+        ausentes.push(alteracao.id);
+      } else if ((beneficio.version ?? -1) <= alteracao.version) {
+        beneficio.valor = alteracao.valor;
+        beneficio.ativo = alteracao.ativo;
+        beneficio.version = alteracao.version;
+      }
+    }
+    return ausentes;
+  }
+
+  private pageParams(after: number | null | undefined, limit: number): HttpParams {
+    let params = new HttpParams().set('limit', limit);
+    if (after != null) {
+      params = params.set('after', after);
+    }
+    return params;
+  }
+
+  private collectPages(fetch: (after: number | null) => Observable<PaginaCursor<Beneficio>>): Observable<Beneficio[]> {
+    return fetch(null).pipe(
+      expand(page => page.proximoCursor != null ? fetch(page.proximoCursor) : EMPTY),
+      map(page => page.itens),
+      reduce((all, itens) => all.concat(itens), [] as Beneficio[])
+    );
   }
 }